@@ -0,0 +1,124 @@
+package ru.academy.homework.motoshop.assets;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сборочный шаг, который кладет рядом со статическими ресурсами их сжатые копии.
+ *
+ * <p>Для каждого текстового ресурса (css, js, svg, ico и т.д.) создаются файлы
+ * {@code <имя>.gz} и {@code <имя>.br}. Во время работы приложения
+ * {@link org.springframework.web.servlet.resource.EncodedResourceResolver} отдает их
+ * напрямую по заголовку {@code Accept-Encoding}, без сжатия на каждом запросе.</p>
+ *
+ * <p>Запускается из Maven на фазе {@code process-classes}, аргумент — каталог
+ * {@code static} в {@code target/classes}. Если нативная библиотека Brotli недоступна
+ * на платформе сборки, создаются только gzip-варианты.</p>
+ */
+public final class StaticAssetPrecompressor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticAssetPrecompressor.class);
+
+    /** Расширения, которые имеет смысл сжимать (изображения jpg/png уже сжаты) */
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS =
+            Set.of("css", "js", "mjs", "svg", "ico", "html", "json", "txt", "map");
+
+    /** Файлы меньше этого размера не сжимаем: заголовки съедят выигрыш */
+    private static final int MIN_SIZE_BYTES = 256;
+
+    private StaticAssetPrecompressor() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: StaticAssetPrecompressor <static-dir>");
+        }
+
+        Path root = Paths.get(args[0]);
+        if (!Files.isDirectory(root)) {
+            logger.info("Static directory not found, skipping: {}", root);
+            return;
+        }
+
+        boolean brotliAvailable = isBrotliAvailable();
+        if (!brotliAvailable) {
+            logger.warn("Brotli native library is not available, only gzip variants will be created");
+        }
+
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(root)) {
+            assets = files.filter(Files::isRegularFile)
+                    .filter(StaticAssetPrecompressor::isCompressible)
+                    .collect(Collectors.toList());
+        }
+
+        int written = 0;
+        for (Path asset : assets) {
+            byte[] original = Files.readAllBytes(asset);
+            if (original.length < MIN_SIZE_BYTES) {
+                continue;
+            }
+
+            written += writeIfSmaller(asset, ".gz", original, gzip(original));
+            if (brotliAvailable) {
+                written += writeIfSmaller(asset, ".br", original, Encoder.compress(original,
+                        new Encoder.Parameters().setQuality(11).setMode(Encoder.Mode.TEXT)));
+            }
+        }
+
+        logger.info("Precompressed {} assets, {} variants written", assets.size(), written);
+    }
+
+    private static boolean isCompressible(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && COMPRESSIBLE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isBrotliAvailable() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static int writeIfSmaller(Path asset, String suffix, byte[] original, byte[] compressed) throws IOException {
+        Path target = asset.resolveSibling(asset.getFileName() + suffix);
+        // Сжатая копия, которая не меньше оригинала, только навредит
+        if (compressed.length >= original.length) {
+            Files.deleteIfExists(target);
+            return 0;
+        }
+        Files.write(target, compressed);
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        }
+        return buffer.toByteArray();
+    }
+}
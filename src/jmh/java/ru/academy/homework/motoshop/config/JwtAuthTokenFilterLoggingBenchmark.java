@@ -0,0 +1,118 @@
+package ru.academy.homework.motoshop.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность {@link JwtAuthTokenFilter} на анонимном запросе к защищенной
+ * странице (две записи DEBUG на запрос) при разных настройках логирования:
+ * <ul>
+ *   <li>{@code OFF} — уровень DEBUG выключен, как в продакшене;</li>
+ *   <li>{@code SYNC} — синхронный appender: потоки запросов форматируют и пишут под общей блокировкой;</li>
+ *   <li>{@code ASYNC} — {@link AsyncAppender} с ограниченной очередью, как в logback-spring.xml.</li>
+ * </ul>
+ * Вывод идет в {@link OutputStream#nullOutputStream()}, чтобы измерять логирование, а не терминал.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtAuthTokenFilterLoggingBenchmark {
+
+    @Param({"OFF", "SYNC", "ASYNC"})
+    public String logging;
+
+    private JwtAuthTokenFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    private Appender<ILoggingEvent> appender;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger logger = context.getLogger(JwtAuthTokenFilter.class);
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+
+        if ("OFF".equals(logging)) {
+            logger.setLevel(Level.INFO);
+        } else {
+            logger.setLevel(Level.DEBUG);
+            appender = "ASYNC".equals(logging) ? asyncAppender(context, nullAppender(context)) : nullAppender(context);
+            logger.addAppender(appender);
+        }
+
+        filter = new JwtAuthTokenFilter();
+        request = new MockHttpServletRequest("GET", "/profile");
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (appender != null) {
+            appender.stop();
+        }
+    }
+
+    private static Appender<ILoggingEvent> nullAppender(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private static Appender<ILoggingEvent> asyncAppender(LoggerContext context, Appender<ILoggingEvent> target) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1024);
+        async.setIncludeCallerData(false);
+        async.addAppender(target);
+        async.start();
+        return async;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousProtectedRequest() throws Exception {
+        filter.doFilterInternal(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.academy.homework.motoshop.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.academy.homework.motoshop.entity.Role;
+import ru.academy.homework.motoshop.entity.RoleName;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.services.UserDetailsImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск и проверка JWT: выполняются на каждом входе и на каждом запросе с cookie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    /** Тот же формат, что и в application.properties: Base64, 64 байта */
+    private static final String SECRET =
+            "bW90b3Nob3Atc2VjcmV0LWtleS1mb3ItYmVuY2htYXJrcy1vbmx5LW5vdC1mb3ItcHJvZHVjdGlvbi11c2UtMTIzNA==";
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+
+        User user = new User("rider", "rider@motoshop.ru", "password");
+        user.setId(42L);
+        user.setRole(new Role(RoleName.ROLE_USER));
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtToken() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.academy.homework.motoshop.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка заказа и пересчет суммы в зависимости от числа позиций. Добавление строки не
+ * должно зависеть от размера заказа: сумма и индекс по товару поддерживаются
+ * инкрементально. Удаление по-прежнему ищет строку в списке, полный пересчет остается
+ * только у {@code calculateTotalAmount}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    @Param({"10", "1000", "5000", "10000"})
+    public int lines;
+
+    private Product[] products;
+    private Order filledOrder;
+
+    @Setup
+    public void setUp() {
+        products = new Product[lines];
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product("Товар " + i, "", Money.ofMinor(100_000L + i * 100L), 10, null);
+            product.setId((long) i + 1);
+            products[i] = product;
+        }
+
+        filledOrder = new Order();
+        for (Product product : products) {
+            filledOrder.addProduct(product, 1);
+        }
+    }
+
+    /** Заказ из {@code lines} разных товаров, добавляемых по одному */
+    @Benchmark
+    public Order addDistinctProducts() {
+        Order order = new Order();
+        for (Product product : products) {
+            order.addProduct(product, 1);
+        }
+        return order;
+    }
+
+    /** Повторное добавление уже имеющегося в заказе товара */
+    @Benchmark
+    public Order addExistingProduct() {
+        filledOrder.addProduct(products[lines - 1], 1);
+        return filledOrder;
+    }
+
+    /** Удаление и возврат строки в заказ из {@code lines} позиций */
+    @Benchmark
+    public Order removeAndAddItem() {
+        OrderItem item = filledOrder.getOrderItems().get(filledOrder.getOrderItems().size() - 1);
+        filledOrder.removeOrderItem(item);
+        filledOrder.addOrderItem(item);
+        return filledOrder;
+    }
+
+    @Benchmark
+    public Money calculateTotalAmount() {
+        filledOrder.calculateTotalAmount();
+        return filledOrder.getTotalAmount();
+    }
+}
@@ -0,0 +1,49 @@
+package ru.academy.homework.motoshop.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.academy.homework.motoshop.dto.UserDto;
+import ru.academy.homework.motoshop.entity.Role;
+import ru.academy.homework.motoshop.entity.RoleName;
+import ru.academy.homework.motoshop.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование пользователя в DTO для страницы администрирования.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdminServiceBenchmark {
+
+    private AdminService adminService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        adminService = new AdminService(null, null);
+
+        user = new User("rider", "rider@motoshop.ru", "password");
+        user.setId(42L);
+        user.setRole(new Role(RoleName.ROLE_USER));
+        user.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 30));
+    }
+
+    @Benchmark
+    public UserDto convertToDto() {
+        return adminService.convertToDto(user);
+    }
+}
@@ -3,6 +3,7 @@ package ru.academy.homework.motoshop.Initializer;
 
 import ru.academy.homework.motoshop.model.Category;
 import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
 import ru.academy.homework.motoshop.repository.CategoryRepository;
 import ru.academy.homework.motoshop.repository.ProductRepository;
 import org.slf4j.Logger;
@@ -91,7 +92,7 @@ public class ProductInitializer implements CommandLineRunner {
         Product product = new Product();
         product.setName(name);
         product.setDescription(description);
-        product.setPrice(price);
+        product.setPrice(Money.of(price));
         product.setStockQuantity(stockQuantity);
         product.setCategory(category);
         product.setBrand(brand);
@@ -0,0 +1,46 @@
+package ru.academy.homework.motoshop.cache;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Сообщение об изменении закэшированных строк.
+ *
+ * <p>Пустой набор id означает весь регион сущности: так передаются массовые
+ * изменения, например импорт каталога.</p>
+ */
+public final class CacheInvalidation {
+
+    private final String origin;
+    private final String entityName;
+    private final Set<Long> ids;
+
+    public CacheInvalidation(String origin, String entityName, Set<Long> ids) {
+        this.origin = origin;
+        this.entityName = entityName;
+        this.ids = ids != null ? Collections.unmodifiableSet(ids) : Collections.emptySet();
+    }
+
+    /** Узел, на котором произошло изменение; свои сообщения узел пропускает */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    public boolean isWholeRegion() {
+        return ids.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{origin='" + origin + "', entity='" + entityName + "', ids=" +
+                (ids.isEmpty() ? "ALL" : ids) + '}';
+    }
+}
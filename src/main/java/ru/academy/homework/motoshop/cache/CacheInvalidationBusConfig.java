@@ -0,0 +1,47 @@
+package ru.academy.homework.motoshop.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Шина инвалидации для нескольких узлов за балансировщиком.
+ *
+ * <p>Включается {@code motoshop.cache.bus.enabled=true} и заменяет канал внутри процесса
+ * на {@link OutboxCacheInvalidationChannel}. При {@code motoshop.cache.bus.multicast.enabled=true}
+ * сообщения дополнительно рассылаются по UDP multicast, что сокращает задержку до
+ * сетевой; таблица при этом остается надежным путем доставки.</p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "motoshop.cache.bus.enabled", havingValue = "true")
+public class CacheInvalidationBusConfig {
+
+    @Bean
+    public OutboxCacheInvalidationChannel cacheInvalidationChannel(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${motoshop.cache.bus.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${motoshop.cache.bus.poll-interval-ms:500}") long pollIntervalMs,
+            @Value("${motoshop.cache.bus.gap-timeout-ms:2000}") long gapTimeoutMs,
+            @Value("${motoshop.cache.bus.retention-ms:600000}") long retentionMs,
+            @Value("${motoshop.cache.bus.max-ids-per-message:500}") int maxIdsPerMessage,
+            @Value("${motoshop.cache.bus.poll-batch-size:1000}") int pollBatchSize,
+            @Value("${motoshop.cache.bus.multicast.enabled:false}") boolean multicastEnabled,
+            @Value("${motoshop.cache.bus.multicast.group:239.255.27.1}") String multicastGroup,
+            @Value("${motoshop.cache.bus.multicast.port:45588}") int multicastPort,
+            @Value("${motoshop.cache.bus.multicast.interface:}") String multicastInterface,
+            @Value("${motoshop.cache.bus.multicast.ttl:1}") int multicastTtl) {
+        OutboxCacheInvalidationChannel channel = new OutboxCacheInvalidationChannel(dataSource, flushIntervalMs,
+                pollIntervalMs, gapTimeoutMs, retentionMs, maxIdsPerMessage, pollBatchSize);
+        channel.setMeterRegistry(meterRegistry);
+        if (multicastEnabled) {
+            channel.setFastTransport(new MulticastInvalidationTransport(multicastGroup, multicastPort,
+                    multicastInterface, multicastTtl));
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.academy.homework.motoshop.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Канал, по которому узлы сообщают друг другу об изменении закэшированных данных.
+ *
+ * <p>Реализация определяет транспорт: {@link InJvmCacheInvalidationChannel} работает
+ * внутри одного процесса, {@link OutboxCacheInvalidationChannel} — между узлами через
+ * общую таблицу. Сообщение доставляется и узлу-отправителю, он пропускает его по
+ * {@link CacheInvalidation#getOrigin()}.</p>
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * Отправляет сообщение всем подписчикам. Не должен бросать исключений из-за
+     * недоступности транспорта: кэш защищен от вечной устарелости сроком жизни записей.
+     */
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
@@ -0,0 +1,59 @@
+package ru.academy.homework.motoshop.cache;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Строка таблицы-журнала шины инвалидации. Приложение пишет и читает таблицу через
+ * JDBC ({@link OutboxCacheInvalidationChannel}); сущность нужна, чтобы таблица
+ * создавалась вместе со схемой.
+ */
+@Entity
+@Table(name = "cache_invalidation", indexes = {
+        @Index(name = "ix_cache_invalidation_created_at", columnList = "created_at")
+})
+public class CacheInvalidationRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "origin", nullable = false, length = 64)
+    private String origin;
+
+    @Column(name = "entity_name", nullable = false)
+    private String entityName;
+
+    /** Id через запятую; NULL — весь регион */
+    @Column(name = "ids", columnDefinition = "TEXT")
+    private String ids;
+
+    /** Время первого изменения в сообщении на узле-отправителе, мс с эпохи */
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getIds() {
+        return ids;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+}
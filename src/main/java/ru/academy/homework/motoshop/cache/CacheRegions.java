@@ -0,0 +1,39 @@
+package ru.academy.homework.motoshop.cache;
+
+import java.util.Map;
+
+/**
+ * Имена регионов кэша второго уровня.
+ *
+ * <p>Все регионы создаются заранее в {@link SecondLevelCacheConfig} со своими
+ * ограничениями размера; Hibernate не создаст региона, которого нет в этом списке.</p>
+ */
+public final class CacheRegions {
+
+    public static final String CATEGORIES = "motoshop.categories";
+    public static final String ROLES = "motoshop.roles";
+    public static final String PRODUCTS = "motoshop.products";
+
+    /** Результаты запросов по категориям и ролям; товары в кэше запросов не хранятся */
+    public static final String CATEGORY_QUERIES = "motoshop.categories.queries";
+    public static final String ROLE_QUERIES = "motoshop.roles.queries";
+
+    /** Стандартные регионы Hibernate для кэша запросов */
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private static final Map<String, String> QUERY_REGIONS = Map.of(
+            "ru.academy.homework.motoshop.model.Category", CATEGORY_QUERIES,
+            "ru.academy.homework.motoshop.entity.Role", ROLE_QUERIES);
+
+    private CacheRegions() {
+    }
+
+    /**
+     * Регион запросов, который устаревает при изменении сущности в обход сессии
+     * Hibernate этого узла, или {@code null}, если запросы по ней не кэшируются.
+     */
+    public static String queryRegionFor(String entityName) {
+        return QUERY_REGIONS.get(entityName);
+    }
+}
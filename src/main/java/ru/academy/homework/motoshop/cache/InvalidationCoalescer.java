@@ -0,0 +1,93 @@
+package ru.academy.homework.motoshop.cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Накопитель сообщений до отправки: сообщения об одной сущности от одного узла
+ * сливаются в одно, а слишком длинный список id заменяется сбросом всего региона.
+ * Размер накопителя ограничен числом кэшируемых сущностей, а не потоком изменений.
+ */
+final class InvalidationCoalescer {
+
+    private final int maxIdsPerMessage;
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    InvalidationCoalescer(int maxIdsPerMessage) {
+        this.maxIdsPerMessage = maxIdsPerMessage;
+    }
+
+    /**
+     * @param publishedAt время изменения, мс с эпохи; у слитого сообщения остается самое раннее
+     * @return true, если сообщение слилось с уже ожидающим
+     */
+    boolean add(CacheInvalidation invalidation, long publishedAt) {
+        boolean[] merged = new boolean[1];
+        pending.compute(new Key(invalidation.getOrigin(), invalidation.getEntityName()), (key, current) -> {
+            Pending result = current;
+            if (result == null) {
+                result = new Pending(publishedAt);
+            } else {
+                merged[0] = true;
+            }
+            result.merge(invalidation, maxIdsPerMessage);
+            return result;
+        });
+        return merged[0];
+    }
+
+    /**
+     * Забирает все накопленные сообщения. Сообщение, добавленное во время вызова,
+     * попадает либо в этот, либо в следующий вызов.
+     */
+    List<Entry> drain() {
+        List<Entry> entries = new ArrayList<>(pending.size());
+        for (Key key : pending.keySet()) {
+            Pending removed = pending.remove(key);
+            if (removed != null) {
+                entries.add(new Entry(new CacheInvalidation(key.origin(), key.entityName(), removed.ids),
+                        removed.firstPublishedAt));
+            }
+        }
+        return entries;
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /** Сообщение и время самого раннего из слитых в него изменений */
+    record Entry(CacheInvalidation invalidation, long publishedAt) {
+    }
+
+    private record Key(String origin, String entityName) {
+    }
+
+    private static final class Pending {
+
+        final long firstPublishedAt;
+        /** null — весь регион */
+        Set<Long> ids = new HashSet<>();
+
+        Pending(long firstPublishedAt) {
+            this.firstPublishedAt = firstPublishedAt;
+        }
+
+        void merge(CacheInvalidation invalidation, int maxIds) {
+            if (ids == null) {
+                return;
+            }
+            if (invalidation.isWholeRegion()) {
+                ids = null;
+                return;
+            }
+            ids.addAll(invalidation.getIds());
+            if (ids.size() > maxIds) {
+                ids = null;
+            }
+        }
+    }
+}
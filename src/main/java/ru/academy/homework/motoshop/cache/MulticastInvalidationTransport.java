@@ -0,0 +1,141 @@
+package ru.academy.homework.motoshop.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Быстрый путь шины инвалидации: после записи пакета в таблицу те же сообщения
+ * рассылаются одной UDP-датаграммой на multicast-группу.
+ *
+ * <p>Доставка не гарантируется: потерянную или слишком большую датаграмму заменит
+ * чтение таблицы ({@link OutboxCacheInvalidationChannel}), а повторная инвалидация
+ * безвредна. Формат — строки {@code publishedAt\torigin\tentity\tids} в UTF-8.</p>
+ */
+public class MulticastInvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(MulticastInvalidationTransport.class);
+
+    static final String TRANSPORT = "multicast";
+
+    /** Больше не отправляется: IP-фрагментация на практике теряет такие датаграммы */
+    private static final int MAX_DATAGRAM_BYTES = 8192;
+
+    private final InetSocketAddress group;
+    private final String interfaceName;
+    private final int timeToLive;
+
+    private MulticastSocket receiveSocket;
+    private MulticastSocket sendSocket;
+    private Thread receiver;
+    private volatile boolean running;
+
+    public MulticastInvalidationTransport(String groupAddress, int port, String interfaceName, int timeToLive) {
+        this.group = new InetSocketAddress(groupAddress, port);
+        this.interfaceName = interfaceName;
+        this.timeToLive = timeToLive;
+    }
+
+    void start(BiConsumer<List<InvalidationCoalescer.Entry>, String> handler) {
+        try {
+            NetworkInterface networkInterface = interfaceName == null || interfaceName.isEmpty()
+                    ? null : NetworkInterface.getByName(interfaceName);
+            receiveSocket = new MulticastSocket(group.getPort());
+            receiveSocket.joinGroup(group, networkInterface);
+            sendSocket = new MulticastSocket();
+            sendSocket.setTimeToLive(timeToLive);
+            if (networkInterface != null) {
+                sendSocket.setNetworkInterface(networkInterface);
+            }
+        } catch (IOException e) {
+            logger.warn("Multicast cache invalidation disabled, {} is unavailable: {}", group, e.getMessage());
+            stop();
+            return;
+        }
+
+        running = true;
+        receiver = new Thread(() -> receiveLoop(handler), "cache-invalidation-multicast");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    private void receiveLoop(BiConsumer<List<InvalidationCoalescer.Entry>, String> handler) {
+        byte[] buffer = new byte[MAX_DATAGRAM_BYTES];
+        while (running) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                receiveSocket.receive(packet);
+                handler.accept(decode(new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8)),
+                        TRANSPORT);
+            } catch (IOException e) {
+                if (running) {
+                    logger.debug("Multicast receive failed: {}", e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Malformed cache invalidation datagram from {}: {}", packet.getAddress(), e.getMessage());
+            }
+        }
+    }
+
+    void send(List<InvalidationCoalescer.Entry> entries) {
+        if (!running) {
+            return;
+        }
+        byte[] data = encode(entries).getBytes(StandardCharsets.UTF_8);
+        if (data.length > MAX_DATAGRAM_BYTES) {
+            logger.debug("Cache invalidation batch of {} bytes left to the outbox", data.length);
+            return;
+        }
+        try {
+            sendSocket.send(new DatagramPacket(data, data.length, group));
+        } catch (IOException e) {
+            logger.debug("Multicast send failed: {}", e.getMessage());
+        }
+    }
+
+    void stop() {
+        running = false;
+        if (receiveSocket != null) {
+            receiveSocket.close();
+        }
+        if (sendSocket != null) {
+            sendSocket.close();
+        }
+    }
+
+    static String encode(List<InvalidationCoalescer.Entry> entries) {
+        StringBuilder builder = new StringBuilder(entries.size() * 96);
+        for (InvalidationCoalescer.Entry entry : entries) {
+            CacheInvalidation invalidation = entry.invalidation();
+            String ids = OutboxCacheInvalidationChannel.formatIds(invalidation);
+            builder.append(entry.publishedAt()).append('\t')
+                    .append(invalidation.getOrigin()).append('\t')
+                    .append(invalidation.getEntityName()).append('\t')
+                    .append(ids != null ? ids : "").append('\n');
+        }
+        return builder.toString();
+    }
+
+    static List<InvalidationCoalescer.Entry> decode(String payload) {
+        List<InvalidationCoalescer.Entry> entries = new ArrayList<>();
+        for (String line : payload.split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            entries.add(new InvalidationCoalescer.Entry(
+                    new CacheInvalidation(fields[1], fields[2], OutboxCacheInvalidationChannel.parseIds(fields[3])),
+                    Long.parseLong(fields[0])));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,324 @@
+package ru.academy.homework.motoshop.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Шина инвалидации между узлами через общую таблицу {@code cache_invalidation}.
+ *
+ * <p>{@link #publish} только кладет сообщение в {@link InvalidationCoalescer}; раз в
+ * {@code flushIntervalMs} накопленные сообщения пишутся в таблицу одним пакетом, по
+ * строке на сущность. Каждый узел раз в {@code pollIntervalMs} читает строки с id больше
+ * прочитанного, сливает их по сущностям и передает подписчикам. Таблица — надежный путь:
+ * узел, пропустивший быстрый транспорт ({@link MulticastInvalidationTransport}) или
+ * перезапущенный, все равно получит сообщения, записанные после его старта.</p>
+ *
+ * <p>Id строк выдает база, и транзакции разных узлов могут зафиксироваться не по порядку
+ * id. Поэтому граница прочитанного не переходит через пропуск в id, пока тот не
+ * продержится {@code gapTimeoutMs}: строки за пропуском уже доставлены и запоминаются,
+ * а сам пропуск успеет заполниться. Пропуски от откатов и скачков IDENTITY задерживают
+ * только сдвиг границы, не доставку.</p>
+ *
+ * <p>Задержка распространения {@code motoshop.cache.invalidation.delay} считается от
+ * первого изменения в сообщении на отправителе до доставки на получателе по часам
+ * обоих узлов, поэтому включает и рассинхронизацию часов.</p>
+ */
+public class OutboxCacheInvalidationChannel implements CacheInvalidationChannel, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxCacheInvalidationChannel.class);
+
+    static final String TRANSPORT = "outbox";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_invalidation (origin, entity_name, ids, created_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT id, origin, entity_name, ids, created_at FROM cache_invalidation WHERE id > ? ORDER BY id";
+    private static final String MAX_ID_SQL = "SELECT MAX(id) FROM cache_invalidation";
+    private static final String CLEANUP_SQL = "DELETE FROM cache_invalidation WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate pollTemplate;
+    private final InvalidationCoalescer coalescer;
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final long flushIntervalMs;
+    private final long pollIntervalMs;
+    private final long gapTimeoutMs;
+    private final long retentionMs;
+    private final int maxIdsPerMessage;
+
+    private MulticastInvalidationTransport fastTransport;
+
+    private Counter sentCounter;
+    private Counter receivedCounter;
+    private Counter coalescedCounter;
+    private MeterRegistry meterRegistry;
+
+    // Состояние чтения: только поток шины
+    private long watermark = -1;
+    private final TreeSet<Long> seenAboveWatermark = new TreeSet<>();
+    private long gapSince;
+    private long lastCleanupAt;
+
+    private ScheduledExecutorService executor;
+
+    public OutboxCacheInvalidationChannel(DataSource dataSource, long flushIntervalMs, long pollIntervalMs,
+                                          long gapTimeoutMs, long retentionMs, int maxIdsPerMessage,
+                                          int pollBatchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.pollTemplate = new JdbcTemplate(dataSource);
+        this.pollTemplate.setMaxRows(pollBatchSize);
+        this.coalescer = new InvalidationCoalescer(maxIdsPerMessage);
+        this.flushIntervalMs = flushIntervalMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retentionMs = retentionMs;
+        this.maxIdsPerMessage = maxIdsPerMessage;
+    }
+
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.sentCounter = Counter.builder("motoshop.cache.invalidation.messages")
+                .description("Сообщения шины инвалидации")
+                .tag("direction", "SENT")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("motoshop.cache.invalidation.messages")
+                .description("Сообщения шины инвалидации")
+                .tag("direction", "RECEIVED")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("motoshop.cache.invalidation.coalesced")
+                .description("Изменения, слитые с уже ожидающим отправки сообщением")
+                .register(meterRegistry);
+    }
+
+    /** Быстрый необязательный транспорт; таблица остается надежным путем доставки */
+    public void setFastTransport(MulticastInvalidationTransport fastTransport) {
+        this.fastTransport = fastTransport;
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        if (coalescer.add(invalidation, System.currentTimeMillis()) && coalescedCounter != null) {
+            coalescedCounter.increment();
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (fastTransport != null) {
+            fastTransport.start(this::receive);
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::pollQuietly, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Cache invalidation bus started: flushIntervalMs={}, pollIntervalMs={}, multicast={}",
+                flushIntervalMs, pollIntervalMs, fastTransport != null);
+    }
+
+    /**
+     * Пишет накопленные сообщения в таблицу одним пакетом.
+     */
+    void flush() {
+        List<InvalidationCoalescer.Entry> entries = coalescer.drain();
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(entries.size());
+        for (InvalidationCoalescer.Entry entry : entries) {
+            CacheInvalidation invalidation = entry.invalidation();
+            args.add(new Object[]{invalidation.getOrigin(), invalidation.getEntityName(),
+                    formatIds(invalidation), entry.publishedAt()});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        } catch (DataAccessException e) {
+            // Сообщения возвращаются в накопитель и уйдут следующим пакетом
+            for (InvalidationCoalescer.Entry entry : entries) {
+                coalescer.add(entry.invalidation(), entry.publishedAt());
+            }
+            throw e;
+        }
+        if (sentCounter != null) {
+            sentCounter.increment(entries.size());
+        }
+
+        if (fastTransport != null) {
+            fastTransport.send(entries);
+        }
+    }
+
+    /**
+     * Читает новые строки таблицы и доставляет их подписчикам.
+     */
+    void poll() {
+        long now = System.currentTimeMillis();
+        if (watermark < 0) {
+            Long max = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+            watermark = max != null ? max : 0;
+            lastCleanupAt = now;
+            return;
+        }
+
+        InvalidationCoalescer received = new InvalidationCoalescer(maxIdsPerMessage);
+        pollTemplate.query(SELECT_SQL, rs -> {
+            long id = rs.getLong(1);
+            if (seenAboveWatermark.add(id)) {
+                long createdAt = rs.getLong(5);
+                received.add(new CacheInvalidation(rs.getString(2), rs.getString(3), parseIds(rs.getString(4))),
+                        createdAt);
+                recordDelay(TRANSPORT, now - createdAt);
+            }
+        }, watermark);
+        advanceWatermark(now);
+
+        if (!received.isEmpty()) {
+            for (InvalidationCoalescer.Entry entry : received.drain()) {
+                deliver(entry.invalidation());
+            }
+        }
+
+        if (now - lastCleanupAt > retentionMs / 4) {
+            lastCleanupAt = now;
+            int deleted = jdbcTemplate.update(CLEANUP_SQL, now - retentionMs);
+            logger.debug("Cache invalidation rows removed: {}", deleted);
+        }
+    }
+
+    private void advanceWatermark(long now) {
+        while (!seenAboveWatermark.isEmpty()) {
+            long first = seenAboveWatermark.first();
+            if (first == watermark + 1) {
+                watermark = first;
+                seenAboveWatermark.pollFirst();
+                gapSince = 0;
+            } else if (gapSince == 0) {
+                gapSince = now;
+                return;
+            } else if (now - gapSince >= gapTimeoutMs) {
+                // Пропуск не заполнился: откат или скачок IDENTITY
+                watermark = first - 1;
+                gapSince = 0;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /** Сообщения быстрого транспорта; повтор того же сообщения из таблицы безвреден */
+    void receive(List<InvalidationCoalescer.Entry> entries, String transport) {
+        long now = System.currentTimeMillis();
+        for (InvalidationCoalescer.Entry entry : entries) {
+            recordDelay(transport, now - entry.publishedAt());
+            deliver(entry.invalidation());
+        }
+    }
+
+    private void deliver(CacheInvalidation invalidation) {
+        if (receivedCounter != null) {
+            receivedCounter.increment();
+        }
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                logger.warn("Cache invalidation subscriber failed: {}", invalidation, e);
+            }
+        }
+    }
+
+    private void recordDelay(String transport, long delayMs) {
+        if (meterRegistry != null) {
+            Timer.builder("motoshop.cache.invalidation.delay")
+                    .description("Задержка от изменения на одном узле до доставки на другом")
+                    .tag("transport", transport)
+                    .register(meterRegistry)
+                    .record(Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Cache invalidation flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            logger.warn("Cache invalidation poll failed: {}", e.getMessage());
+        }
+    }
+
+    static String formatIds(CacheInvalidation invalidation) {
+        if (invalidation.isWholeRegion()) {
+            return null;
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (Long id : invalidation.getIds()) {
+            joiner.add(id.toString());
+        }
+        return joiner.toString();
+    }
+
+    static Set<Long> parseIds(String ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        String[] parts = ids.split(",");
+        Set<Long> result = new HashSet<>(parts.length * 2);
+        for (String part : parts) {
+            result.add(Long.parseLong(part));
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (fastTransport != null) {
+            fastTransport.stop();
+        }
+        // Изменения последних миллисекунд не должны пропасть при остановке узла
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Final cache invalidation flush failed: {}", e.getMessage());
+        }
+    }
+}
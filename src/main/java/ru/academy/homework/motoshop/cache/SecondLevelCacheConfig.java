@@ -0,0 +1,99 @@
+package ru.academy.homework.motoshop.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine через JCache.
+ *
+ * <p>В кэше живут почти неизменные {@code Category} и {@code Role} и часто читаемые
+ * строки {@code Product}. Каждый регион создается здесь с ограничением числа записей,
+ * неизвестные регионы Hibernate не создает. Записи хранятся по ссылке: значения
+ * Hibernate неизменяемы, и копирование при каждом чтении ничего бы не дало.</p>
+ *
+ * <p>Регион товаров дополнительно ограничен сроком жизни записей: если сообщение об
+ * изменении не дошло до узла, устаревший остаток продержится не дольше этого срока.
+ * Статистика регионов попадает в Micrometer через {@code hibernate-micrometer}.</p>
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+    @Value("${motoshop.cache.regions.categories.max-entries:1000}")
+    private long categoriesMaxEntries;
+
+    @Value("${motoshop.cache.regions.roles.max-entries:100}")
+    private long rolesMaxEntries;
+
+    @Value("${motoshop.cache.regions.products.max-entries:20000}")
+    private long productsMaxEntries;
+
+    @Value("${motoshop.cache.regions.products.time-to-live:10m}")
+    private Duration productsTimeToLive;
+
+    @Value("${motoshop.cache.regions.queries.max-entries:500}")
+    private long queriesMaxEntries;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Свой URI у каждого контекста: менеджеры с одинаковым URI провайдер делит между ними
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("motoshop-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(CacheRegions.CATEGORIES, region(categoriesMaxEntries, null));
+        cacheManager.createCache(CacheRegions.ROLES, region(rolesMaxEntries, null));
+        cacheManager.createCache(CacheRegions.PRODUCTS, region(productsMaxEntries, productsTimeToLive));
+        cacheManager.createCache(CacheRegions.CATEGORY_QUERIES, region(queriesMaxEntries, null));
+        cacheManager.createCache(CacheRegions.ROLE_QUERIES, region(queriesMaxEntries, null));
+        cacheManager.createCache(CacheRegions.DEFAULT_QUERY_RESULTS, region(queriesMaxEntries, null));
+        // Метки времени таблиц не вытесняются: без них кэш запросов вернул бы устаревшие строки
+        cacheManager.createCache(CacheRegions.UPDATE_TIMESTAMPS, region(null, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /** Один узел; для нескольких узлов включается шина (см. {@link CacheInvalidationBusConfig}) */
+    @Bean
+    @ConditionalOnProperty(name = "motoshop.cache.bus.enabled", havingValue = "false", matchIfMissing = true)
+    public CacheInvalidationChannel cacheInvalidationChannel() {
+        return new InJvmCacheInvalidationChannel();
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Long maxEntries, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxEntries != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (timeToLive != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,172 @@
+package ru.academy.homework.motoshop.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Согласованность кэша второго уровня между узлами.
+ *
+ * <p>Изменения через сессию Hibernate узел применяет к своему кэшу сам, а после коммита
+ * этот класс отправляет их id в {@link CacheInvalidationChannel}. Код, который пишет
+ * в обход Hibernate (JDBC-пакеты остатков, импорт, генератор данных), вызывает
+ * {@link #invalidate} или {@link #invalidateAll}: записи вытесняются сразу, еще раз после
+ * коммита (чтобы убрать значения, перечитанные параллельными запросами до коммита),
+ * и только затем сообщение уходит другим узлам.</p>
+ *
+ * <p>Получив чужое сообщение, узел вытесняет указанные записи и регион запросов
+ * этой сущности.</p>
+ */
+@Component
+public class SecondLevelCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheInvalidator.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheInvalidationChannel channel;
+    private final String nodeId;
+
+    @Autowired
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       CacheInvalidationChannel channel,
+                                       @Value("${motoshop.cache.node-id:}") String nodeId) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.channel = channel;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        CommittedChangesListener listener = new CommittedChangesListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+
+        channel.subscribe(this::onInvalidation);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Вытесняет строки, измененные в обход Hibernate, и сообщает о них другим узлам.
+     */
+    public void invalidate(Class<?> entityClass, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        invalidate(new CacheInvalidation(nodeId, entityClass.getName(), new LinkedHashSet<>(ids)));
+    }
+
+    /**
+     * Вытесняет весь регион сущности, например после импорта каталога.
+     */
+    public void invalidateAll(Class<?> entityClass) {
+        invalidate(new CacheInvalidation(nodeId, entityClass.getName(), null));
+    }
+
+    private void invalidate(CacheInvalidation invalidation) {
+        evict(invalidation);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            channel.publish(invalidation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    evict(invalidation);
+                    channel.publish(invalidation);
+                }
+            }
+        });
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        logger.debug("Remote cache invalidation: {}", invalidation);
+        evict(invalidation);
+    }
+
+    private void evict(CacheInvalidation invalidation) {
+        Cache cache = sessionFactory.getCache();
+        String entityName = invalidation.getEntityName();
+        if (invalidation.isWholeRegion()) {
+            cache.evictEntityData(entityName);
+        } else {
+            for (Long id : invalidation.getIds()) {
+                cache.evictEntityData(entityName, id);
+            }
+        }
+
+        // Метки времени таблиц на этом узле не менялись, поэтому запросы сбрасываются явно
+        String queryRegion = CacheRegions.queryRegionFor(entityName);
+        if (queryRegion != null) {
+            cache.evictQueryRegion(queryRegion);
+        }
+    }
+
+    private void publishCommitted(EntityPersister persister, Object id) {
+        Set<Long> ids = id instanceof Long ? Set.of((Long) id) : null;
+        channel.publish(new CacheInvalidation(nodeId, persister.getEntityName(), ids));
+    }
+
+    /** Изменения закэшированных сущностей через сессию; вызывается после коммита */
+    private class CommittedChangesListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.canWriteToCache();
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            publishCommitted(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            publishCommitted(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            publishCommitted(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+    }
+}
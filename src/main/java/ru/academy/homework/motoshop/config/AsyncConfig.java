@@ -0,0 +1,16 @@
+package ru.academy.homework.motoshop.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Включает выполнение методов {@code @Async}.
+ *
+ * <p>Отдельный пул не объявляется: используется {@code applicationTaskExecutor} Spring Boot.
+ * В профиле {@code virtual-threads} ({@code spring.threads.virtual.enabled=true}) он
+ * создает виртуальный поток на каждую задачу, в обычном режиме — это пул платформенных потоков.</p>
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
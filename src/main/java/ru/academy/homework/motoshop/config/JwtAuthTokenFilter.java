@@ -44,11 +44,13 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            logger.debug("Processing request to: {}, JWT present: {}", requestURI, jwt != null);
-
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Processing request to: {}, JWT present: {}", requestURI, jwt != null);
+            }
 
+            // Токен разбирается и проверяется один раз; null — токена нет или он невалиден
+            String username = jwt != null ? jwtUtils.getUserNameFromJwtToken(jwt) : null;
+            if (username != null) {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -59,11 +61,13 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
             } else if (requiresAuthentication(requestURI) && jwt == null) {
                 logger.debug("No JWT token found for protected URI: {}", requestURI);
             } else if (requiresAuthentication(requestURI) && jwt != null) {
-                logger.warn("Invalid JWT token for protected URI: {}", requestURI);
+                logger.atWarn().addKeyValue("event", "jwt_rejected").addKeyValue("uri", requestURI)
+                    .log("Invalid JWT token for protected URI");
             }
 
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e.getMessage());
+            logger.atError().addKeyValue("event", "jwt_authentication_failed").addKeyValue("uri", requestURI)
+                    .addKeyValue("reason", e.getMessage()).log("Cannot set user authentication");
         }
 
         filterChain.doFilter(request, response);
@@ -120,7 +124,7 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
                 path.equals("/favicon.ico") ||
                 path.startsWith("/error");
     }
-    private String getJwtFromRequest(HttpServletRequest request) {
+    String getJwtFromRequest(HttpServletRequest request) {
 
         Cookie[] cookies = request.getCookies();
         if (cookies != null) {
@@ -3,8 +3,11 @@ package ru.academy.homework.motoshop.config;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -14,6 +17,7 @@ import ru.academy.homework.motoshop.services.UserDetailsImpl;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -47,6 +51,29 @@ public class JwtUtils {
     @Value("${motoshop.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    /** Время проверки токена; не заданы, если реестра метрик нет (например, в бенчмарках) */
+    private Timer validTokenTimer;
+    private Timer invalidTokenTimer;
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.validTokenTimer = Timer.builder("motoshop.jwt.verify")
+                .description("Время разбора и проверки подписи JWT")
+                .tag("outcome", "VALID")
+                .register(meterRegistry);
+        this.invalidTokenTimer = Timer.builder("motoshop.jwt.verify")
+                .description("Время разбора и проверки подписи JWT")
+                .tag("outcome", "INVALID")
+                .register(meterRegistry);
+    }
+
+    private void recordVerify(long startNanos, boolean valid) {
+        Timer timer = valid ? validTokenTimer : invalidTokenTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
     /**
      * Создает и возвращает секретный ключ для подписи JWT токенов.
      *
@@ -167,17 +194,8 @@ public class JwtUtils {
      * @see Claims#getSubject()
      */
     public String getUserNameFromJwtToken(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-        } catch (Exception e) {
-            logger.error("Error extracting username from JWT: {}", e.getMessage());
-            return null;
-        }
+        Claims claims = parseVerifiedClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     /**
@@ -192,17 +210,33 @@ public class JwtUtils {
      *   <li>Наличие claims</li>
      * </ul>
      *
+     * <p>Если нужно и имя пользователя, используйте {@link #getUserNameFromJwtToken(String)}:
+     * он выполняет те же проверки, и токен не разбирается второй раз.</p>
+     *
      * @param authToken JWT токен для проверки
      * @return true если токен валиден, false в противном случае
      * @see Jwts#parserBuilder()
      */
     public boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken) != null;
+    }
+
+    /**
+     * Разбирает токен и проверяет подпись и срок действия; время проверки пишется в
+     * {@code motoshop.jwt.verify} один раз на вызов.
+     *
+     * @return claims токена или null если токен невалиден
+     */
+    private Claims parseVerifiedClaims(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder()
+            Claims claims = Jwts.parserBuilder()
                     .setSigningKey(getSigningKey())
                     .build()
-                    .parseClaimsJws(authToken);
-            return true;
+                    .parseClaimsJws(token)
+                    .getBody();
+            recordVerify(start, true);
+            return claims;
 
         } catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
@@ -217,6 +251,7 @@ public class JwtUtils {
         } catch (Exception e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         }
-        return false;
+        recordVerify(start, false);
+        return null;
     }
 }
\ No newline at end of file
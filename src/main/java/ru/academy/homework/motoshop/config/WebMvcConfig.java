@@ -0,0 +1,65 @@
+package ru.academy.homework.motoshop.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Настройка раздачи статических ресурсов.
+ *
+ * <p>CSS и JS раздаются по URL с хешем содержимого ({@code /css/index-<md5>.css}),
+ * поэтому кешируются браузером на год без повторных запросов. Изображения и favicon
+ * имеют постоянные URL (пути к картинкам хранятся в базе), для них используется
+ * короткий срок кеширования и условные запросы по {@code Last-Modified}.</p>
+ *
+ * <p>Предварительно сжатые варианты {@code .br}/{@code .gz} создаются при сборке
+ * (сборочный инструмент {@code StaticAssetPrecompressor} в {@code src/build/java}) и выбираются
+ * по заголовку {@code Accept-Encoding}.</p>
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Версионируемые ресурсы: URL меняется вместе с содержимым
+        addVersionedResources(registry, "/css/**", "classpath:/static/css/");
+        addVersionedResources(registry, "/js/**", "classpath:/static/js/");
+
+        // Ресурсы с постоянным URL: повторный визит стоит одного условного запроса
+        addRevalidatedResources(registry, "/images/**", "classpath:/static/images/");
+        addRevalidatedResources(registry, "/favicon.ico", "classpath:/static/");
+    }
+
+    private void addVersionedResources(ResourceHandlerRegistry registry, String pattern, String location) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    private void addRevalidatedResources(ResourceHandlerRegistry registry, String pattern, String location) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic())
+                .setUseLastModified(true)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+
+    /**
+     * Переписывает ссылки {@code @{/css/...}} в шаблонах Thymeleaf на версионированные URL.
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -4,15 +4,31 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.academy.homework.motoshop.exporter.ExportFormat;
+import ru.academy.homework.motoshop.exporter.ProductExportService;
+import ru.academy.homework.motoshop.importer.ImportFormat;
+import ru.academy.homework.motoshop.importer.ProductImportReport;
+import ru.academy.homework.motoshop.importer.ProductImportService;
 import ru.academy.homework.motoshop.model.Category;
 import ru.academy.homework.motoshop.model.Product;
 import ru.academy.homework.motoshop.services.CategoryService;
 import ru.academy.homework.motoshop.services.ProductService;
+import ru.academy.homework.motoshop.view.CatalogViewService;
+import ru.academy.homework.motoshop.view.ProductCardView;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +43,15 @@ public class AdminProductController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogViewService catalogViewService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductExportService productExportService;
+
     // Страница списка продуктов
     @GetMapping
     public String getProductsPage(
@@ -35,7 +60,7 @@ public class AdminProductController {
             Model model) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> productPage = productService.findAll(pageable);
+        Page<ProductCardView> productPage = catalogViewService.getProductPage(pageable);
 
         model.addAttribute("products", productPage.getContent());
         model.addAttribute("currentPage", page);
@@ -80,4 +105,41 @@ public class AdminProductController {
         productService.deleteById(id);
         return "redirect:/admin/products";
     }
-}
\ No newline at end of file
+
+    // Массовый импорт каталога поставщика (CSV, JSON или JSON Lines)
+    @PostMapping("/import")
+    @ResponseBody
+    public ResponseEntity<?> importProducts(@RequestParam("file") MultipartFile file,
+                                            @RequestParam(required = false) Integer batchSize) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Файл не выбран"));
+        }
+
+        try (InputStream input = file.getInputStream()) {
+            ProductImportReport report = productImportService.importProducts(input,
+                    ImportFormat.fromFileName(file.getOriginalFilename()), batchSize);
+            return ResponseEntity.ok(report);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", "Ошибка чтения файла: " + e.getMessage()));
+        }
+    }
+
+    // Потоковая выгрузка всего каталога (csv, jsonl или columnar)
+    @GetMapping("/export")
+    public ResponseEntity<?> exportProducts(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+
+        StreamingResponseBody body = output -> productExportService.export(exportFormat, output);
+        String fileName = "products-" + LocalDate.now() + "." + exportFormat.getFileExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.academy.homework.motoshop.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.academy.homework.motoshop.sql.SqlStatementRecorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Статистика SQL-выражений по формам (см. {@link SqlStatementRecorder}).
+ */
+@RestController
+@RequestMapping("/admin/sql")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSqlStatsController {
+
+    private static final int MAX_LIMIT = 500;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    // Самые дорогие формы выражений: sort=total|max|avg|count
+    @GetMapping("/top")
+    public ResponseEntity<Map<String, Object>> getTopShapes(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "total") String sort) {
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("trackedShapes", sqlStatementRecorder.getTrackedShapes());
+        response.put("droppedShapes", sqlStatementRecorder.getDroppedShapes());
+        response.put("sort", sort);
+        response.put("shapes", sqlStatementRecorder.topShapes(Math.max(1, Math.min(limit, MAX_LIMIT)), sort));
+        return ResponseEntity.ok(response);
+    }
+
+    // Сброс накопленной статистики, например перед нагрузочным прогоном
+    @DeleteMapping("/top")
+    public ResponseEntity<Void> resetStats() {
+        sqlStatementRecorder.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
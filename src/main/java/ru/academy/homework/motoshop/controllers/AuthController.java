@@ -100,7 +100,7 @@ public class AuthController {
                             Model model,
                             HttpServletResponse response) {
         try {
-            logger.info("Form login attempt - Username: {}", username);
+            logger.debug("Form login attempt - Username: {}", username);
 
             // Аутентификация пользователя
             Authentication authentication = authenticationManager.authenticate(
@@ -120,11 +120,14 @@ public class AuthController {
             // Определение URL для редиректа
             String targetUrl = determineRedirectUrl(userDetails, redirectUrl);
 
-            logger.info("Login successful for user: {}, redirecting to: {}", username, targetUrl);
+            logger.atInfo().addKeyValue("event", "login").addKeyValue("channel", "form")
+                    .addKeyValue("user", username).addKeyValue("redirect", targetUrl)
+                    .log("Login successful");
             return "redirect:" + targetUrl;
 
         } catch (BadCredentialsException e) {
-            logger.warn("Bad credentials for user: {}", username);
+            logger.atWarn().addKeyValue("event", "login_failed").addKeyValue("channel", "form")
+                    .addKeyValue("user", username).log("Bad credentials");
             model.addAttribute("error", "Неверное имя пользователя или пароль");
             model.addAttribute("loginRequest", new LoginRequest());
             return "login";
@@ -145,7 +148,7 @@ public class AuthController {
                                            HttpServletRequest request,
                                            HttpServletResponse response) {
         try {
-            logger.info("API login attempt - Username: {}", loginRequest.getUsername());
+            logger.debug("API login attempt - Username: {}", loginRequest.getUsername());
 
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
@@ -161,12 +164,14 @@ public class AuthController {
 
             // ИСПРАВЛЕНИЕ: передаем null как второй параметр, так как для API redirect не используется
             Map<String, Object> responseBody = createAuthResponse(user, userDetails, jwt, null);
-            logger.info("API login successful for user: {}", loginRequest.getUsername());
+            logger.atInfo().addKeyValue("event", "login").addKeyValue("channel", "api")
+                    .addKeyValue("user", loginRequest.getUsername()).log("Login successful");
 
             return ResponseEntity.ok(responseBody);
 
         } catch (BadCredentialsException e) {
-            logger.warn("Bad credentials for user: {}", loginRequest.getUsername());
+            logger.atWarn().addKeyValue("event", "login_failed").addKeyValue("channel", "api")
+                    .addKeyValue("user", loginRequest.getUsername()).log("Bad credentials");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Collections.singletonMap("error", "Неверное имя пользователя или пароль"));
         } catch (Exception e) {
@@ -213,7 +218,8 @@ public class AuthController {
                     registrationDto.getEmail(),
                     registrationDto.getPassword()
             );
-            logger.info("User registered successfully: {}", registrationDto.getUsername());
+            logger.atInfo().addKeyValue("event", "register")
+                    .addKeyValue("user", registrationDto.getUsername()).log("User registered");
             return "redirect:/api/auth/login?registered=true";
         } catch (RuntimeException e) {
             logger.error("Registration error for user: {}", registrationDto.getUsername(), e);
@@ -229,7 +235,7 @@ public class AuthController {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String username = (auth != null) ? auth.getName() : "unknown";
-            logger.info("Starting logout process for user: {}", username);
+            logger.debug("Starting logout process for user: {}", username);
 
             // Дополнительная очистка сессии
             HttpSession session = request.getSession(false);
@@ -246,7 +252,8 @@ public class AuthController {
             removeJwtCookie(response);
             logger.debug("JWT cookie removed for user: {}", username);
 
-            logger.info("Logout completed successfully for user: {}", username);
+            logger.atInfo().addKeyValue("event", "logout").addKeyValue("channel", "form")
+                    .addKeyValue("user", username).log("Logout completed");
             return "redirect:/?logout=true&timestamp=" + System.currentTimeMillis();
 
         } catch (Exception e) {
@@ -260,7 +267,7 @@ public class AuthController {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String username = (auth != null) ? auth.getName() : "unknown";
-            logger.info("Starting API logout process for user: {}", username);
+            logger.debug("Starting API logout process for user: {}", username);
 
             // 1. Очищаем SecurityContext
             SecurityContextHolder.clearContext();
@@ -285,7 +292,8 @@ public class AuthController {
             Map<String, String> responseBody = new HashMap<>();
             responseBody.put("message", "Logout successful");
 
-            logger.info("API logout completed successfully for user: {}", username);
+            logger.atInfo().addKeyValue("event", "logout").addKeyValue("channel", "api")
+                    .addKeyValue("user", username).log("Logout completed");
             return ResponseEntity.ok().body(responseBody);
 
         } catch (Exception e) {
@@ -1,11 +1,15 @@
 package ru.academy.homework.motoshop.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.academy.homework.motoshop.dashboard.DashboardStats;
+import ru.academy.homework.motoshop.dashboard.DashboardStatsPublisher;
 import ru.academy.homework.motoshop.services.DashboardService;
 
 import java.util.HashMap;
@@ -16,10 +20,12 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStatsPublisher statsPublisher;
 
     @Autowired
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, DashboardStatsPublisher statsPublisher) {
         this.dashboardService = dashboardService;
+        this.statsPublisher = statsPublisher;
     }
 
     @GetMapping("/admin/dashboard")
@@ -32,6 +38,15 @@ public class DashboardController {
     public ResponseEntity<Map<String, Long>> getDashboardStats() {
         Map<String, Long> stats = new HashMap<>();
 
+        // Снимок общего издателя, если он уже посчитан: без трех COUNT на каждый запрос
+        DashboardStats live = statsPublisher.getStats();
+        if (live != null) {
+            stats.put("usersCount", live.usersCount());
+            stats.put("productsCount", live.productsCount());
+            stats.put("ordersCount", live.ordersCount());
+            return ResponseEntity.ok(stats);
+        }
+
         try {
             stats.put("usersCount", dashboardService.getUsersCount());
             stats.put("productsCount", dashboardService.getProductsCount());
@@ -46,4 +61,14 @@ public class DashboardController {
             return ResponseEntity.ok(stats);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Живая статистика: снимок {@code stats} и {@code lowStock} при подключении, затем
+     * {@code delta} и {@code stockAlert}.
+     */
+    @GetMapping(value = "/admin/dashboard/api/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamDashboard() {
+        return statsPublisher.connect();
+    }
+}
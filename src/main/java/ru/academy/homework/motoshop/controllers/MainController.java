@@ -6,22 +6,17 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
-import ru.academy.homework.motoshop.model.Category;
-import ru.academy.homework.motoshop.services.CategoryService;
-import ru.academy.homework.motoshop.services.ProductService;
-
-import java.util.List;
+import ru.academy.homework.motoshop.view.CatalogView;
+import ru.academy.homework.motoshop.view.CatalogViewService;
 
 @Controller
 public class MainController {
 
-    private final ProductService productService;
-    private final CategoryService categoryService;
+    private final CatalogViewService catalogViewService;
 
     @Autowired
-    public MainController(ProductService productService, CategoryService categoryService) {
-        this.productService = productService;
-        this.categoryService = categoryService;
+    public MainController(CatalogViewService catalogViewService) {
+        this.catalogViewService = catalogViewService;
     }
 
     @GetMapping("/")
@@ -34,8 +29,7 @@ public class MainController {
         }
 
         // Получаем все категории для отображения на главной странице
-        List<Category> categories = categoryService.getAllCategories();
-        model.addAttribute("categories", categories);
+        model.addAttribute("categories", catalogViewService.getCategories());
 
         return "index";
     }
@@ -46,22 +40,17 @@ public class MainController {
             Model model) {
 
         try {
-            if (categoryId != null) {
-                // Продукты по категории
-                model.addAttribute("products", productService.findProductsByCategory(categoryId));
-                model.addAttribute("selectedCategory", categoryService.getCategoryById(categoryId).orElse(null));
-            } else {
-                // Все продукты
-                model.addAttribute("products", productService.getAllProducts());
-            }
-
-            model.addAttribute("categories", categoryService.findAll());
+            // Товары, категории и выбранная категория читаются одной транзакцией
+            CatalogView catalog = catalogViewService.getCatalog(categoryId);
+            model.addAttribute("products", catalog.getProducts());
+            model.addAttribute("selectedCategory", catalog.getSelectedCategory());
+            model.addAttribute("categories", catalog.getCategories());
             model.addAttribute("categoryId", categoryId);
 
             return "products";
 
         } catch (Exception e) {
-            model.addAttribute("categories", categoryService.findAll());
+            model.addAttribute("categories", catalogViewService.getCategories());
             model.addAttribute("error", "Ошибка загрузки данных: " + e.getMessage());
             return "products";
         }
@@ -0,0 +1,80 @@
+package ru.academy.homework.motoshop.controllers;
+
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import ru.academy.homework.motoshop.fulfillment.OrderLifecycleService;
+import ru.academy.homework.motoshop.fulfillment.OrderTransitionRequest;
+import ru.academy.homework.motoshop.idempotency.CheckoutResult;
+import ru.academy.homework.motoshop.idempotency.IdempotentCheckoutService;
+import ru.academy.homework.motoshop.orderhistory.OrderHistoryService;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+import ru.academy.homework.motoshop.services.UserDetailsImpl;
+
+import java.util.Collections;
+
+@RestController
+@RequestMapping("/api/orders")
+@PreAuthorize("isAuthenticated()")
+public class OrderController {
+
+    private final IdempotentCheckoutService checkoutService;
+    private final OrderHistoryService orderHistoryService;
+    private final OrderLifecycleService orderLifecycleService;
+
+    @Autowired
+    public OrderController(IdempotentCheckoutService checkoutService, OrderHistoryService orderHistoryService,
+                           OrderLifecycleService orderLifecycleService) {
+        this.checkoutService = checkoutService;
+        this.orderHistoryService = orderHistoryService;
+        this.orderLifecycleService = orderLifecycleService;
+    }
+
+    // GET - История заказов текущего пользователя, от новых к старым
+    @GetMapping("/history")
+    public ResponseEntity<?> getHistory(@AuthenticationPrincipal UserDetailsImpl userDetails,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size,
+                                        @RequestParam(defaultValue = "true") boolean items) {
+        try {
+            return ResponseEntity.ok(orderHistoryService.getHistory(userDetails.getId(), cursor, size, items));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // POST - Оформить заказ; повтор с тем же Idempotency-Key возвращает уже оформленный заказ
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(@AuthenticationPrincipal UserDetailsImpl userDetails,
+                                      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                      @Valid @RequestBody CheckoutRequest request) {
+        try {
+            CheckoutResult result = checkoutService.checkout(userDetails.getId(), idempotencyKey, request);
+            if (result.replayed()) {
+                return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(result);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // POST - Пакетный перевод заказов в другой статус (комплектация и доставка)
+    @PostMapping("/status/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> transitionStatus(@RequestBody OrderTransitionRequest request) {
+        try {
+            return ResponseEntity.ok(orderLifecycleService.transition(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+}
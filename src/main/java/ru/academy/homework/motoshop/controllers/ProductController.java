@@ -13,8 +13,14 @@ import org.springframework.web.bind.annotation.*;
 
 import ru.academy.homework.motoshop.model.Category;
 import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
 import ru.academy.homework.motoshop.services.CategoryService;
 import ru.academy.homework.motoshop.services.ProductService;
+import ru.academy.homework.motoshop.stock.StockBatchReport;
+import ru.academy.homework.motoshop.stock.StockBatchRequest;
+import ru.academy.homework.motoshop.stock.StockBatchService;
+import ru.academy.homework.motoshop.view.CatalogView;
+import ru.academy.homework.motoshop.view.CatalogViewService;
 
 
 import java.util.HashMap;
@@ -28,11 +34,16 @@ public class ProductController {
 
     private final ProductService productService;
     private final CategoryService categoryService;
+    private final StockBatchService stockBatchService;
+    private final CatalogViewService catalogViewService;
 
     @Autowired
-    public ProductController(ProductService productService, CategoryService categoryService) {
+    public ProductController(ProductService productService, CategoryService categoryService,
+                             StockBatchService stockBatchService, CatalogViewService catalogViewService) {
         this.productService = productService;
         this.categoryService = categoryService;
+        this.stockBatchService = stockBatchService;
+        this.catalogViewService = catalogViewService;
     }
 
     // GET - Получить все продукты с пагинацией
@@ -72,7 +83,7 @@ public class ProductController {
             if (product.getName() == null || product.getName().trim().isEmpty()) {
                 return ResponseEntity.badRequest().body("Название продукта обязательно");
             }
-            if (product.getPrice() == null || product.getPrice() <= 0) {
+            if (product.getPrice() == null || !product.getPrice().isPositive()) {
                 return ResponseEntity.badRequest().body("Цена должна быть положительной");
             }
 
@@ -110,6 +121,9 @@ public class ProductController {
             if (productDetails.getName() != null) {
                 existingProduct.setName(productDetails.getName());
             }
+            if (productDetails.getSku() != null) {
+                existingProduct.setSku(productDetails.getSku());
+            }
             if (productDetails.getDescription() != null) {
                 existingProduct.setDescription(productDetails.getDescription());
             }
@@ -158,11 +172,14 @@ public class ProductController {
                     case "name":
                         product.setName((String) value);
                         break;
+                    case "sku":
+                        product.setSku((String) value);
+                        break;
                     case "description":
                         product.setDescription((String) value);
                         break;
                     case "price":
-                        product.setPrice(((Number) value).doubleValue());
+                        product.setPrice(Money.valueOf(value.toString()));
                         break;
                     case "stockQuantity":
                         product.setStockQuantity(((Number) value).intValue());
@@ -226,8 +243,8 @@ public class ProductController {
     // GET - Фильтрация продуктов по цене
     @GetMapping("/filter/price")
     public ResponseEntity<List<Product>> filterByPriceRange(
-            @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
+            @RequestParam Money minPrice,
+            @RequestParam Money maxPrice) {
         List<Product> products = productService.findProductsByPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(products);
     }
@@ -237,23 +254,17 @@ public class ProductController {
             Model model) {
 
         try {
-            if (categoryId != null) {
-                // Продукты по категории
-                model.addAttribute("products", productService.findAllProductsById(categoryId));
-                model.addAttribute("selectedCategory", categoryService.findById(categoryId));
-            } else {
-                // Все продукты
-                model.addAttribute("products", productService.findAllProducts());
-            }
-
-            model.addAttribute("categories", categoryService.findAll());
+            CatalogView catalog = catalogViewService.getCatalog(categoryId);
+            model.addAttribute("products", catalog.getProducts());
+            model.addAttribute("selectedCategory", catalog.getSelectedCategory());
+            model.addAttribute("categories", catalog.getCategories());
             model.addAttribute("categoryId", categoryId);
 
             return "products";
 
         } catch (Exception e) {
             // Если есть ошибка, все равно показываем страницу с пустыми данными
-            model.addAttribute("categories", categoryService.findAll());
+            model.addAttribute("categories", catalogViewService.getCategories());
             model.addAttribute("error", "Ошибка загрузки данных: " + e.getMessage());
             return "products";
         }
@@ -310,6 +321,18 @@ public class ProductController {
         return ResponseEntity.ok(stats);
     }
 
+    // POST - Пакетное обновление остатков (синхронизация со складом)
+    @PostMapping("/stock/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateStockBatch(@RequestBody StockBatchRequest request) {
+        try {
+            StockBatchReport report = stockBatchService.applyBatch(request);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // POST - Обновить изображение продукта
     @PostMapping("/{id}/image")
     public ResponseEntity<?> updateProductImage(@PathVariable Long id, @RequestParam String imageUrl) {
@@ -5,8 +5,8 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import ru.academy.homework.motoshop.model.Product;
-import ru.academy.homework.motoshop.services.ProductService;
+import ru.academy.homework.motoshop.view.CatalogViewService;
+import ru.academy.homework.motoshop.view.ProductCardView;
 
 import java.util.Optional;
 
@@ -14,12 +14,12 @@ import java.util.Optional;
 public class ProductViewController {
 
     @Autowired
-    private ProductService productService;
+    private CatalogViewService catalogViewService;
 
     @GetMapping("/product")
     public String getProductPage(@RequestParam Long id, Model model) {
         try {
-            Optional<Product> product = productService.getProductById(id);
+            Optional<ProductCardView> product = catalogViewService.getProduct(id);
             if (product.isPresent()) {
                 model.addAttribute("product", product.get());
             } else {
@@ -0,0 +1,70 @@
+package ru.academy.homework.motoshop.controllers;
+
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import ru.academy.homework.motoshop.payload.request.ReviewRequest;
+import ru.academy.homework.motoshop.review.ReviewService;
+import ru.academy.homework.motoshop.services.UserDetailsImpl;
+
+import java.util.Collections;
+
+@RestController
+@RequestMapping("/api")
+public class ReviewController {
+
+    private final ReviewService reviewService;
+
+    @Autowired
+    public ReviewController(ReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    // GET - Отзывы товара с рейтингом, новые первыми
+    @GetMapping("/products/{productId}/reviews")
+    public ResponseEntity<?> getReviews(@PathVariable Long productId,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "10") int size) {
+        try {
+            return ResponseEntity.ok(reviewService.getReviews(productId, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // POST - Оставить отзыв о товаре
+    @PostMapping("/products/{productId}/reviews")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> addReview(@AuthenticationPrincipal UserDetailsImpl userDetails,
+                                       @PathVariable Long productId,
+                                       @Valid @RequestBody ReviewRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(
+                    reviewService.addReview(userDetails.getId(), productId, request.getRating(), request.getComment()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // DELETE - Удалить свой отзыв; модератор и администратор удаляют любой
+    @DeleteMapping("/reviews/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> deleteReview(@AuthenticationPrincipal UserDetailsImpl userDetails, @PathVariable Long id) {
+        boolean moderator = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_MODERATOR")
+                        || authority.getAuthority().equals("ROLE_ADMIN"));
+        try {
+            reviewService.deleteReview(id, userDetails.getId(), moderator);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.singletonMap("error", e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+}
@@ -6,19 +6,17 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import ru.academy.homework.motoshop.services.ProductService;
-import ru.academy.homework.motoshop.services.CategoryService;
+import ru.academy.homework.motoshop.view.CatalogView;
+import ru.academy.homework.motoshop.view.CatalogViewService;
 
 @Controller
 @RequestMapping("/user")
 public class UserController {
 
-    private final ProductService productService;
-    private final CategoryService categoryService;
+    private final CatalogViewService catalogViewService;
 
-    public UserController(ProductService productService, CategoryService categoryService) {
-        this.productService = productService;
-        this.categoryService = categoryService;
+    public UserController(CatalogViewService catalogViewService) {
+        this.catalogViewService = catalogViewService;
     }
 
     // Главная страница пользователя (каталог)
@@ -34,8 +32,9 @@ public class UserController {
 
         // Добавляем информацию о пользователе в модель
         model.addAttribute("username", authentication.getName());
-        model.addAttribute("products", productService.getAllProducts());
-        model.addAttribute("categories", categoryService.getAllCategories());
+        CatalogView catalog = catalogViewService.getCatalog(null);
+        model.addAttribute("products", catalog.getProducts());
+        model.addAttribute("categories", catalog.getCategories());
 
         return "catalog"; // Используем ваш существующий catalog.html
     }
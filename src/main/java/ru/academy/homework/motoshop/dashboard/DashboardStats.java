@@ -0,0 +1,23 @@
+package ru.academy.homework.motoshop.dashboard;
+
+import ru.academy.homework.motoshop.money.Money;
+
+/**
+ * Показатели панели администратора. Выручка — сумма неотмененных заказов.
+ */
+public record DashboardStats(long usersCount, long productsCount, long ordersCount, Money revenue,
+                             long lowStockCount) {
+
+    static final DashboardStats EMPTY = new DashboardStats(0, 0, 0, Money.ZERO, 0);
+
+    DashboardStats withLowStockCount(long lowStockCount) {
+        return new DashboardStats(usersCount, productsCount, ordersCount, revenue, lowStockCount);
+    }
+
+    /** Изменение относительно {@code previous}; отрицательно после сверки с таблицами */
+    DashboardStatsDelta minus(DashboardStats previous) {
+        return new DashboardStatsDelta(usersCount - previous.usersCount, productsCount - previous.productsCount,
+                ordersCount - previous.ordersCount, revenue.minus(previous.revenue),
+                lowStockCount - previous.lowStockCount);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.academy.homework.motoshop.dashboard;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import ru.academy.homework.motoshop.money.Money;
+
+/**
+ * Приращение показателей панели; клиент прибавляет его к последнему полученному снимку.
+ */
+public record DashboardStatsDelta(long users, long products, long orders, Money revenue, long lowStock) {
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return users == 0 && products == 0 && orders == 0 && revenue.getMinorUnits() == 0 && lowStock == 0;
+    }
+}
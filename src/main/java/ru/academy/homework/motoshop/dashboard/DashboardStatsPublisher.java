@@ -0,0 +1,219 @@
+package ru.academy.homework.motoshop.dashboard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.academy.homework.motoshop.cache.CacheInvalidation;
+import ru.academy.homework.motoshop.cache.CacheInvalidationChannel;
+import ru.academy.homework.motoshop.lowstock.LowStockAlert;
+import ru.academy.homework.motoshop.lowstock.LowStockMonitor;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Единый источник живой статистики панели администратора: один поток узла считает
+ * показатели и рассылает приращения всем подключенным через {@link DashboardStreamHub},
+ * так что число открытых страниц не влияет на число запросов к базе.
+ *
+ * <p>Раз в {@code interval-ms} читаются только новые строки: пользователи и заказы с id
+ * больше уже учтенного, по первичному ключу. Число товаров пересчитывается, только если
+ * по {@link CacheInvalidationChannel} пришло изменение товаров; число товаров с низким
+ * остатком берется из {@link LowStockMonitor} один раз за проход, а его события сразу уходят
+ * клиентам как {@code stockAlert}. Раз в {@code resync-interval-ms} показатели сверяются с таблицами
+ * целиком: так учитываются удаления, отмены заказов и строки, зафиксированные позже строк
+ * с большими id.</p>
+ *
+ * <p>Клиент при подключении получает снимок ({@code stats}, {@code lowStock}), затем
+ * приращения ({@code delta}) и события остатков ({@code stockAlert}).</p>
+ *
+ * <p>Запросы к базе выполняются без блокировки публикатора: она берется только на замену
+ * снимка и рассылку, поэтому подключение страницы и события остатков не ждут пересчета.</p>
+ */
+@Component
+public class DashboardStatsPublisher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsPublisher.class);
+
+    private static final String USERS_SQL = "SELECT COUNT(*), MAX(id) FROM users WHERE id > ?";
+
+    private static final String ORDERS_SQL =
+            "SELECT COUNT(*), SUM(CASE WHEN status <> 'CANCELLED' THEN total_amount ELSE 0 END), MAX(id) " +
+                    "FROM orders WHERE id > ?";
+
+    private static final String PRODUCTS_SQL = "SELECT COUNT(*) FROM products";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DashboardStreamHub hub;
+    private final LowStockMonitor lowStockMonitor;
+    private final long intervalMs;
+    private final long resyncIntervalMs;
+    private final String productEntityName = Product.class.getName();
+    private final AtomicBoolean productsChanged = new AtomicBoolean(true);
+    /** Сериализует проходы пересчета и охраняет отметки; блокировка публикатора — только снимок и рассылку */
+    private final Object refreshLock = new Object();
+
+    private volatile DashboardStats stats;
+    private long userMark;
+    private long orderMark;
+    private long lastResyncAt;
+
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public DashboardStatsPublisher(JdbcTemplate jdbcTemplate,
+                                   DashboardStreamHub hub,
+                                   LowStockMonitor lowStockMonitor,
+                                   CacheInvalidationChannel invalidationChannel,
+                                   @Value("${motoshop.dashboard.stream.interval-ms:1000}") long intervalMs,
+                                   @Value("${motoshop.dashboard.stream.resync-interval-ms:60000}") long resyncIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hub = hub;
+        this.lowStockMonitor = lowStockMonitor;
+        this.intervalMs = intervalMs;
+        this.resyncIntervalMs = resyncIntervalMs;
+
+        invalidationChannel.subscribe(this::onInvalidation);
+        lowStockMonitor.subscribe(this::onStockAlert);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refresh, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Последний посчитанный снимок или {@code null}, если первый подсчет еще не прошел */
+    public DashboardStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Подключает страницу: снимок и последующие приращения согласованы, потому что снимок
+     * берется под той же блокировкой, под которой рассылаются приращения.
+     */
+    public synchronized SseEmitter connect() {
+        Map<String, Object> initial = new LinkedHashMap<>();
+        initial.put("stats", stats != null ? stats : DashboardStats.EMPTY);
+        initial.put("lowStock", lowStockMonitor.snapshot());
+        return hub.connect(initial);
+    }
+
+    /** Считает приращение и рассылает его; вызывается фоновой задачей */
+    void refresh() {
+        synchronized (refreshLock) {
+            try {
+                long now = System.currentTimeMillis();
+                // Снимок меняет только этот проход, поэтому его можно читать без блокировки публикатора
+                DashboardStats previous = stats;
+                DashboardStats next = previous == null || now - lastResyncAt >= resyncIntervalMs
+                        ? resync(now)
+                        : advance(previous);
+                next = next.withLowStockCount(lowStockMonitor.countLowStock(lowStockMonitor.getThreshold()));
+                publish(previous, next);
+            } catch (DataAccessException e) {
+                logger.warn("Dashboard stats refresh failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void publish(DashboardStats previous, DashboardStats next) {
+        stats = next;
+        if (previous != null) {
+            publishDelta(previous, next);
+        }
+    }
+
+    private DashboardStats resync(long now) {
+        DashboardStats fresh = advance(DashboardStats.EMPTY, 0, 0, true);
+        lastResyncAt = now;
+        return fresh;
+    }
+
+    private DashboardStats advance(DashboardStats current) {
+        return advance(current, userMark, orderMark, false);
+    }
+
+    /** Прибавляет строки с id больше отметок; отметки сдвигаются, только если все запросы прошли */
+    private DashboardStats advance(DashboardStats current, long fromUserId, long fromOrderId, boolean recountProducts) {
+        boolean productsDirty = productsChanged.getAndSet(false);
+        try {
+            long[] users = {current.usersCount(), fromUserId};
+            jdbcTemplate.query(USERS_SQL, rs -> {
+                long count = rs.getLong(1);
+                if (count > 0) {
+                    users[0] += count;
+                    users[1] = rs.getLong(2);
+                }
+            }, fromUserId);
+
+            long[] orders = {current.ordersCount(), fromOrderId};
+            Money[] revenue = {current.revenue()};
+            jdbcTemplate.query(ORDERS_SQL, rs -> {
+                long count = rs.getLong(1);
+                if (count > 0) {
+                    orders[0] += count;
+                    orders[1] = rs.getLong(3);
+                    revenue[0] = revenue[0].plus(Money.of(rs.getBigDecimal(2).setScale(Money.SCALE, RoundingMode.HALF_UP)));
+                }
+            }, fromOrderId);
+
+            long products = recountProducts || productsDirty
+                    ? jdbcTemplate.queryForObject(PRODUCTS_SQL, Long.class)
+                    : current.productsCount();
+
+            userMark = users[1];
+            orderMark = orders[1];
+            return new DashboardStats(users[0], products, orders[0], revenue[0], current.lowStockCount());
+        } catch (DataAccessException e) {
+            if (productsDirty) {
+                productsChanged.set(true);
+            }
+            throw e;
+        }
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (productEntityName.equals(invalidation.getEntityName())) {
+            productsChanged.set(true);
+        }
+    }
+
+    /** Счетчик низкого остатка в снимке обновит ближайший проход пересчета */
+    private synchronized void onStockAlert(LowStockAlert alert) {
+        hub.broadcast("stockAlert", alert);
+    }
+
+    private void publishDelta(DashboardStats previous, DashboardStats next) {
+        DashboardStatsDelta delta = next.minus(previous);
+        if (!delta.isEmpty()) {
+            hub.broadcast("delta", delta);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
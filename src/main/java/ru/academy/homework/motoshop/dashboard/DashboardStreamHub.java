@@ -0,0 +1,185 @@
+package ru.academy.homework.motoshop.dashboard;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка событий панели администратора открытым страницам через server-sent events.
+ *
+ * <p>Событие сериализуется в JSON один раз и одним и тем же кадром раздается всем
+ * подключениям. У каждого подключения своя очередь на {@code buffer-size} кадров; кадры
+ * отправляют потоки общего пула ({@code senders}), не больше одного потока на подключение
+ * одновременно, поэтому медленный клиент не задерживает ни публикацию, ни остальных.
+ * Клиент, чья очередь переполнилась, отключается: браузерный {@code EventSource}
+ * переподключится сам и получит свежий снимок вместо пропущенных приращений.</p>
+ */
+@Component
+public class DashboardStreamHub implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamHub.class);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final ExecutorService senders;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Counter droppedCounter;
+
+    @Autowired
+    public DashboardStreamHub(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${motoshop.dashboard.stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${motoshop.dashboard.stream.buffer-size:256}") int bufferSize,
+                              @Value("${motoshop.dashboard.stream.senders:4}") int senders) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = Math.max(1, bufferSize);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senders), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("motoshop.dashboard.stream.connections", connections, Set::size)
+                .description("Открытых потоков панели администратора")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("motoshop.dashboard.stream.dropped")
+                .description("Клиенты, отключенные из-за переполнения очереди")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Открывает поток; {@code initialEvents} (имя события → данные) уходят клиенту первыми,
+     * в порядке итерации. Чтобы не потерять событие между снимком и подключением, вызывающий
+     * должен собирать снимок и вызывать этот метод под той же блокировкой, что и
+     * {@link #broadcast}.
+     */
+    public SseEmitter connect(Map<String, ?> initialEvents) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(emitter);
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+        connections.add(connection);
+        initialEvents.forEach((name, data) -> connection.offer(frame(name, data)));
+        return emitter;
+    }
+
+    public void broadcast(String name, Object data) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = frame(name, data);
+        for (Connection connection : connections) {
+            connection.offer(frame);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(String name, Object data) {
+        try {
+            return SseEmitter.event().name(name).data(objectMapper.writeValueAsString(data)).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + name, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Connection connection : connections) {
+            connection.close();
+            connection.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private final class Connection implements Runnable {
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+        volatile boolean dropped;
+
+        Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(frame)) {
+                // Медленный клиент: поток закрывается отправителем, как только тот освободится
+                logger.debug("Dashboard stream client is too slow, disconnecting");
+                droppedCounter.increment();
+                dropped = true;
+                close();
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            connections.remove(this);
+            buffer.clear();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = buffer.poll()) != null) {
+                    emitter.send(frame);
+                }
+                if (dropped) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dashboard stream client disconnected: {}", e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+                if (!closed && !buffer.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.academy.homework.motoshop.datagen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Итог генерации: число строк и время по каждой таблице.
+ */
+public class DataGenerationReport {
+
+    private final Map<String, TableStats> tables = new LinkedHashMap<>();
+    private long elapsedMs;
+
+    void record(String table, long rows, long elapsedMs) {
+        tables.put(table, new TableStats(rows, elapsedMs));
+    }
+
+    void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Map<String, TableStats> getTables() {
+        return tables;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public long getTotalRows() {
+        long total = 0;
+        for (TableStats stats : tables.values()) {
+            total += stats.getRows();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        tables.forEach((table, stats) -> result.append(table).append('=').append(stats.getRows())
+                .append(" (").append(stats.getRowsPerSecond()).append(" rows/s), "));
+        return result.append("total=").append(getTotalRows()).append(", elapsedMs=").append(elapsedMs).toString();
+    }
+
+    public static class TableStats {
+        private final long rows;
+        private final long elapsedMs;
+
+        TableStats(long rows, long elapsedMs) {
+            this.rows = rows;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public long getRowsPerSecond() {
+            return elapsedMs > 0 ? rows * 1000 / elapsedMs : rows;
+        }
+    }
+}
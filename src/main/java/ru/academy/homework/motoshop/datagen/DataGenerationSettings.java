@@ -0,0 +1,116 @@
+package ru.academy.homework.motoshop.datagen;
+
+/**
+ * Параметры синтетического набора данных. Один и тот же {@code seed} при одинаковых
+ * размерах дает один и тот же набор.
+ */
+public class DataGenerationSettings {
+
+    private long seed = 42;
+    private int categories = 200;
+    private int brands = 500;
+    private int products = 100_000;
+    private int users = 100_000;
+    private int orderItems = 1_000_000;
+    private double meanItemsPerOrder = 5;
+    private int reviews = 200_000;
+    /** Показатель Ципфа для популярности товаров */
+    private double productSkew = 1.0;
+    /** Показатель Ципфа для распределения товаров по категориям и брендам */
+    private double catalogSkew = 1.1;
+    private int batchSize = 5000;
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getCategories() {
+        return categories;
+    }
+
+    public void setCategories(int categories) {
+        this.categories = categories;
+    }
+
+    public int getBrands() {
+        return brands;
+    }
+
+    public void setBrands(int brands) {
+        this.brands = brands;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public void setProducts(int products) {
+        this.products = products;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public int getOrderItems() {
+        return orderItems;
+    }
+
+    public void setOrderItems(int orderItems) {
+        this.orderItems = orderItems;
+    }
+
+    public double getMeanItemsPerOrder() {
+        return meanItemsPerOrder;
+    }
+
+    public void setMeanItemsPerOrder(double meanItemsPerOrder) {
+        this.meanItemsPerOrder = meanItemsPerOrder;
+    }
+
+    public int getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(int reviews) {
+        this.reviews = reviews;
+    }
+
+    public double getProductSkew() {
+        return productSkew;
+    }
+
+    public void setProductSkew(double productSkew) {
+        this.productSkew = productSkew;
+    }
+
+    public double getCatalogSkew() {
+        return catalogSkew;
+    }
+
+    public void setCatalogSkew(double catalogSkew) {
+        this.catalogSkew = catalogSkew;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String toString() {
+        return "seed=" + seed + ", categories=" + categories + ", brands=" + brands + ", products=" + products +
+                ", users=" + users + ", orderItems=" + orderItems + ", reviews=" + reviews;
+    }
+}
@@ -0,0 +1,94 @@
+package ru.academy.homework.motoshop.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Генерация синтетических данных при запуске приложения.
+ *
+ * <pre>
+ * java -jar MotoShop.war \
+ *      --motoshop.datagen.enabled=true --motoshop.datagen.products=1000000 \
+ *      [--motoshop.datagen.seed=7] [--motoshop.datagen.order-items=10000000]
+ * </pre>
+ *
+ * <p>Все пользователи {@code user1..userN} получают пароль {@code motoshop.datagen.password}.</p>
+ */
+@Component
+@Order(20)
+@ConditionalOnProperty(name = "motoshop.datagen.enabled", havingValue = "true")
+public class DataGeneratorCommand implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorCommand.class);
+
+    private final SyntheticDataGenerator generator;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${motoshop.datagen.seed:42}")
+    private long seed;
+
+    @Value("${motoshop.datagen.categories:200}")
+    private int categories;
+
+    @Value("${motoshop.datagen.brands:500}")
+    private int brands;
+
+    @Value("${motoshop.datagen.products:100000}")
+    private int products;
+
+    @Value("${motoshop.datagen.users:100000}")
+    private int users;
+
+    @Value("${motoshop.datagen.order-items:1000000}")
+    private int orderItems;
+
+    @Value("${motoshop.datagen.mean-items-per-order:5}")
+    private double meanItemsPerOrder;
+
+    @Value("${motoshop.datagen.reviews:200000}")
+    private int reviews;
+
+    @Value("${motoshop.datagen.product-skew:1.0}")
+    private double productSkew;
+
+    @Value("${motoshop.datagen.catalog-skew:1.1}")
+    private double catalogSkew;
+
+    @Value("${motoshop.datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${motoshop.datagen.password:synthetic}")
+    private String password;
+
+    @Autowired
+    public DataGeneratorCommand(SyntheticDataGenerator generator, PasswordEncoder passwordEncoder) {
+        this.generator = generator;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(String... args) {
+        DataGenerationSettings settings = new DataGenerationSettings();
+        settings.setSeed(seed);
+        settings.setCategories(categories);
+        settings.setBrands(brands);
+        settings.setProducts(products);
+        settings.setUsers(users);
+        settings.setOrderItems(orderItems);
+        settings.setMeanItemsPerOrder(meanItemsPerOrder);
+        settings.setReviews(reviews);
+        settings.setProductSkew(productSkew);
+        settings.setCatalogSkew(catalogSkew);
+        settings.setBatchSize(batchSize);
+
+        DataGenerationReport report = generator.generate(settings, passwordEncoder.encode(password));
+        logger.info("Data generation finished in {} ms, {} rows", report.getElapsedMs(), report.getTotalRows());
+    }
+}
@@ -0,0 +1,400 @@
+package ru.academy.homework.motoshop.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.academy.homework.motoshop.cache.SecondLevelCacheInvalidator;
+import ru.academy.homework.motoshop.entity.Role;
+import ru.academy.homework.motoshop.model.Category;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.review.ProductRatingService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор воспроизводимых синтетических данных для проверки на реальных объемах.
+ *
+ * <p>Распределения приближены к живому магазину:</p>
+ * <ul>
+ *   <li>популярность товаров подчиняется закону Ципфа: товары в заказах и отзывах выбираются
+ *       по рангу популярности, а ранг случайно перемешан относительно id;</li>
+ *   <li>товары распределены по категориям и брендам с длинным хвостом: несколько крупных
+ *       категорий и брендов и сотни мелких;</li>
+ *   <li>в заказе в среднем {@code meanItemsPerOrder} позиций (геометрическое распределение),
+ *       часть пользователей заказывает намного чаще остальных;</li>
+ *   <li>оценки в отзывах смещены к 4–5.</li>
+ * </ul>
+ *
+ * <p>Данные пишутся пакетными INSERT через JDBC, каждый пакет — отдельная транзакция.
+ * Для каждой таблицы используется свой генератор случайных чисел от общего {@code seed},
+ * поэтому изменение объема одной таблицы не меняет содержимое остальных. Для SQL Server
+ * стоит добавить к URL {@code useBulkCopyForBatchInsert=true}.</p>
+ *
+ * <p>Id созданных строк не перечитываются по условию {@code id > MAX(id)}: туда попали бы
+ * строки, вставленные параллельно приложением. Товары и пользователи находятся по своим
+ * уникальным артикулу и логину, а у категорий и заказов естественного ключа нет, поэтому
+ * они вставляются по одной с получением сгенерированного ключа.</p>
+ *
+ * <p>Генератор дописывает данные к существующим и рассчитан на базу без пользователей
+ * {@code user1..userN}.</p>
+ */
+@Service
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] PRODUCT_TYPES = {
+            "Шлем", "Куртка", "Перчатки", "Штаны", "Обувь", "Комбинезон", "Очки", "Визор",
+            "Черепаха", "Наколенники", "Дождевик", "Рюкзак", "Балаклава", "Термобелье", "Гарнитура"};
+
+    private static final String[] HEAD_BRANDS = {
+            "AGV", "Shoei", "Arai", "HJC", "Alpinestars", "Dainese", "Rev'It", "TCX", "Sidi", "Held",
+            "Icon", "Scorpion", "LS2", "Nolan", "Klim", "Spidi", "Furygan", "Macna", "Bell", "Schuberth"};
+
+    private static final String[] STATUSES = {"DELIVERED", "SHIPPED", "CONFIRMED", "PENDING", "CANCELLED"};
+    private static final double[] STATUS_WEIGHTS = {0.70, 0.10, 0.08, 0.07, 0.05};
+
+    private static final double[] RATING_WEIGHTS = {0.07, 0.06, 0.12, 0.25, 0.50};
+
+    private static final String[] REVIEW_COMMENTS = {
+            "Отличное качество, рекомендую", "Соответствует описанию", "Маломерит на размер",
+            "Доставка быстрая, товар хороший", "За свои деньги нормально", "Ожидал большего",
+            "Пользуюсь сезон, полет нормальный", "Не подошел, вернул"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private SecondLevelCacheInvalidator cacheInvalidator;
+    private ProductRatingService ratingService;
+
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /** Вытеснение измененных строк из кэша второго уровня; в тестах без контекста отсутствует */
+    @Autowired(required = false)
+    public void setCacheInvalidator(SecondLevelCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    /** Пересчет рейтингов товаров после вставки отзывов; в тестах без контекста отсутствует */
+    @Autowired(required = false)
+    public void setRatingService(ProductRatingService ratingService) {
+        this.ratingService = ratingService;
+    }
+
+    /**
+     * Генерирует набор данных.
+     *
+     * @param settings объемы и параметры распределений
+     * @param passwordHash готовый хеш пароля, общий для всех пользователей (BCrypt на каждого
+     *                     пользователя занял бы часы)
+     */
+    public DataGenerationReport generate(DataGenerationSettings settings, String passwordHash) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = 'user1'", Integer.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Синтетические пользователи уже созданы");
+        }
+
+        logger.info("Generating synthetic data: {}", settings);
+        DataGenerationReport report = new DataGenerationReport();
+        long start = System.nanoTime();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        long stageStart = System.nanoTime();
+        long[] categoryIds = generateCategories(settings, now);
+        report.record("categories", categoryIds.length, elapsedMs(stageStart));
+
+        stageStart = System.nanoTime();
+        Catalog catalog = generateProducts(settings, categoryIds, now);
+        report.record("products", catalog.ids.length, elapsedMs(stageStart));
+
+        stageStart = System.nanoTime();
+        long[] userIds = generateUsers(settings, passwordHash);
+        report.record("users", userIds.length, elapsedMs(stageStart));
+
+        stageStart = System.nanoTime();
+        long[] orderCounts = generateOrders(settings, catalog, userIds);
+        report.record("orders", orderCounts[0], elapsedMs(stageStart));
+        report.record("order_items", orderCounts[1], 0);
+
+        stageStart = System.nanoTime();
+        report.record("review", generateReviews(settings, catalog, userIds), elapsedMs(stageStart));
+
+        // Отзывы вставлены пакетами в обход сервиса, рейтинги пересчитываются целиком
+        if (ratingService != null) {
+            stageStart = System.nanoTime();
+            report.record("product_ratings", ratingService.rebuildAll(), elapsedMs(stageStart));
+        }
+
+        // Новые категории и роль не видны закэшированным запросам, пока регионы не сброшены
+        if (cacheInvalidator != null) {
+            cacheInvalidator.invalidateAll(Category.class);
+            cacheInvalidator.invalidateAll(Role.class);
+        }
+
+        report.setElapsedMs(elapsedMs(start));
+        logger.info("Synthetic data generated: {}", report);
+        return report;
+    }
+
+    private long[] generateCategories(DataGenerationSettings settings, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(settings.getCategories());
+        for (int i = 1; i <= settings.getCategories(); i++) {
+            String type = PRODUCT_TYPES[(i - 1) % PRODUCT_TYPES.length];
+            rows.add(new Object[]{type + " — серия " + i, "Синтетическая категория " + i, now, now});
+        }
+        return transactionTemplate.execute(status -> insertReturningIds(
+                "INSERT INTO categories (name, description, created_at, updated_at) VALUES (?, ?, ?, ?)", rows));
+    }
+
+    private Catalog generateProducts(DataGenerationSettings settings, long[] categoryIds, Timestamp now) {
+        SplittableRandom random = new SplittableRandom(settings.getSeed() * 31 + 1);
+        ZipfSampler categorySampler = new ZipfSampler(categoryIds.length, settings.getCatalogSkew());
+        ZipfSampler brandSampler = new ZipfSampler(settings.getBrands(), settings.getCatalogSkew());
+
+        String skuPrefix = "GEN-" + settings.getSeed() + "-";
+        List<Object[]> rows = new ArrayList<>(settings.getBatchSize());
+        for (int i = 1; i <= settings.getProducts(); i++) {
+            int categoryRank = categorySampler.sample(random);
+            String type = PRODUCT_TYPES[(categoryRank - 1) % PRODUCT_TYPES.length];
+            String brand = brandName(brandSampler.sample(random));
+            String model = (char) ('A' + random.nextInt(26)) + "-" + (100 + random.nextInt(900));
+            // Цены логнормальные: медиана около 12 тысяч, редкие позиции дороже 100 тысяч
+            long price = Math.max(Math.round(Math.exp(9.4 + random.nextGaussian() * 0.8) / 10) * 10, 100);
+            int stock = random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(200);
+
+            rows.add(new Object[]{type + " " + brand + " " + model, skuPrefix + i,
+                    type + " " + brand + " модели " + model + ". Синтетический товар " + i + ".",
+                    BigDecimal.valueOf(price), stock, categoryIds[categoryRank - 1], brand, model, stock > 0, now, now});
+            if (rows.size() == settings.getBatchSize()) {
+                insertProducts(rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            insertProducts(rows);
+        }
+
+        // Артикул уникален, его номер — позиция товара в каталоге
+        Catalog catalog = new Catalog(settings.getProducts());
+        jdbcTemplate.query("SELECT id, sku, price FROM products WHERE sku LIKE ?", rs -> {
+            int index = Integer.parseInt(rs.getString(2).substring(skuPrefix.length())) - 1;
+            catalog.ids[index] = rs.getLong(1);
+            catalog.prices[index] = rs.getBigDecimal(3).setScale(Money.SCALE, RoundingMode.HALF_UP)
+                    .movePointRight(Money.SCALE).longValueExact();
+        }, skuPrefix + "%");
+
+        // Ранг популярности не совпадает с порядком id: иначе популярными были бы первые товары
+        SplittableRandom shuffle = new SplittableRandom(settings.getSeed() * 31 + 2);
+        for (int i = catalog.byPopularity.length - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int tmp = catalog.byPopularity[i];
+            catalog.byPopularity[i] = catalog.byPopularity[j];
+            catalog.byPopularity[j] = tmp;
+        }
+        catalog.popularity = new ZipfSampler(catalog.ids.length, settings.getProductSkew());
+        return catalog;
+    }
+
+    private void insertProducts(List<Object[]> rows) {
+        insert("INSERT INTO products (name, sku, description, price, stock_quantity, category_id, brand, model, " +
+                "available, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows, rows.size());
+    }
+
+    private static String brandName(int rank) {
+        return rank <= HEAD_BRANDS.length ? HEAD_BRANDS[rank - 1] : "Moto" + rank;
+    }
+
+    private long[] generateUsers(DataGenerationSettings settings, String passwordHash) {
+        SplittableRandom random = new SplittableRandom(settings.getSeed() * 31 + 3);
+        // Роли создает AdminInitializer, но он может запуститься позже генератора
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM roles WHERE name = 'ROLE_USER'", Integer.class) == 0) {
+            jdbcTemplate.update("INSERT INTO roles (name) VALUES ('ROLE_USER')");
+        }
+        Long roleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_USER'", Long.class);
+        LocalDateTime base = LocalDateTime.now().minusYears(3);
+
+        List<Object[]> rows = new ArrayList<>(settings.getBatchSize());
+        for (int i = 1; i <= settings.getUsers(); i++) {
+            Timestamp createdAt = Timestamp.valueOf(base.plusMinutes(random.nextInt(3 * 365 * 24 * 60)));
+            rows.add(new Object[]{"user" + i, "user" + i + "@synthetic.motoshop.ru", passwordHash, roleId,
+                    random.nextInt(100) != 0, createdAt});
+            if (rows.size() == settings.getBatchSize() || i == settings.getUsers()) {
+                insert("INSERT INTO users (username, email, password, role_id, enabled, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", rows, rows.size());
+                rows.clear();
+            }
+        }
+
+        // Логин уникален, его номер — позиция пользователя
+        long[] userIds = new long[settings.getUsers()];
+        jdbcTemplate.query("SELECT id, username FROM users WHERE email LIKE ?", rs -> {
+            userIds[Integer.parseInt(rs.getString(2).substring("user".length())) - 1] = rs.getLong(1);
+        }, "%@synthetic.motoshop.ru");
+        return userIds;
+    }
+
+    /**
+     * @return число заказов и число позиций
+     */
+    private long[] generateOrders(DataGenerationSettings settings, Catalog catalog, long[] userIds) {
+        SplittableRandom random = new SplittableRandom(settings.getSeed() * 31 + 4);
+        ZipfSampler buyers = new ZipfSampler(userIds.length, 0.7);
+        // Геометрическое распределение числа позиций: 1 + Geom(p), среднее 1 + (1 - p) / p
+        double p = 1.0 / Math.max(1.0, settings.getMeanItemsPerOrder());
+        LocalDateTime base = LocalDateTime.now().minusYears(2);
+
+        long orders = 0;
+        int written = 0;
+        int nextProgressLog = 100_000;
+        while (written < settings.getOrderItems()) {
+            List<Object[]> orderRows = new ArrayList<>();
+            List<long[]> lines = new ArrayList<>();
+            while (lines.size() < settings.getBatchSize() && written + lines.size() < settings.getOrderItems()) {
+                int count = 1;
+                while (count < 30 && random.nextDouble() > p) {
+                    count++;
+                }
+                count = Math.min(count, settings.getOrderItems() - written - lines.size());
+
+                // Суммы в копейках: сложение long без округлений и упаковки
+                long total = 0;
+                for (int i = 0; i < count; i++) {
+                    int product = catalog.byPopularity[catalog.popularity.sample(random) - 1];
+                    int quantity = random.nextInt(10) == 0 ? 2 + random.nextInt(3) : 1;
+                    total += catalog.prices[product] * quantity;
+                    lines.add(new long[]{orderRows.size(), product, quantity});
+                }
+
+                int buyer = buyers.sample(random) - 1;
+                Timestamp orderDate = Timestamp.valueOf(base.plusMinutes(random.nextInt(2 * 365 * 24 * 60)));
+                orderRows.add(new Object[]{userIds[buyer], BigDecimal.valueOf(total, Money.SCALE), pick(random, STATUSES, STATUS_WEIGHTS), orderDate,
+                        "г. Москва, ул. Синтетическая, д. " + (1 + random.nextInt(200)),
+                        "+7900" + (1_000_000 + random.nextInt(9_000_000)),
+                        "user" + (buyer + 1), null});
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                long[] orderIds = insertReturningIds("INSERT INTO orders (user_id, total_amount, status, " +
+                        "order_date, shipping_address, phone_number, customer_name, customer_email) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", orderRows);
+
+                List<Object[]> itemRows = new ArrayList<>(lines.size());
+                for (long[] line : lines) {
+                    int product = (int) line[1];
+                    itemRows.add(new Object[]{orderIds[(int) line[0]], catalog.ids[product], (int) line[2],
+                            BigDecimal.valueOf(catalog.prices[product], Money.SCALE)});
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO order_items (order_id, product_id, quantity, price) " +
+                        "VALUES (?, ?, ?, ?)", itemRows);
+            });
+
+            orders += orderRows.size();
+            written += lines.size();
+            if (written >= nextProgressLog) {
+                logger.info("Orders generated: {}, order items: {}", orders, written);
+                nextProgressLog += 100_000;
+            }
+        }
+        return new long[]{orders, written};
+    }
+
+    private long generateReviews(DataGenerationSettings settings, Catalog catalog, long[] userIds) {
+        SplittableRandom random = new SplittableRandom(settings.getSeed() * 31 + 5);
+        Integer[] ratings = {1, 2, 3, 4, 5};
+
+        List<Object[]> rows = new ArrayList<>(settings.getBatchSize());
+        for (int i = 1; i <= settings.getReviews(); i++) {
+            int product = catalog.byPopularity[catalog.popularity.sample(random) - 1];
+            rows.add(new Object[]{pick(random, ratings, RATING_WEIGHTS),
+                    REVIEW_COMMENTS[random.nextInt(REVIEW_COMMENTS.length)],
+                    catalog.ids[product], userIds[random.nextInt(userIds.length)]});
+            if (rows.size() == settings.getBatchSize() || i == settings.getReviews()) {
+                insert("INSERT INTO review (rating, comment, product_id, user_id) VALUES (?, ?, ?, ?)",
+                        rows, rows.size());
+                rows.clear();
+            }
+        }
+        return settings.getReviews();
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values, double[] weights) {
+        double point = random.nextDouble();
+        for (int i = 0; i < values.length - 1; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    private void insert(String sql, List<Object[]> rows, int batchSize) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        }
+    }
+
+    /**
+     * Вставляет строки по одной в текущей транзакции и возвращает их ключи по порядку.
+     * Пакетом нельзя: mssql-jdbc после {@code executeBatch} отдает только последний ключ.
+     */
+    private long[] insertReturningIds(String sql, List<Object[]> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            long[] ids = new long[rows.size()];
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    new ArgumentPreparedStatementSetter(rows.get(i)).setValues(statement);
+                    statement.executeUpdate();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Драйвер не вернул сгенерированный ключ: " + sql);
+                        }
+                        ids[i] = keys.getLong(1);
+                    }
+                }
+            }
+            return ids;
+        });
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /** Созданные товары: id и цены по порядку вставки и перестановка рангов популярности */
+    private static final class Catalog {
+        final long[] ids;
+        /** Цены в копейках */
+        final long[] prices;
+        final int[] byPopularity;
+        ZipfSampler popularity;
+
+        Catalog(int size) {
+            ids = new long[size];
+            prices = new long[size];
+            byPopularity = new int[size];
+            for (int i = 0; i < size; i++) {
+                byPopularity[i] = i;
+            }
+        }
+    }
+}
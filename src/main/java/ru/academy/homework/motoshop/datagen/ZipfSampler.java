@@ -0,0 +1,46 @@
+package ru.academy.homework.motoshop.datagen;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Выборка рангов 1..n по закону Ципфа: вероятность ранга k пропорциональна 1/k^s.
+ *
+ * <p>Функция распределения считается один раз (n чисел double), выборка — двоичный
+ * поиск. При s около 1 первые 1% рангов получают заметную долю всех обращений, как
+ * популярные товары в реальном магазине.</p>
+ */
+public final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n должно быть положительным: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    /**
+     * @return ранг от 1 до n
+     */
+    public int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1) + 1;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.academy.homework.motoshop.datasource;
+
+/**
+ * Ключи {@link ReplicaRoutingDataSource}.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
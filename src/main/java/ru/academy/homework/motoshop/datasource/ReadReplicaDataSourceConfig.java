@@ -0,0 +1,101 @@
+package ru.academy.homework.motoshop.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Чтение с реплики для транзакций только на чтение.
+ *
+ * <p>Включается {@code motoshop.datasource.replica.enabled=true}. Вместо источника данных
+ * Spring Boot объявляются два пула — {@code primaryDataSource} (настройки
+ * {@code spring.datasource.*}) и {@code replicaDataSource}
+ * ({@code motoshop.datasource.replica.*}) — и основной бин {@code dataSource}, который
+ * выбирает пул для каждой транзакции (см. {@link ReplicaRoutingDataSource}).</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "motoshop.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("motoshop.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${motoshop.datasource.replica.url}") String url,
+            @Value("${motoshop.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${motoshop.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${motoshop.datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}")
+            String driverClassName) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password);
+        if (!driverClassName.isEmpty()) {
+            builder.driverClassName(driverClassName);
+        }
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${motoshop.datasource.replica.sticky-ms:10000}") long stickyMs) {
+        return new ReadYourWritesTracker(stickyMs);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReadYourWritesTracker tracker,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${motoshop.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                               @Value("${motoshop.datasource.replica.lag-check-interval-ms:1000}")
+                                               long intervalMs) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(new JdbcTemplate(primaryDataSource),
+                new JdbcTemplate(replicaDataSource), maxLagMs, intervalMs, tracker);
+        Gauge.builder("motoshop.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMs)
+                .description("Отставание реплики, -1 если недоступна")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor lagMonitor,
+                                 ReadYourWritesTracker tracker,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor, tracker, meterRegistry);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRole.PRIMARY, primaryDataSource);
+        targets.put(DataSourceRole.REPLICA, replicaDataSource);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
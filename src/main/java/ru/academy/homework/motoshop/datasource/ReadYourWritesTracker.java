@@ -0,0 +1,84 @@
+package ru.academy.homework.motoshop.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Помнит, кто из пользователей недавно писал в основную базу.
+ *
+ * <p>Пока не истекло окно {@code stickyMs} после записи, чтения этого пользователя идут
+ * в основную базу: реплика может еще не получить его изменения, и только что
+ * сохраненный заказ или отзыв «исчез» бы со страницы. Окно должно быть не меньше
+ * допустимого отставания реплики. Анонимные запросы не отслеживаются.</p>
+ */
+public class ReadYourWritesTracker {
+
+    private final long stickyMs;
+    private final LongSupplier clock;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyMs) {
+        this(stickyMs, System::currentTimeMillis);
+    }
+
+    ReadYourWritesTracker(long stickyMs, LongSupplier clock) {
+        this.stickyMs = stickyMs;
+        this.clock = clock;
+    }
+
+    /**
+     * @return имя текущего аутентифицированного пользователя или {@code null}
+     */
+    static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Отмечает запись текущего пользователя, выполненную в другом потоке: соединение там
+     * берется без его контекста безопасности (см. пакетную фиксацию заказов).
+     */
+    public void recordCurrentUserWrite() {
+        String user = currentUser();
+        if (user != null) {
+            recordWrite(user);
+        }
+    }
+
+    void recordWrite(String user) {
+        lastWrites.put(user, clock.getAsLong());
+    }
+
+    boolean isSticky(String user) {
+        Long lastWrite = lastWrites.get(user);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (clock.getAsLong() - lastWrite < stickyMs) {
+            return true;
+        }
+        lastWrites.remove(user, lastWrite);
+        return false;
+    }
+
+    /**
+     * Удаляет истекшие записи, чтобы карта не росла с числом пользователей.
+     */
+    void evictExpired() {
+        long now = clock.getAsLong();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= stickyMs);
+    }
+
+    int size() {
+        return lastWrites.size();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.academy.homework.motoshop.datasource;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Строка-пульс для оценки отставания реплики: {@link ReplicaLagMonitor} пишет время
+ * в основную базу и читает его с реплики. Таблица создается вместе со схемой и
+ * реплицируется как любая другая.
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    private Integer id;
+
+    /** Время записи на основной базе, мс с эпохи */
+    @Column(name = "beat_at", nullable = false)
+    private Long beatAt;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getBeatAt() {
+        return beatAt;
+    }
+
+    public void setBeatAt(Long beatAt) {
+        this.beatAt = beatAt;
+    }
+}
@@ -0,0 +1,147 @@
+package ru.academy.homework.motoshop.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Оценивает отставание реплики по строке-пульсу {@link ReplicaHeartbeat}.
+ *
+ * <p>Каждые {@code intervalMs} монитор читает с реплики последнее время пульса и затем
+ * пишет новое в основную базу. Если реплика уже видит предыдущий пульс, отставание
+ * меньше интервала и считается нулевым; иначе отставание — время, прошедшее с пульса,
+ * который она видит (оценка сверху). Реплика
+ * используется, пока отставание не больше {@code maxLagMs}; если реплика не отвечает
+ * или проверки давно не выполнялись, все чтения идут в основную базу.</p>
+ */
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String SELECT_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+    private static final String UPDATE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    private final long intervalMs;
+    private final LongSupplier clock;
+    private final ReadYourWritesTracker tracker;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMs = -1;
+    private volatile long lastCheckAt;
+    private long lastBeat;
+
+    private ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, long maxLagMs, long intervalMs,
+                             ReadYourWritesTracker tracker) {
+        this(primary, replica, maxLagMs, intervalMs, tracker, System::currentTimeMillis);
+    }
+
+    ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, long maxLagMs, long intervalMs,
+                      ReadYourWritesTracker tracker, LongSupplier clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.intervalMs = intervalMs;
+        this.tracker = tracker;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::check, 0, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Replica lag monitor started: maxLagMs={}, intervalMs={}", maxLagMs, intervalMs);
+    }
+
+    /**
+     * Одна проверка: чтение пульса с реплики, затем запись нового пульса в основную базу.
+     */
+    void check() {
+        Long replicaBeat = null;
+        try {
+            List<Long> beats = replica.queryForList(SELECT_BEAT, Long.class);
+            replicaBeat = beats.isEmpty() ? null : beats.get(0);
+        } catch (DataAccessException e) {
+            logger.debug("Replica heartbeat read failed: {}", e.getMessage());
+        }
+
+        long lag;
+        if (replicaBeat == null || lastBeat == 0) {
+            lag = -1;
+        } else if (replicaBeat >= lastBeat) {
+            lag = 0;
+        } else {
+            lag = clock.getAsLong() - replicaBeat;
+        }
+
+        try {
+            long beat = clock.getAsLong();
+            if (primary.update(UPDATE_BEAT, beat) == 0) {
+                primary.update(INSERT_BEAT, beat);
+            }
+            lastBeat = beat;
+        } catch (DataAccessException e) {
+            logger.warn("Replica heartbeat write failed: {}", e.getMessage());
+        }
+
+        update(lag);
+        tracker.evictExpired();
+    }
+
+    private void update(long lag) {
+        boolean usable = lag >= 0 && lag <= maxLagMs;
+        lagMs = lag;
+        lastCheckAt = clock.getAsLong();
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Replica is in sync (lag {} ms), read-only transactions use the replica", lag);
+            } else {
+                logger.warn("Replica lag {} ms exceeds {} ms or replica is unavailable, reads fall back to primary",
+                        lag, maxLagMs);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    /**
+     * @return можно ли направлять чтения на реплику
+     */
+    public boolean isReplicaUsable() {
+        // Монитор остановился или завис: данные о реплике устарели
+        return replicaUsable && clock.getAsLong() - lastCheckAt <= intervalMs * 3;
+    }
+
+    /**
+     * @return последнее измеренное отставание, мс; -1 если реплика недоступна
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
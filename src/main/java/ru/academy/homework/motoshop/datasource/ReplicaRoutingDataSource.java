@@ -0,0 +1,91 @@
+package ru.academy.homework.motoshop.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Направляет соединения транзакций {@code @Transactional(readOnly = true)} на реплику.
+ *
+ * <p>Основная база выбирается, если:</p>
+ * <ul>
+ *   <li>транзакция пишущая или ее нет вовсе;</li>
+ *   <li>текущий пользователь недавно писал ({@link ReadYourWritesTracker});</li>
+ *   <li>реплика отстает или недоступна ({@link ReplicaLagMonitor}).</li>
+ * </ul>
+ *
+ * <p>Ключ определяется при получении физического соединения, поэтому источник
+ * оборачивается в {@code LazyConnectionDataSourceProxy}: тогда соединение берется при
+ * первом запросе, когда признак readOnly транзакции уже выставлен.</p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker tracker;
+
+    private final Counter primaryWrites;
+    private final Counter primarySticky;
+    private final Counter primaryLag;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker tracker,
+                                    MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.tracker = tracker;
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+        this.primaryWrites = counter(registry, "primary", "write");
+        this.primarySticky = counter(registry, "primary", "read_your_writes");
+        this.primaryLag = counter(registry, "primary", "replica_lag");
+        this.replicaReads = counter(registry, "replica", "read_only");
+    }
+
+    private static Counter counter(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("motoshop.datasource.routing")
+                .description("Выбор базы для соединений транзакций")
+                .tags("target", target, "reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRole.PRIMARY;
+        }
+
+        String user = ReadYourWritesTracker.currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            if (user != null) {
+                recordWrite(user);
+            }
+            return DataSourceRole.PRIMARY;
+        }
+
+        if (user != null && tracker.isSticky(user)) {
+            primarySticky.increment();
+            return DataSourceRole.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            primaryLag.increment();
+            return DataSourceRole.PRIMARY;
+        }
+        replicaReads.increment();
+        return DataSourceRole.REPLICA;
+    }
+
+    private void recordWrite(String user) {
+        tracker.recordWrite(user);
+        // Окно отсчитывается и от фиксации: долгая транзакция не должна его «съесть»
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tracker.recordWrite(user);
+                }
+            });
+        }
+    }
+}
@@ -2,14 +2,22 @@ package ru.academy.homework.motoshop.entity;
 
 import jakarta.persistence.*;
 import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // История заказов: поиск по пользователю и обход в порядке order_date DESC, id DESC
+        // без сортировки; статус и сумма в ключе, чтобы страница читалась только из индекса
+        @Index(name = "ix_orders_user_date", columnList = "user_id, order_date DESC, id DESC, status, total_amount")
+})
 public class Order {
 
     @Id
@@ -23,8 +31,8 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
 
-    @Column(name = "total_amount", nullable = false)
-    private Double totalAmount = 0.0;
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = Money.SCALE)
+    private Money totalAmount = Money.ZERO;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -45,6 +53,17 @@ public class Order {
     @Column(name = "customer_email")
     private String customerEmail;
 
+    /**
+     * Сумма строк в копейках и индекс строк по id товара. Не хранятся: строятся одним
+     * проходом по {@link #orderItems} при первом изменении загруженного заказа и дальше
+     * поддерживаются каждой операцией, поэтому добавление строки стоит O(1), а не O(n).
+     */
+    @Transient
+    private long totalMinorUnits;
+
+    @Transient
+    private Map<Long, OrderItem> itemsByProductId;
+
     @PrePersist
     protected void onCreate() {
         orderDate = LocalDateTime.now();
@@ -65,40 +84,91 @@ public class Order {
 
     // Вспомогательные методы
     public void addOrderItem(OrderItem item) {
+        ensureIndexed();
         orderItems.add(item);
         item.setOrder(this);
-        calculateTotalAmount();
+        indexItem(item);
+        changeTotal(subtotal(item));
     }
 
     public void removeOrderItem(OrderItem item) {
-        orderItems.remove(item);
+        ensureIndexed();
+        // По ссылке: у новых строк id еще нет, и equals по id совпал бы с любой из них
+        for (Iterator<OrderItem> iterator = orderItems.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == item) {
+                iterator.remove();
+                Long productId = productId(item);
+                if (productId != null && itemsByProductId.get(productId) == item) {
+                    itemsByProductId.remove(productId);
+                }
+                changeTotal(-subtotal(item));
+                break;
+            }
+        }
         item.setOrder(null);
-        calculateTotalAmount();
     }
 
     public void addProduct(Product product, Integer quantity) {
-        // Проверяем, есть ли уже этот продукт в заказе
-        OrderItem existingItem = orderItems.stream()
-                .filter(item -> item.getProduct().getId().equals(product.getId()))
-                .findFirst()
-                .orElse(null);
+        ensureIndexed();
+        OrderItem existingItem = product.getId() != null ? itemsByProductId.get(product.getId()) : null;
 
         if (existingItem != null) {
             // Если продукт уже есть, увеличиваем количество
+            long previous = subtotal(existingItem);
             existingItem.setQuantity(existingItem.getQuantity() + quantity);
             existingItem.setPrice(product.getPrice()); // Обновляем цену
+            changeTotal(subtotal(existingItem) - previous);
         } else {
             // Если продукта нет, создаем новый элемент заказа
             OrderItem newItem = new OrderItem(this, product, quantity, product.getPrice());
             orderItems.add(newItem);
+            indexItem(newItem);
+            changeTotal(subtotal(newItem));
         }
-        calculateTotalAmount();
     }
 
-    private void calculateTotalAmount() {
-        this.totalAmount = orderItems.stream()
-                .mapToDouble(OrderItem::getSubtotal)
-                .sum();
+    /**
+     * Полный пересчет суммы и индекса; нужен, если строки изменены в обход методов заказа.
+     */
+    void calculateTotalAmount() {
+        itemsByProductId = new HashMap<>(Math.max(16, orderItems.size() * 2));
+        long total = 0;
+        for (OrderItem item : orderItems) {
+            indexItem(item);
+            total = Math.addExact(total, subtotal(item));
+        }
+        totalMinorUnits = total;
+        totalAmount = Money.ofMinor(total);
+    }
+
+    private void ensureIndexed() {
+        if (itemsByProductId == null) {
+            calculateTotalAmount();
+        }
+    }
+
+    private void indexItem(OrderItem item) {
+        Long productId = productId(item);
+        if (productId != null) {
+            itemsByProductId.putIfAbsent(productId, item);
+        }
+    }
+
+    private void changeTotal(long deltaMinorUnits) {
+        totalMinorUnits = Math.addExact(totalMinorUnits, deltaMinorUnits);
+        totalAmount = Money.ofMinor(totalMinorUnits);
+    }
+
+    private static Long productId(OrderItem item) {
+        return item.getProduct() != null ? item.getProduct().getId() : null;
+    }
+
+    /** Стоимость строки в копейках */
+    private static long subtotal(OrderItem item) {
+        if (item.getPrice() == null || item.getQuantity() == null) {
+            return 0;
+        }
+        return Math.multiplyExact(item.getPrice().getMinorUnits(), (long) item.getQuantity());
     }
 
     // Геттеры и сеттеры
@@ -127,11 +197,11 @@ public class Order {
         calculateTotalAmount();
     }
 
-    public Double getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
 
-    public void setTotalAmount(Double totalAmount) {
+    public void setTotalAmount(Money totalAmount) {
         this.totalAmount = totalAmount;
     }
 
@@ -208,21 +278,3 @@ public class Order {
         return Objects.hash(id);
     }
 }
-
-enum OrderStatus {
-    PENDING("В обработке"),
-    CONFIRMED("Подтвержден"),
-    SHIPPED("Отправлен"),
-    DELIVERED("Доставлен"),
-    CANCELLED("Отменен");
-
-    private final String description;
-
-    OrderStatus(String description) {
-        this.description = description;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-}
\ No newline at end of file
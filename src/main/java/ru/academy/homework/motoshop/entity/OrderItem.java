@@ -2,11 +2,15 @@ package ru.academy.homework.motoshop.entity;
 
 import jakarta.persistence.*;
 import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
 
 import java.util.Objects;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        // Строки заказов страницы истории одним запросом по order_id IN (...)
+        @Index(name = "ix_order_items_order", columnList = "order_id, product_id, quantity, price")
+})
 public class OrderItem {
 
     @Id
@@ -24,14 +28,14 @@ public class OrderItem {
     @Column(name = "quantity", nullable = false)
     private Integer quantity = 1;
 
-    @Column(name = "price", nullable = false)
-    private Double price;
+    @Column(name = "price", nullable = false, precision = 19, scale = Money.SCALE)
+    private Money price;
 
     // Конструкторы
     public OrderItem() {
     }
 
-    public OrderItem(Order order, Product product, Integer quantity, Double price) {
+    public OrderItem(Order order, Product product, Integer quantity, Money price) {
         this.order = order;
         this.product = product;
         this.quantity = quantity;
@@ -39,8 +43,8 @@ public class OrderItem {
     }
 
     // Вспомогательные методы
-    public Double getSubtotal() {
-        return quantity * price;
+    public Money getSubtotal() {
+        return price.times(quantity);
     }
 
     // Геттеры и сеттеры
@@ -76,11 +80,11 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public Double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
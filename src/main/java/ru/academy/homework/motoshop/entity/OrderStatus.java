@@ -0,0 +1,32 @@
+package ru.academy.homework.motoshop.entity;
+
+/**
+ * Жизненный цикл заказа: PENDING → CONFIRMED → SHIPPED → DELIVERED. Отменить можно
+ * заказ, который еще не отправлен; DELIVERED и CANCELLED — конечные состояния.
+ */
+public enum OrderStatus {
+    PENDING("В обработке"),
+    CONFIRMED("Подтвержден"),
+    SHIPPED("Отправлен"),
+    DELIVERED("Доставлен"),
+    CANCELLED("Отменен");
+
+    private final String description;
+
+    OrderStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == SHIPPED || target == CANCELLED;
+            case SHIPPED -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+}
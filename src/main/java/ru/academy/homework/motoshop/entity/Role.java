@@ -1,10 +1,16 @@
 package ru.academy.homework.motoshop.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.academy.homework.motoshop.cache.CacheRegions;
+
 import java.util.Objects;
 
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROLES)
 public class Role {
 
     @Id
@@ -0,0 +1,139 @@
+package ru.academy.homework.motoshop.exporter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Колоночная выгрузка по образцу Parquet.
+ *
+ * <p>Первая строка — схема, далее группы по {@code rowGroupSize} строк. Внутри группы
+ * значения сгруппированы по колонкам, что хорошо сжимается и удобно для аналитики.
+ * В памяти хранится только текущая группа.</p>
+ *
+ * <pre>
+ * {"format":"motoshop-columnar","version":1,"rowGroupSize":8192,"columns":[{"name":"id","type":"int64"},...]}
+ * {"rowGroup":0,"rows":8192,"columns":{"id":[1,2,...],"sku":["AGV-K6",...],...}}
+ * </pre>
+ */
+class ColumnarProductExportWriter implements ProductExportWriter {
+
+    private static final String[] TYPES = {
+            "int64", "string", "string", "string", "decimal", "int32", "boolean",
+            "string", "string", "string", "int64", "string", "timestamp", "timestamp"};
+
+    private final JsonGenerator generator;
+    private final int rowGroupSize;
+
+    private final long[] ids;
+    private final Object[][] values;
+    private int rows;
+    private int rowGroup;
+
+    ColumnarProductExportWriter(OutputStream output, JsonFactory jsonFactory, int rowGroupSize) throws IOException {
+        this.rowGroupSize = rowGroupSize;
+        this.ids = new long[rowGroupSize];
+        this.values = new Object[ProductExportRow.COLUMNS.size()][rowGroupSize];
+
+        this.generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        writeSchema();
+    }
+
+    private void writeSchema() throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("format", "motoshop-columnar");
+        generator.writeNumberField("version", 1);
+        generator.writeNumberField("rowGroupSize", rowGroupSize);
+        generator.writeArrayFieldStart("columns");
+        for (int i = 0; i < TYPES.length; i++) {
+            generator.writeStartObject();
+            generator.writeStringField("name", ProductExportRow.COLUMNS.get(i));
+            generator.writeStringField("type", TYPES[i]);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void writeRow(ProductExportRow row) throws IOException {
+        ids[rows] = row.id;
+        values[1][rows] = row.sku;
+        values[2][rows] = row.name;
+        values[3][rows] = row.description;
+        values[4][rows] = row.price;
+        values[5][rows] = row.stockQuantity;
+        values[6][rows] = row.available;
+        values[7][rows] = row.brand;
+        values[8][rows] = row.model;
+        values[9][rows] = row.imageUrl;
+        values[10][rows] = row.categoryId;
+        values[11][rows] = row.categoryName;
+        values[12][rows] = row.createdAt;
+        values[13][rows] = row.updatedAt;
+
+        if (++rows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("rowGroup", rowGroup++);
+        generator.writeNumberField("rows", rows);
+        generator.writeObjectFieldStart("columns");
+
+        generator.writeFieldName("id");
+        generator.writeArray(ids, 0, rows);
+        for (int column = 1; column < values.length; column++) {
+            generator.writeArrayFieldStart(ProductExportRow.COLUMNS.get(column));
+            Object[] chunk = values[column];
+            for (int i = 0; i < rows; i++) {
+                writeValue(chunk[i]);
+                chunk[i] = null;
+            }
+            generator.writeEndArray();
+        }
+
+        generator.writeEndObject();
+        generator.writeEndObject();
+        rows = 0;
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof LocalDateTime) {
+            generator.writeString(value.toString());
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) {
+            flushRowGroup();
+        }
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.academy.homework.motoshop.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+class CsvProductExportWriter implements ProductExportWriter {
+
+    private final Writer writer;
+
+    CsvProductExportWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write(String.join(",", ProductExportRow.COLUMNS));
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(ProductExportRow row) throws IOException {
+        writer.write(Long.toString(row.id));
+        writeField(row.sku);
+        writeField(row.name);
+        writeField(row.description);
+        writeField(row.price != null ? row.price.toPlainString() : null);
+        writeField(row.stockQuantity);
+        writeField(row.available);
+        writeField(row.brand);
+        writeField(row.model);
+        writeField(row.imageUrl);
+        writeField(row.categoryId);
+        writeField(row.categoryName);
+        writeField(row.createdAt);
+        writeField(row.updatedAt);
+        writer.write("\r\n");
+    }
+
+    private void writeField(Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+
+        String text = value.toString();
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length() && !needsQuotes; i++) {
+            char ch = text.charAt(i);
+            needsQuotes = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+
+        if (!needsQuotes) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.academy.homework.motoshop.exporter;
+
+import java.util.Locale;
+
+/**
+ * Формат выгрузки каталога.
+ */
+public enum ExportFormat {
+    /** CSV с заголовком, разделитель {@code ,} */
+    CSV("text/csv;charset=UTF-8", "csv"),
+    /** Один JSON-объект на строку */
+    JSONL("application/x-ndjson", "jsonl"),
+    /**
+     * Колоночный формат по образцу Parquet: строка схемы, затем группы строк,
+     * в каждой группе значения лежат по колонкам. Строки JSON, поэтому читается без
+     * специальных библиотек.
+     */
+    COLUMNAR("application/x-ndjson", "columnar.jsonl");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @param value значение параметра запроса ({@code csv}, {@code jsonl}, {@code columnar})
+     * @return формат выгрузки
+     * @throws IllegalArgumentException если формат не поддерживается
+     */
+    public static ExportFormat fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неподдерживаемый формат выгрузки: " + value);
+        }
+    }
+}
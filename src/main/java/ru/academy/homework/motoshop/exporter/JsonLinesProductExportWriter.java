@@ -0,0 +1,68 @@
+package ru.academy.homework.motoshop.exporter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+class JsonLinesProductExportWriter implements ProductExportWriter {
+
+    private final JsonGenerator generator;
+
+    JsonLinesProductExportWriter(OutputStream output, JsonFactory jsonFactory) throws IOException {
+        this.generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    public void writeRow(ProductExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.id);
+        writeString("sku", row.sku);
+        writeString("name", row.name);
+        writeString("description", row.description);
+        if (row.price != null) {
+            generator.writeFieldName("price");
+            generator.writeNumber(row.price.toPlainString());
+        }
+        if (row.stockQuantity != null) {
+            generator.writeNumberField("stockQuantity", row.stockQuantity);
+        }
+        if (row.available != null) {
+            generator.writeBooleanField("available", row.available);
+        }
+        writeString("brand", row.brand);
+        writeString("model", row.model);
+        writeString("imageUrl", row.imageUrl);
+        if (row.categoryId != null) {
+            generator.writeNumberField("categoryId", row.categoryId);
+        }
+        writeString("categoryName", row.categoryName);
+        writeTimestamp("createdAt", row.createdAt);
+        writeTimestamp("updatedAt", row.updatedAt);
+        generator.writeEndObject();
+    }
+
+    private void writeString(String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private void writeTimestamp(String field, LocalDateTime value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value.toString());
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
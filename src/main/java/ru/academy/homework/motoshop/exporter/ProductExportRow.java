@@ -0,0 +1,73 @@
+package ru.academy.homework.motoshop.exporter;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Строка выгрузки каталога. Один экземпляр переиспользуется для всех строк курсора,
+ * чтобы выгрузка не создавала по объекту на товар.
+ */
+public class ProductExportRow {
+
+    /** Колонки выгрузки в порядке следования, общие для всех форматов */
+    public static final List<String> COLUMNS = List.of(
+            "id", "sku", "name", "description", "price", "stockQuantity", "available",
+            "brand", "model", "imageUrl", "categoryId", "categoryName", "createdAt", "updatedAt");
+
+    /** Запрос выгрузки; колонки идут в порядке {@link #COLUMNS} */
+    static final String SELECT_SQL =
+            "SELECT p.id, p.sku, p.name, p.description, p.price, p.stock_quantity, p.available, " +
+                    "p.brand, p.model, p.image_url, p.category_id, c.name, p.created_at, p.updated_at " +
+                    "FROM products p LEFT JOIN categories c ON c.id = p.category_id " +
+                    "ORDER BY p.id";
+
+    long id;
+    String sku;
+    String name;
+    String description;
+    /** Цена как в базе, без перевода в double: выгрузка не должна терять копейки */
+    BigDecimal price;
+    Integer stockQuantity;
+    Boolean available;
+    String brand;
+    String model;
+    String imageUrl;
+    Long categoryId;
+    String categoryName;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    void readFrom(ResultSet rs) throws SQLException {
+        id = rs.getLong(1);
+        sku = rs.getString(2);
+        name = rs.getString(3);
+        description = rs.getString(4);
+        price = rs.getBigDecimal(5);
+        stockQuantity = rs.getInt(6);
+        if (rs.wasNull()) {
+            stockQuantity = null;
+        }
+        available = rs.getBoolean(7);
+        if (rs.wasNull()) {
+            available = null;
+        }
+        brand = rs.getString(8);
+        model = rs.getString(9);
+        imageUrl = rs.getString(10);
+        categoryId = rs.getLong(11);
+        if (rs.wasNull()) {
+            categoryId = null;
+        }
+        categoryName = rs.getString(12);
+        createdAt = toLocalDateTime(rs.getTimestamp(13));
+        updatedAt = toLocalDateTime(rs.getTimestamp(14));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.academy.homework.motoshop.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Потоковая выгрузка каталога.
+ *
+ * <p>Строки читаются однонаправленным курсором JDBC порциями по {@code fetchSize} и
+ * сразу пишутся в поток ответа, сущности {@code Product} не создаются. Запись в поток
+ * блокируется, когда клиент не успевает скачивать, и вместе с ней останавливается
+ * чтение курсора — так скорость клиента ограничивает выгрузку, а память остается
+ * постоянной независимо от размера каталога.</p>
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${motoshop.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${motoshop.export.row-group-size:8192}")
+    private int rowGroupSize;
+
+    @Autowired
+    public ProductExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Выгружает весь каталог в поток.
+     *
+     * @param format формат выгрузки
+     * @param output поток ответа; не закрывается
+     * @return число выгруженных строк
+     */
+    public long export(ExportFormat format, OutputStream output) throws IOException {
+        ProductExportWriter writer = createWriter(format, output);
+        ProductExportRow row = new ProductExportRow();
+        long[] count = new long[1];
+        long start = System.nanoTime();
+
+        RowCallbackHandler handler = rs -> {
+            row.readFrom(rs);
+            try {
+                writer.writeRow(row);
+            } catch (IOException e) {
+                // Клиент оборвал загрузку: прекращаем чтение курсора
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        };
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(ProductExportRow.SELECT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, handler);
+        } catch (UncheckedIOException e) {
+            logger.info("Product export aborted by client after {} rows: {}", count[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.finish();
+        logger.info("Product export completed: format={}, rows={}, elapsedMs={}",
+                format, count[0], (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+
+    private ProductExportWriter createWriter(ExportFormat format, OutputStream output) throws IOException {
+        switch (format) {
+            case JSONL:
+                return new JsonLinesProductExportWriter(output, objectMapper.getFactory());
+            case COLUMNAR:
+                return new ColumnarProductExportWriter(output, objectMapper.getFactory(), rowGroupSize);
+            case CSV:
+            default:
+                return new CsvProductExportWriter(output);
+        }
+    }
+}
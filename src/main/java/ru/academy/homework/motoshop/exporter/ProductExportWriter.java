@@ -0,0 +1,19 @@
+package ru.academy.homework.motoshop.exporter;
+
+import java.io.IOException;
+
+/**
+ * Запись строк выгрузки в выходной поток в конкретном формате.
+ *
+ * <p>Реализации не держат в памяти больше одной строки (колоночный формат —
+ * одну группу строк фиксированного размера).</p>
+ */
+interface ProductExportWriter {
+
+    void writeRow(ProductExportRow row) throws IOException;
+
+    /**
+     * Дописывает буферизованные данные. Поток ответа не закрывает.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,197 @@
+package ru.academy.homework.motoshop.fulfillment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.academy.homework.motoshop.entity.OrderStatus;
+import ru.academy.homework.motoshop.outbox.OutboxEventType;
+import ru.academy.homework.motoshop.outbox.OutboxPayloads;
+import ru.academy.homework.motoshop.outbox.OutboxWriter;
+import ru.academy.homework.motoshop.stock.StockBatchService;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Переходы заказов по статусам пакетами для комплектации и доставки.
+ *
+ * <p>Пакет применяется одной транзакцией без загрузки сущностей, кусками по тысяче заказов.
+ * Строки куска сначала блокируются одним UPDATE, затем читаются их текущие статусы, и
+ * допустимые переходы ({@link OrderStatus#canTransitionTo}) применяются одним UPDATE на
+ * каждый исходный статус. Тем же числом выражений INSERT ... SELECT пишется история
+ * статусов. Заказы сортируются по id, поэтому параллельные пакеты блокируют строки в
+ * одном порядке.</p>
+ *
+ * <p>При отмене позиции отмененных заказов суммируются по товарам, и остатки
+ * возвращаются одним пакетом {@link StockBatchService#release} в той же транзакции.</p>
+ */
+@Service
+public class OrderLifecycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderLifecycleService.class);
+
+    /** SQL Server ограничивает запрос 2100 параметрами */
+    private static final int CHUNK_SIZE = 1000;
+
+    /** Переносимая замена SELECT ... FOR UPDATE: статус не меняется, но строки заблокированы */
+    private static final String LOCK_SQL =
+            "UPDATE orders SET status = status WHERE id IN (:ids)";
+
+    private static final String SELECT_SQL =
+            "SELECT id, status FROM orders WHERE id IN (:ids)";
+
+    private static final String TRANSITION_SQL =
+            "UPDATE orders SET status = :to WHERE id IN (:ids) AND status = :from";
+
+    private static final String HISTORY_SQL =
+            "INSERT INTO order_status_history (order_id, from_status, to_status, changed_at) " +
+                    "SELECT id, :from, :to, :changedAt FROM orders WHERE id IN (:ids)";
+
+    private static final String RESERVED_SQL =
+            "SELECT product_id, SUM(quantity) FROM order_items WHERE order_id IN (:ids) GROUP BY product_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockBatchService stockBatchService;
+    private final OutboxWriter outboxWriter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${motoshop.orders.transition.max-size:10000}")
+    private int maxBatchSize = 10000;
+
+    @Autowired
+    public OrderLifecycleService(NamedParameterJdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 StockBatchService stockBatchService,
+                                 OutboxWriter outboxWriter,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.stockBatchService = stockBatchService;
+        this.outboxWriter = outboxWriter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Переводит заказы пакета в целевой статус. Недопустимые переходы и отсутствующие
+     * заказы отмечаются в отчете и не мешают остальным.
+     *
+     * @throws IllegalArgumentException если статус не указан, пакет пуст или слишком велик
+     */
+    public OrderTransitionReport transition(OrderTransitionRequest request) {
+        OrderStatus target = request.getStatus();
+        List<Long> requested = request.getOrderIds();
+        if (target == null) {
+            throw new IllegalArgumentException("Не указан целевой статус");
+        }
+        if (requested == null || requested.isEmpty()) {
+            throw new IllegalArgumentException("Пакет заказов пуст");
+        }
+        if (requested.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Пакет превышает " + maxBatchSize + " заказов");
+        }
+        for (Long id : requested) {
+            if (id == null) {
+                throw new IllegalArgumentException("Не указан id заказа");
+            }
+        }
+
+        long start = System.nanoTime();
+        List<Long> ids = new ArrayList<>(new TreeSet<>(requested));
+        Map<Long, OrderTransitionResult> results = new HashMap<>(ids.size() * 2);
+        Integer released = transactionTemplate.execute(status -> apply(ids, target, results));
+
+        List<OrderTransitionResult> ordered = new ArrayList<>(ids.size());
+        for (Long id : new LinkedHashSet<>(requested)) {
+            ordered.add(results.get(id));
+        }
+        OrderTransitionReport report = new OrderTransitionReport(ordered, released != null ? released : 0,
+                (System.nanoTime() - start) / 1_000_000);
+        meterRegistry.counter("motoshop.orders.transitions", "to", target.name()).increment(report.getUpdated());
+        logger.info("Order transition applied: to={}, orders={}, updated={}, unchanged={}, notFound={}, rejected={}, releasedUnits={}, elapsedMs={}",
+                target, ids.size(), report.getUpdated(), report.getUnchanged(), report.getNotFound(),
+                report.getRejected(), report.getReleasedUnits(), report.getElapsedMs());
+        return report;
+    }
+
+    private int apply(List<Long> ids, OrderStatus target, Map<Long, OrderTransitionResult> results) {
+        long changedAt = System.currentTimeMillis();
+        Map<Long, Integer> released = new TreeMap<>();
+
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            MapSqlParameterSource chunkParams = new MapSqlParameterSource("ids", chunk);
+
+            // После блокировки прочитанные статусы не изменятся до конца транзакции
+            jdbcTemplate.update(LOCK_SQL, chunkParams);
+            Map<Long, OrderStatus> current = new HashMap<>(chunk.size() * 2);
+            jdbcTemplate.query(SELECT_SQL, chunkParams, rs -> {
+                current.put(rs.getLong(1), OrderStatus.valueOf(rs.getString(2)));
+            });
+
+            Map<OrderStatus, List<Long>> bySource = new EnumMap<>(OrderStatus.class);
+            for (Long id : chunk) {
+                OrderStatus status = current.get(id);
+                if (status == null) {
+                    results.put(id, new OrderTransitionResult(id, OrderTransitionResult.Status.NOT_FOUND,
+                            null, "Заказ не найден"));
+                } else if (status == target) {
+                    results.put(id, new OrderTransitionResult(id, OrderTransitionResult.Status.UNCHANGED,
+                            status, null));
+                } else if (!status.canTransitionTo(target)) {
+                    results.put(id, new OrderTransitionResult(id, OrderTransitionResult.Status.REJECTED,
+                            status, "Переход " + status + " → " + target + " недопустим"));
+                } else {
+                    bySource.computeIfAbsent(status, key -> new ArrayList<>()).add(id);
+                    results.put(id, new OrderTransitionResult(id, OrderTransitionResult.Status.UPDATED,
+                            status, null));
+                }
+            }
+
+            List<Long> transitioned = new ArrayList<>(chunk.size());
+            for (Map.Entry<OrderStatus, List<Long>> group : bySource.entrySet()) {
+                List<Long> groupIds = group.getValue();
+                MapSqlParameterSource params = new MapSqlParameterSource("ids", groupIds)
+                        .addValue("from", group.getKey().name())
+                        .addValue("to", target.name())
+                        .addValue("changedAt", changedAt);
+                if (jdbcTemplate.update(TRANSITION_SQL, params) != groupIds.size()) {
+                    throw new IllegalStateException("Статусы заказов изменились во время перехода");
+                }
+                jdbcTemplate.update(HISTORY_SQL, params);
+
+                OutboxPayloads.StatusChange change = new OutboxPayloads.StatusChange(group.getKey(), target);
+                for (Long id : groupIds) {
+                    outboxWriter.append(OutboxEventType.ORDER_STATUS_CHANGED, id, change);
+                }
+                transitioned.addAll(groupIds);
+            }
+
+            // В CANCELLED переходят только неотправленные заказы, их остатки списаны при оформлении
+            if (target == OrderStatus.CANCELLED && !transitioned.isEmpty()) {
+                jdbcTemplate.query(RESERVED_SQL, new MapSqlParameterSource("ids", transitioned), rs -> {
+                    released.merge(rs.getLong(1), rs.getInt(2), Integer::sum);
+                });
+            }
+        }
+
+        stockBatchService.release(released);
+        int units = 0;
+        for (int quantity : released.values()) {
+            units += quantity;
+        }
+        return units;
+    }
+}
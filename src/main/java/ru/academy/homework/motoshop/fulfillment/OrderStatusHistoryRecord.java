@@ -0,0 +1,57 @@
+package ru.academy.homework.motoshop.fulfillment;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Строка истории статусов заказа. Пишется через JDBC одним выражением на пакет переходов
+ * ({@link OrderLifecycleService}); сущность нужна, чтобы таблица создавалась вместе со схемой.
+ */
+@Entity
+@Table(name = "order_status_history", indexes = {
+        @Index(name = "ix_order_status_history_order", columnList = "order_id, id")
+})
+public class OrderStatusHistoryRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "from_status", nullable = false, length = 16)
+    private String fromStatus;
+
+    @Column(name = "to_status", nullable = false, length = 16)
+    private String toStatus;
+
+    /** Время перехода, мс с эпохи */
+    @Column(name = "changed_at", nullable = false)
+    private Long changedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+
+    public Long getChangedAt() {
+        return changedAt;
+    }
+}
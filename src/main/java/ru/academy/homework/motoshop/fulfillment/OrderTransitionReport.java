@@ -0,0 +1,68 @@
+package ru.academy.homework.motoshop.fulfillment;
+
+import java.util.List;
+
+/**
+ * Итог пакетного перехода. Результаты идут в порядке первого упоминания заказа в запросе.
+ */
+public class OrderTransitionReport {
+
+    private final int updated;
+    private final int unchanged;
+    private final int notFound;
+    private final int rejected;
+    private final int releasedUnits;
+    private final long elapsedMs;
+    private final List<OrderTransitionResult> results;
+
+    OrderTransitionReport(List<OrderTransitionResult> results, int releasedUnits, long elapsedMs) {
+        int updatedCount = 0;
+        int unchangedCount = 0;
+        int notFoundCount = 0;
+        int rejectedCount = 0;
+        for (OrderTransitionResult result : results) {
+            switch (result.getStatus()) {
+                case UPDATED -> updatedCount++;
+                case UNCHANGED -> unchangedCount++;
+                case NOT_FOUND -> notFoundCount++;
+                case REJECTED -> rejectedCount++;
+            }
+        }
+        this.updated = updatedCount;
+        this.unchanged = unchangedCount;
+        this.notFound = notFoundCount;
+        this.rejected = rejectedCount;
+        this.releasedUnits = releasedUnits;
+        this.elapsedMs = elapsedMs;
+        this.results = results;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    /** Единиц товара, возвращенных на склад отменой */
+    public int getReleasedUnits() {
+        return releasedUnits;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public List<OrderTransitionResult> getResults() {
+        return results;
+    }
+}
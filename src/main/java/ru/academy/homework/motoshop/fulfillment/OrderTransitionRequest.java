@@ -0,0 +1,44 @@
+package ru.academy.homework.motoshop.fulfillment;
+
+import ru.academy.homework.motoshop.entity.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Перевод пакета заказов в один статус.
+ *
+ * <pre>
+ * {"status": "SHIPPED", "orderIds": [101, 102, 103]}
+ * </pre>
+ */
+public class OrderTransitionRequest {
+
+    private OrderStatus status;
+
+    private List<Long> orderIds = new ArrayList<>();
+
+    public OrderTransitionRequest() {
+    }
+
+    public OrderTransitionRequest(OrderStatus status, List<Long> orderIds) {
+        this.status = status;
+        this.orderIds = orderIds;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.academy.homework.motoshop.fulfillment;
+
+import ru.academy.homework.motoshop.entity.OrderStatus;
+
+/**
+ * Результат перехода одного заказа. {@code previousStatus} — статус до пакета.
+ */
+public class OrderTransitionResult {
+
+    public enum Status {
+        UPDATED,
+        /** Заказ уже в целевом статусе; повтор пакета ничего не меняет */
+        UNCHANGED,
+        NOT_FOUND,
+        REJECTED
+    }
+
+    private final Long orderId;
+    private final Status status;
+    private final OrderStatus previousStatus;
+    private final String message;
+
+    OrderTransitionResult(Long orderId, Status status, OrderStatus previousStatus, String message) {
+        this.orderId = orderId;
+        this.status = status;
+        this.previousStatus = previousStatus;
+        this.message = message;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
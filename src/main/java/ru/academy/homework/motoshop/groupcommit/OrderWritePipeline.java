@@ -0,0 +1,326 @@
+package ru.academy.homework.motoshop.groupcommit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PessimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.academy.homework.motoshop.datasource.ReadYourWritesTracker;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Групповая фиксация записей заказов: одновременные оформления собираются в пакет и
+ * выполняются одной транзакцией вместо транзакции на каждый заказ.
+ *
+ * <p>Писатели ({@code writers}) берут из очереди первую заявку и добирают пакет до
+ * {@code max-batch} заявок, ожидая не дольше {@code max-wait-ms}. Пока пакет фиксируется,
+ * следующие заявки копятся в очереди, поэтому под нагрузкой пакеты растут сами; больший
+ * {@code max-wait-ms} поднимает пропускную способность ценой задержки одиночного заказа.</p>
+ *
+ * <p>Каждая заявка выполняется в общей транзакции, после нее контекст персистентности
+ * сбрасывается и очищается, чтобы следующая заявка читала свежие остатки. Если заявка
+ * падает, транзакция откатывается, заявка получает свою ошибку, а остальные выполняются
+ * заново следующей транзакцией. Сбой фиксации, который нельзя приписать одной заявке,
+ * переводит пакет на отдельные транзакции.</p>
+ *
+ * <p>Заказ резервирует свои товары по возрастанию id, но два пакета из разных заказов
+ * могут захватить строки в разном порядке и встать во взаимоблокировку. Ошибка блокировки
+ * (взаимоблокировка, таймаут, SQLState 40001, ошибки SQL Server 1205 и 1222) — сбой пакета,
+ * а не заявки: пакет целиком повторяется до {@value #MAX_LOCK_RETRIES} раз, затем заявки
+ * выполняются по одной с теми же повторами.</p>
+ *
+ * <p>Если конвейер выключен, еще не запущен или очередь переполнена, заявка выполняется
+ * своей транзакцией в потоке вызывающего.</p>
+ */
+@Component
+public class OrderWritePipeline implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderWritePipeline.class);
+
+    static final int MAX_LOCK_RETRIES = 3;
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final int writers;
+    private final BlockingQueue<Submission<?>> queue;
+
+    private final DistributionSummary batchSize;
+    private final Counter retries;
+    private final Counter lockConflicts;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @Autowired
+    public OrderWritePipeline(TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${motoshop.orders.group-commit.enabled:true}") boolean enabled,
+                              @Value("${motoshop.orders.group-commit.max-batch:32}") int maxBatch,
+                              @Value("${motoshop.orders.group-commit.max-wait-ms:2}") long maxWaitMs,
+                              @Value("${motoshop.orders.group-commit.writers:2}") int writers,
+                              @Value("${motoshop.orders.group-commit.queue-capacity:1024}") int queueCapacity) {
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.writers = Math.max(1, writers);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = DistributionSummary.builder("motoshop.orders.group-commit.batch")
+                .description("Заказов в одной транзакции групповой фиксации")
+                .register(meterRegistry);
+        this.retries = Counter.builder("motoshop.orders.group-commit.retries")
+                .description("Повторы пакета после ошибки одной из заявок")
+                .register(meterRegistry);
+        this.lockConflicts = Counter.builder("motoshop.orders.group-commit.lock-conflicts")
+                .description("Повторы транзакции после взаимоблокировки или таймаута блокировки")
+                .register(meterRegistry);
+    }
+
+    /** Запись текущего пользователя для чтения своих записей; есть, только если включена реплика */
+    @Autowired(required = false)
+    public void setReadYourWritesTracker(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "order-group-commit-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < writers; i++) {
+            executor.execute(this::drainLoop);
+        }
+        logger.info("Order group commit started: writers={}, maxBatch={}, maxWaitMs={}",
+                writers, maxBatch, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+    }
+
+    /**
+     * Выполняет запись в транзакции (возможно, общей с другими заказами) и ждет ее фиксации.
+     * Исключения записи пробрасываются вызывающему как есть.
+     *
+     * @throws IllegalStateException если приложение останавливается и заявка не была выполнена
+     */
+    public <T> T write(Supplier<T> work) {
+        T result;
+        Submission<T> submission = new Submission<>(work);
+        if (running && queue.offer(submission)) {
+            // Остановка между проверкой и постановкой в очередь: destroy() мог уже разобрать очередь
+            if (!running && queue.remove(submission)) {
+                throw new IllegalStateException("Приложение останавливается");
+            }
+            try {
+                result = submission.future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        } else {
+            result = executeAlone(work);
+        }
+        if (readYourWritesTracker != null) {
+            readYourWritesTracker.recordCurrentUserWrite();
+        }
+        return result;
+    }
+
+    private void drainLoop() {
+        List<Submission<?>> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Submission<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Order group commit failed", e);
+                failAll(batch, e);
+            } finally {
+                // Заявки, взятые из очереди, но не выполненные (остановка посреди пакета), не должны ждать вечно
+                failAll(batch, new IllegalStateException("Приложение останавливается"));
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Submission<?>> batch) {
+        batchSize.record(batch.size());
+        List<Submission<?>> pending = new ArrayList<>(batch);
+        int lockRetries = 0;
+        while (pending.size() > 1) {
+            Failure failure = new Failure();
+            try {
+                List<Object> results = transactionTemplate.execute(status -> runAll(pending, failure));
+                for (int i = 0; i < pending.size(); i++) {
+                    pending.get(i).complete(results.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (isLockFailure(e)) {
+                    // Строки захвачены другим пакетом: виноват порядок блокировок, а не заявка
+                    lockConflicts.increment();
+                    if (lockRetries++ < MAX_LOCK_RETRIES) {
+                        continue;
+                    }
+                    logger.warn("Order group commit of {} orders kept failing on locks, retrying one by one: {}",
+                            pending.size(), e.getMessage());
+                    break;
+                }
+                if (failure.submission == null) {
+                    // Ошибка фиксации, а не заявки: каждая выполняется своей транзакцией
+                    logger.warn("Order group commit of {} orders failed, retrying one by one: {}",
+                            pending.size(), e.getMessage());
+                    break;
+                }
+                failure.submission.future.completeExceptionally(failure.error);
+                pending.remove(failure.submission);
+                retries.increment();
+            }
+        }
+        for (Submission<?> submission : pending) {
+            try {
+                submission.complete(executeAlone(submission.work));
+            } catch (RuntimeException e) {
+                submission.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /** Отдельная транзакция с повтором после ошибки блокировки */
+    private <T> T executeAlone(Supplier<T> work) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_LOCK_RETRIES || !isLockFailure(e)) {
+                    throw e;
+                }
+                lockConflicts.increment();
+            }
+        }
+    }
+
+    static boolean isLockFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PessimisticLockingFailureException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && ("40001".equals(sql.getSQLState())
+                    || sql.getErrorCode() == 1205 || sql.getErrorCode() == 1222)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void failAll(List<Submission<?>> batch, Throwable error) {
+        for (Submission<?> submission : batch) {
+            submission.future.completeExceptionally(error);
+        }
+    }
+
+    private List<Object> runAll(List<Submission<?>> pending, Failure failure) {
+        List<Object> results = new ArrayList<>(pending.size());
+        for (Submission<?> submission : pending) {
+            try {
+                results.add(submission.work.get());
+                entityManager.flush();
+                entityManager.clear();
+            } catch (RuntimeException e) {
+                failure.submission = submission;
+                failure.error = e;
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        List<Submission<?>> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Submission<?> submission : left) {
+            submission.future.completeExceptionally(new IllegalStateException("Приложение останавливается"));
+        }
+    }
+
+    private static final class Submission<T> {
+        final Supplier<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Submission(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+
+    private static final class Failure {
+        Submission<?> submission;
+        RuntimeException error;
+    }
+}
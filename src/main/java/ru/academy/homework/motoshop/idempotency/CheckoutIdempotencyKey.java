@@ -0,0 +1,51 @@
+package ru.academy.homework.motoshop.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Строка таблицы ключей идемпотентности оформления заказа. Пишется через JDBC в транзакции
+ * заказа ({@link IdempotentCheckoutService}); сущность нужна, чтобы таблица создавалась
+ * вместе со схемой.
+ */
+@Entity
+@Table(name = "checkout_idempotency_keys", indexes = {
+        @Index(name = "ix_checkout_idempotency_expires", columnList = "expires_at")
+})
+public class CheckoutIdempotencyKey {
+
+    /** Ключ клиента с префиксом id пользователя: {@code 42:3f2c...} */
+    @Id
+    @Column(name = "idem_key", length = 96)
+    private String key;
+
+    /** Первые 8 байт SHA-256 содержимого запроса */
+    @Column(name = "request_hash", nullable = false)
+    private Long requestHash;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    /** Срок хранения, мс с эпохи */
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    public String getKey() {
+        return key;
+    }
+
+    public Long getRequestHash() {
+        return requestHash;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.academy.homework.motoshop.idempotency;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import ru.academy.homework.motoshop.entity.Order;
+import ru.academy.homework.motoshop.entity.OrderStatus;
+import ru.academy.homework.motoshop.money.Money;
+
+/**
+ * Ответ на оформление заказа. {@code replayed} — ответ взят из хранилища ключей
+ * идемпотентности, заказ повторно не оформлялся.
+ */
+public record CheckoutResult(Long orderId, OrderStatus status, Money totalAmount, int items,
+                             @JsonIgnore boolean replayed) {
+
+    public static CheckoutResult of(Order order) {
+        return new CheckoutResult(order.getId(), order.getStatus(), order.getTotalAmount(),
+                order.getOrderItems().size(), false);
+    }
+
+    CheckoutResult asReplay() {
+        return new CheckoutResult(orderId, status, totalAmount, items, true);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.academy.homework.motoshop.idempotency;
+
+/**
+ * Ключ идемпотентности уже занят: запрос с ним еще выполняется или ключ использован
+ * для другого содержимого.
+ */
+public class IdempotencyConflictException extends IllegalStateException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
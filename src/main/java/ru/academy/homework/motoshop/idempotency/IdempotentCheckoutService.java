@@ -0,0 +1,258 @@
+package ru.academy.homework.motoshop.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.academy.homework.motoshop.entity.OrderStatus;
+import ru.academy.homework.motoshop.groupcommit.OrderWritePipeline;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+import ru.academy.homework.motoshop.services.OrderService;
+
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Оформление заказа с ключом идемпотентности ({@code Idempotency-Key}): повтор запроса
+ * после таймаута возвращает уже оформленный заказ, а не создает второй и не списывает
+ * остатки повторно.
+ *
+ * <p>Заказ пишется через {@link OrderWritePipeline}, возможно, в одной транзакции с
+ * другими заказами. Выполненные ключи живут в ограниченном кэше узла (поиск по хэшу,
+ * без обращения к базе) и в таблице {@code checkout_idempotency_keys}: ключ, хэш
+ * запроса, id заказа и срок хранения. Строка таблицы вставляется в транзакции заказа,
+ * поэтому первая попытка не делает предварительного чтения: если ключ уже записан другим
+ * узлом или до перезапуска, вставка нарушает первичный ключ, заказ этой попытки
+ * откатывается вместе с остатками, и ответ собирается по сохраненному id заказа.
+ * Одновременная попытка с тем же ключом на другом узле ждет блокировку ключа до
+ * фиксации первой.</p>
+ *
+ * <p>Неуспешное оформление (нет товара, неверный запрос) не запоминается: повтор
+ * выполняется заново. Истекшие строки удаляются фоновой задачей.</p>
+ */
+@Service
+public class IdempotentCheckoutService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentCheckoutService.class);
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO checkout_idempotency_keys (idem_key, request_hash, order_id, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_SQL =
+            "SELECT request_hash, order_id, expires_at FROM checkout_idempotency_keys WHERE idem_key = ?";
+
+    private static final String DELETE_EXPIRED_KEY_SQL =
+            "DELETE FROM checkout_idempotency_keys WHERE idem_key = ? AND expires_at <= ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM checkout_idempotency_keys WHERE expires_at <= ?";
+
+    private static final String SUMMARY_SQL =
+            "SELECT o.status, o.total_amount, (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id) " +
+                    "FROM orders o WHERE o.id = ?";
+
+    private final OrderService orderService;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderWritePipeline writePipeline;
+    private final MeterRegistry meterRegistry;
+    private final long ttlMs;
+    private final long purgeIntervalMs;
+
+    private final Cache<String, StoredCheckout> completed;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public IdempotentCheckoutService(OrderService orderService,
+                                     JdbcTemplate jdbcTemplate,
+                                     OrderWritePipeline writePipeline,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${motoshop.checkout.idempotency.ttl-ms:86400000}") long ttlMs,
+                                     @Value("${motoshop.checkout.idempotency.max-entries:100000}") long maxEntries,
+                                     @Value("${motoshop.checkout.idempotency.purge-interval-ms:600000}") long purgeIntervalMs) {
+        this.orderService = orderService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writePipeline = writePipeline;
+        this.meterRegistry = meterRegistry;
+        this.ttlMs = ttlMs;
+        this.purgeIntervalMs = purgeIntervalMs;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkout-idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Оформляет заказ; с ключом — не более одного раза на ключ пользователя.
+     *
+     * @param idempotencyKey ключ клиента или {@code null}
+     * @throws IllegalArgumentException      если ключ некорректен или запрос неверен
+     * @throws IdempotencyConflictException  если запрос с ключом еще выполняется или ключ
+     *                                       использован для другого содержимого
+     */
+    public CheckoutResult checkout(Long userId, String idempotencyKey, CheckoutRequest request) {
+        if (idempotencyKey == null) {
+            return writePipeline.write(() -> CheckoutResult.of(orderService.checkout(userId, request)));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Ключ идемпотентности должен содержать от 1 до "
+                    + MAX_KEY_LENGTH + " символов");
+        }
+
+        String key = userId + ":" + idempotencyKey;
+        long requestHash = requestHash(request);
+
+        StoredCheckout stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+        if (!inFlight.add(key)) {
+            count("conflict");
+            throw new IdempotencyConflictException("Запрос с этим ключом идемпотентности уже выполняется");
+        }
+        try {
+            return execute(userId, key, requestHash, request);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private CheckoutResult execute(Long userId, String key, long requestHash, CheckoutRequest request) {
+        for (int attempt = 0; ; attempt++) {
+            long expiresAt = System.currentTimeMillis() + ttlMs;
+            try {
+                CheckoutResult result = writePipeline.write(() -> {
+                    CheckoutResult placed = CheckoutResult.of(orderService.checkout(userId, request));
+                    jdbcTemplate.update(INSERT_SQL, key, requestHash, placed.orderId(), expiresAt);
+                    return placed;
+                });
+                completed.put(key, new StoredCheckout(requestHash, result.orderId(), expiresAt, result));
+                count("executed");
+                return result;
+            } catch (DuplicateKeyException e) {
+                // Ключ уже записан: заказ этой попытки откатился, ответ берется из таблицы
+                StoredCheckout stored = load(key);
+                long now = System.currentTimeMillis();
+                if (stored != null && stored.expiresAt() > now) {
+                    completed.put(key, stored);
+                    return replay(stored, requestHash);
+                }
+                if (attempt > 0) {
+                    throw new IdempotencyConflictException("Ключ идемпотентности занят");
+                }
+                // Строка истекла, но еще не удалена фоновой задачей
+                jdbcTemplate.update(DELETE_EXPIRED_KEY_SQL, key, now);
+            }
+        }
+    }
+
+    private CheckoutResult replay(StoredCheckout stored, long requestHash) {
+        if (stored.requestHash() != requestHash) {
+            count("conflict");
+            throw new IdempotencyConflictException("Ключ идемпотентности уже использован для другого запроса");
+        }
+        CheckoutResult result = stored.result();
+        if (result == null) {
+            List<CheckoutResult> rows = jdbcTemplate.query(SUMMARY_SQL, (rs, rowNum) -> new CheckoutResult(
+                    stored.orderId(), OrderStatus.valueOf(rs.getString(1)), Money.of(rs.getBigDecimal(2).setScale(Money.SCALE, RoundingMode.HALF_UP)),
+                    rs.getInt(3), false), stored.orderId());
+            if (rows.isEmpty()) {
+                throw new IdempotencyConflictException("Заказ, оформленный с этим ключом, не найден");
+            }
+            result = rows.get(0);
+        }
+        count("replayed");
+        return result.asReplay();
+    }
+
+    private StoredCheckout load(String key) {
+        List<StoredCheckout> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) ->
+                new StoredCheckout(rs.getLong(1), rs.getLong(2), rs.getLong(3), null), key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    void purgeExpired() {
+        try {
+            int deleted = jdbcTemplate.update(PURGE_SQL, System.currentTimeMillis());
+            if (deleted > 0) {
+                logger.debug("Purged {} expired checkout idempotency keys", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Checkout idempotency keys purge failed: {}", e.getMessage());
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("motoshop.checkout.idempotency", "outcome", outcome).increment();
+    }
+
+    /**
+     * Первые 8 байт SHA-256 содержимого запроса; повторы товара складываются, порядок
+     * позиций не важен.
+     */
+    static long requestHash(CheckoutRequest request) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CheckoutRequest.Item item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        StringBuilder canonical = new StringBuilder();
+        quantities.forEach((productId, quantity) -> canonical.append(productId).append('x').append(quantity).append(';'));
+        for (String field : new String[]{request.getShippingAddress(), request.getPhoneNumber(),
+                request.getCustomerName(), request.getCustomerEmail()}) {
+            canonical.append('\u0000').append(field != null ? field : "");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Выполненный ключ; {@code result} есть только у ответов, оформленных этим узлом */
+    private record StoredCheckout(long requestHash, long orderId, long expiresAt, CheckoutResult result) {
+    }
+}
@@ -0,0 +1,140 @@
+package ru.academy.homework.motoshop.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Потоковый разбор CSV (RFC 4180): поля в кавычках, экранирование {@code ""},
+ * переводы строк внутри кавычек. Первая строка — заголовок с именами колонок.
+ * Разделитель ({@code ,} или {@code ;}) определяется по заголовку.
+ */
+public class CsvProductRowReader implements ProductRowReader {
+
+    private static final int HEADER_PEEK_LIMIT = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final List<String> header;
+
+    /** Номер физической строки файла, с которой начинается следующая запись */
+    private long lineNumber = 1;
+
+    public CsvProductRowReader(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        this.delimiter = detectDelimiter();
+
+        List<String> columns = readRecord();
+        if (columns == null) {
+            throw new IOException("Файл импорта пуст");
+        }
+        // Excel сохраняет UTF-8 с BOM, который прилипает к первой колонке
+        if (!columns.isEmpty() && columns.get(0).startsWith("\uFEFF")) {
+            columns.set(0, columns.get(0).substring(1));
+        }
+        this.header = columns;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        while (true) {
+            long recordLine = lineNumber;
+            List<String> values = readRecord();
+            if (values == null) {
+                return null;
+            }
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue; // пустая строка
+            }
+
+            if (values.size() != header.size()) {
+                ProductImportRow row = new ProductImportRow(recordLine);
+                row.setError("Ожидалось колонок: " + header.size() + ", получено: " + values.size());
+                return row;
+            }
+
+            Map<String, String> fields = new LinkedHashMap<>(header.size() * 2);
+            for (int i = 0; i < header.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return ProductImportRow.fromFields(recordLine, fields);
+        }
+    }
+
+    private char detectDelimiter() throws IOException {
+        reader.mark(HEADER_PEEK_LIMIT);
+        String firstLine = reader.readLine();
+        reader.reset();
+
+        if (firstLine == null) {
+            return ',';
+        }
+        long semicolons = firstLine.chars().filter(c -> c == ';').count();
+        long commas = firstLine.chars().filter(c -> c == ',').count();
+        return semicolons > commas ? ';' : ',';
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>(header != null ? header.size() : 16);
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean readAnything = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            readAnything = true;
+            char ch = (char) c;
+
+            if (inQuotes) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+
+        if (inQuotes) {
+            throw new IOException("Незакрытые кавычки в записи, начинающейся на строке " + lineNumber);
+        }
+        if (!readAnything) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.academy.homework.motoshop.importer;
+
+import java.util.Locale;
+
+/**
+ * Формат файла каталога поставщика.
+ */
+public enum ImportFormat {
+    CSV,
+    JSON;
+
+    /**
+     * Определяет формат по расширению имени файла. JSON Lines ({@code .jsonl}, {@code .ndjson})
+     * разбирается тем же читателем, что и JSON.
+     *
+     * @param fileName имя файла, может быть null
+     * @return формат; CSV, если расширение не распознано
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            return CSV;
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".json") || lower.endsWith(".jsonl") || lower.endsWith(".ndjson")) {
+            return JSON;
+        }
+        return CSV;
+    }
+}
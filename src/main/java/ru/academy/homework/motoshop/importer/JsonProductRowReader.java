@@ -0,0 +1,74 @@
+package ru.academy.homework.motoshop.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Потоковый разбор JSON: либо массив объектов верхнего уровня, либо
+ * последовательность объектов (JSON Lines). В памяти одновременно находится
+ * только один объект.
+ */
+public class JsonProductRowReader implements ProductRowReader {
+
+    private final JsonParser parser;
+    private boolean pendingObject;
+    private long rowNumber;
+
+    public JsonProductRowReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(input);
+        JsonToken first = parser.nextToken();
+        if (first != null && first != JsonToken.START_ARRAY && first != JsonToken.START_OBJECT) {
+            throw new IOException("Ожидался массив объектов или JSON Lines, найдено: " + first);
+        }
+        // В JSON Lines парсер уже стоит на START_OBJECT первой записи
+        this.pendingObject = first == JsonToken.START_OBJECT;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        JsonToken token = pendingObject ? JsonToken.START_OBJECT : parser.nextToken();
+        pendingObject = false;
+
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        rowNumber++;
+
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            ProductImportRow row = new ProductImportRow(rowNumber);
+            row.setError("Ожидался объект, найдено: " + token);
+            return row;
+        }
+
+        JsonNode node = parser.readValueAsTree();
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            JsonNode value = field.getValue();
+            if (value.isObject() && "category".equalsIgnoreCase(field.getKey())) {
+                // Вложенная категория в формате REST API: {"id": 1} или {"name": "Шлем"}
+                if (value.hasNonNull("id")) {
+                    fields.put("categoryId", value.get("id").asText());
+                }
+                if (value.hasNonNull("name")) {
+                    fields.put("categoryName", value.get("name").asText());
+                }
+            } else if (!value.isNull() && value.isValueNode()) {
+                fields.put(field.getKey(), value.asText());
+            }
+        }
+        return ProductImportRow.fromFields(rowNumber, fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
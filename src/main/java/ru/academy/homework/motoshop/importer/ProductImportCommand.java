@@ -0,0 +1,71 @@
+package ru.academy.homework.motoshop.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Импорт каталога из командной строки, без HTTP и ограничений на размер загрузки.
+ *
+ * <pre>
+ * java -jar MotoShop.war --spring.main.web-application-type=none \
+ *      --motoshop.import.file=supplier.csv [--motoshop.import.batch-size=1000] \
+ *      [--motoshop.import.report-file=import-report.json]
+ * </pre>
+ *
+ * <p>Запускается после инициализаторов, поэтому категории уже существуют.</p>
+ */
+@Component
+@Order(10)
+@ConditionalOnProperty(name = "motoshop.import.file")
+public class ProductImportCommand implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportCommand.class);
+
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${motoshop.import.file}")
+    private String file;
+
+    @Value("${motoshop.import.report-file:}")
+    private String reportFile;
+
+    @Autowired
+    public ProductImportCommand(ProductImportService productImportService, ObjectMapper objectMapper) {
+        this.productImportService = productImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path path = Paths.get(file);
+        logger.info("Importing product catalog from {}", path.toAbsolutePath());
+
+        ProductImportReport report;
+        try (InputStream input = Files.newInputStream(path)) {
+            report = productImportService.importProducts(input,
+                    ImportFormat.fromFileName(path.getFileName().toString()), null);
+        }
+
+        if (StringUtils.hasText(reportFile)) {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(Paths.get(reportFile).toFile(), report);
+            logger.info("Import report written to {}", reportFile);
+        }
+        for (ProductImportReport.RowError error : report.getErrors()) {
+            logger.warn("Row {} (sku={}): {}", error.getRow(), error.getSku(), error.getMessage());
+        }
+    }
+}
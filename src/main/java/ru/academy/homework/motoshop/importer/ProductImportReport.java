@@ -0,0 +1,118 @@
+package ru.academy.homework.motoshop.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог (или промежуточное состояние) импорта каталога.
+ *
+ * <p>Список ошибок ограничен {@link #MAX_ERRORS} записями, чтобы файл, в котором
+ * ошибочна каждая строка, не съел память отчетом; общее число ошибок хранится в {@code failed}.</p>
+ */
+public class ProductImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private long processed;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private long elapsedMs;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+
+    void recordInserted(long count) {
+        inserted += count;
+        processed += count;
+    }
+
+    void recordUpdated(long count) {
+        updated += count;
+        processed += count;
+    }
+
+    void recordFailure(long rowNumber, String sku, String message) {
+        failed++;
+        processed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(rowNumber, sku, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMs > 0 ? processed * 1000.0 / elapsedMs : 0.0;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductImportReport{" +
+                "processed=" + processed +
+                ", inserted=" + inserted +
+                ", updated=" + updated +
+                ", failed=" + failed +
+                ", elapsedMs=" + elapsedMs +
+                ", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond()) +
+                '}';
+    }
+
+    /**
+     * Ошибка в конкретной строке файла.
+     */
+    public static class RowError {
+        private final long row;
+        private final String sku;
+        private final String message;
+
+        public RowError(long row, String sku, String message) {
+            this.row = row;
+            this.sku = sku;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
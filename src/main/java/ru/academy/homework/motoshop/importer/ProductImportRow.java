@@ -0,0 +1,221 @@
+package ru.academy.homework.motoshop.importer;
+
+import ru.academy.homework.motoshop.money.Money;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Одна строка файла импорта после разбора.
+ *
+ * <p>Ошибки преобразования значений не прерывают импорт: строка получает текст ошибки
+ * в {@link #getError()} и попадает в отчет, а разбор файла продолжается.</p>
+ */
+public class ProductImportRow {
+
+    private final long rowNumber;
+    private String sku;
+    private String name;
+    private String description;
+    private Money price;
+    private Integer stockQuantity;
+    private String categoryName;
+    private Long categoryId;
+    private String brand;
+    private String model;
+    private String imageUrl;
+    private Boolean available;
+    private String error;
+
+    public ProductImportRow(long rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * Создает строку импорта из пар "колонка → значение".
+     * Имена колонок нечувствительны к регистру, поддерживаются варианты camelCase и snake_case.
+     *
+     * @param rowNumber номер строки в файле (для отчета об ошибках)
+     * @param fields значения колонок
+     * @return строка импорта, возможно с ошибкой разбора
+     */
+    public static ProductImportRow fromFields(long rowNumber, Map<String, String> fields) {
+        ProductImportRow row = new ProductImportRow(rowNumber);
+        for (Map.Entry<String, String> entry : fields.entrySet()) {
+            String value = trimToNull(entry.getValue());
+            if (value == null || entry.getKey() == null) {
+                continue;
+            }
+            try {
+                row.apply(normalize(entry.getKey()), value);
+            } catch (IllegalArgumentException e) {
+                // В том числе цена с долями копейки
+                row.error = "Некорректное значение в колонке '" + entry.getKey() + "': " + value;
+                return row;
+            }
+        }
+        return row;
+    }
+
+    private void apply(String column, String value) {
+        switch (column) {
+            case "sku":
+            case "article":
+                sku = value;
+                break;
+            case "name":
+                name = value;
+                break;
+            case "description":
+                description = value;
+                break;
+            case "price":
+                price = Money.valueOf(value);
+                break;
+            case "stockquantity":
+            case "stock":
+            case "quantity":
+                stockQuantity = Integer.parseInt(value);
+                break;
+            case "category":
+            case "categoryname":
+                categoryName = value;
+                break;
+            case "categoryid":
+                categoryId = Long.parseLong(value);
+                break;
+            case "brand":
+                brand = value;
+                break;
+            case "model":
+                model = value;
+                break;
+            case "imageurl":
+            case "image":
+                imageUrl = value;
+                break;
+            case "available":
+                available = parseBoolean(value);
+                break;
+            default:
+                // Неизвестные колонки поставщика игнорируем
+                break;
+        }
+    }
+
+    /**
+     * Проверяет обязательные поля. Вызывается после разбора, если ошибки разбора нет.
+     *
+     * @return текст ошибки или null, если строка корректна
+     */
+    public String validate() {
+        if (error != null) {
+            return error;
+        }
+        if (sku == null) {
+            return "Артикул (sku) обязателен";
+        }
+        if (sku.length() > 64) {
+            return "Артикул длиннее 64 символов";
+        }
+        if (name == null) {
+            return "Название продукта обязательно";
+        }
+        if (price == null || !price.isPositive()) {
+            return "Цена должна быть положительной";
+        }
+        if (stockQuantity != null && stockQuantity < 0) {
+            return "Количество не может быть отрицательным";
+        }
+        return null;
+    }
+
+    private static String normalize(String column) {
+        return column.replace("_", "").replace("-", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "1":
+            case "yes":
+            case "да":
+                return true;
+            case "false":
+            case "0":
+            case "no":
+            case "нет":
+                return false;
+            default:
+                throw new NumberFormatException(value);
+        }
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,351 @@
+package ru.academy.homework.motoshop.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.academy.homework.motoshop.cache.SecondLevelCacheInvalidator;
+import ru.academy.homework.motoshop.model.Product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Массовый импорт каталога поставщика.
+ *
+ * <p>Файл читается потоково, строки копятся в пакет заданного размера, и каждый пакет
+ * записывается одной транзакцией: один запрос на поиск уже существующих артикулов и
+ * два пакетных JDBC-выражения (INSERT для новых, UPDATE для существующих). Категории
+ * один раз загружаются в память в начале импорта.</p>
+ *
+ * <p>Ключ импорта — артикул ({@code sku}), уникальный в таблице (см.
+ * {@link ProductSkuIndexInitializer}). Если между поиском существующих артикулов и вставкой
+ * тот же артикул записала параллельная транзакция (другой импорт, правка товара), вставка
+ * нарушает уникальный индекс и пакет повторяется с новым поиском: такая строка обновляется,
+ * а не дублируется. Для существующего товара данные поставщика
+ * (название, описание, цена, бренд, модель, изображение) заменяются, а остаток,
+ * категория и доступность меняются, только если указаны в файле.</p>
+ *
+ * <p>Если пакет не записался (например, из-за нарушения ограничения в одной строке),
+ * его строки повторяются по одной, чтобы ошибка попала в отчет с номером строки,
+ * а остальные строки пакета были сохранены.</p>
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    /** SQL Server ограничивает запрос 2100 параметрами, пакет ищется одним IN (...) */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private static final long PROGRESS_LOG_INTERVAL = 10_000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (sku, name, description, price, stock_quantity, category_id, " +
+                    "brand, model, image_url, available, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE products SET name = ?, description = ?, price = ?, " +
+                    "stock_quantity = COALESCE(?, stock_quantity), " +
+                    "category_id = COALESCE(?, category_id), " +
+                    "brand = ?, model = ?, image_url = ?, " +
+                    "available = COALESCE(?, available), " +
+                    "updated_at = ? " +
+                    "WHERE sku = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @Value("${motoshop.import.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Autowired
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Вытеснение измененных строк из кэша второго уровня; в тестах без контекста отсутствует */
+    @Autowired(required = false)
+    public void setCacheInvalidator(SecondLevelCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    /**
+     * Импортирует каталог из потока.
+     *
+     * @param input поток файла; закрывается вызывающей стороной
+     * @param format формат файла
+     * @param batchSize размер пакета записи или null для значения из настроек
+     * @return отчет об импорте
+     * @throws IOException если файл не удалось прочитать или его структура нарушена
+     */
+    public ProductImportReport importProducts(InputStream input, ImportFormat format, Integer batchSize)
+            throws IOException {
+        int size = Math.max(1, Math.min(batchSize != null ? batchSize : defaultBatchSize, MAX_BATCH_SIZE));
+        CategoryLookup categories = loadCategories();
+
+        ProductImportReport report = new ProductImportReport();
+        long start = System.nanoTime();
+        long nextProgressLog = PROGRESS_LOG_INTERVAL;
+
+        logger.info("Starting product import: format={}, batchSize={}", format, size);
+
+        try (ProductRowReader reader = openReader(input, format)) {
+            // Повтор артикула внутри пакета: побеждает последняя строка файла
+            Map<String, ProductImportRow> batch = new LinkedHashMap<>(size * 2);
+
+            ProductImportRow row;
+            while ((row = reader.next()) != null) {
+                String error = row.validate();
+                if (error == null) {
+                    error = categories.resolve(row);
+                }
+                if (error != null) {
+                    report.recordFailure(row.getRowNumber(), row.getSku(), error);
+                    continue;
+                }
+
+                ProductImportRow replaced = batch.put(row.getSku(), row);
+                if (replaced != null) {
+                    report.recordFailure(replaced.getRowNumber(), replaced.getSku(),
+                            "Артикул повторяется, строка заменена строкой " + row.getRowNumber());
+                }
+
+                if (batch.size() >= size) {
+                    flush(batch.values(), report);
+                    batch.clear();
+                }
+
+                if (report.getProcessed() >= nextProgressLog) {
+                    report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+                    logger.info("Import progress: {}", report);
+                    nextProgressLog += PROGRESS_LOG_INTERVAL;
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch.values(), report);
+            }
+        } finally {
+            // Id новых и обновленных товаров не известны, поэтому сбрасывается весь регион товаров;
+            // сообщение нужно и после одних вставок, чтобы новые товары увидели другие узлы и подписчики канала
+            if (cacheInvalidator != null && report.getInserted() + report.getUpdated() > 0) {
+                cacheInvalidator.invalidateAll(Product.class);
+            }
+        }
+
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        logger.info("Product import completed: {}", report);
+        return report;
+    }
+
+    private ProductRowReader openReader(InputStream input, ImportFormat format) throws IOException {
+        switch (format) {
+            case JSON:
+                return new JsonProductRowReader(input, objectMapper);
+            case CSV:
+            default:
+                return new CsvProductRowReader(input);
+        }
+    }
+
+    private void flush(Collection<ProductImportRow> rows, ProductImportReport report) {
+        try {
+            int[] counts = upsertWithRetry(rows);
+            report.recordInserted(counts[0]);
+            report.recordUpdated(counts[1]);
+        } catch (DataAccessException e) {
+            logger.warn("Import batch of {} rows failed, retrying row by row: {}", rows.size(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+
+            for (ProductImportRow row : rows) {
+                try {
+                    int[] counts = upsertWithRetry(List.of(row));
+                    report.recordInserted(counts[0]);
+                    report.recordUpdated(counts[1]);
+                } catch (DataAccessException rowError) {
+                    report.recordFailure(row.getRowNumber(), row.getSku(),
+                            NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    /** Пакет своей транзакцией; после гонки за артикул — еще раз с новым поиском существующих */
+    private int[] upsertWithRetry(Collection<ProductImportRow> rows) {
+        try {
+            return transactionTemplate.execute(status -> upsert(rows));
+        } catch (DuplicateKeyException e) {
+            logger.debug("SKU inserted concurrently, retrying batch of {} rows", rows.size());
+            return transactionTemplate.execute(status -> upsert(rows));
+        }
+    }
+
+    /**
+     * Записывает пакет строк в текущей транзакции.
+     *
+     * @return массив из двух элементов: число вставленных и число обновленных строк
+     */
+    private int[] upsert(Collection<ProductImportRow> rows) {
+        Set<String> existingSkus = findExistingSkus(rows);
+        List<ProductImportRow> inserts = new ArrayList<>(rows.size());
+        List<ProductImportRow> updates = new ArrayList<>(existingSkus.size());
+        for (ProductImportRow row : rows) {
+            (existingSkus.contains(row.getSku()) ? updates : inserts).add(row);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, row) -> {
+                int stock = row.getStockQuantity() != null ? row.getStockQuantity() : 0;
+                ps.setString(1, row.getSku());
+                ps.setString(2, row.getName());
+                ps.setString(3, row.getDescription());
+                ps.setBigDecimal(4, row.getPrice().getAmount());
+                ps.setInt(5, stock);
+                setNullableLong(ps, 6, row.getCategoryId());
+                ps.setString(7, row.getBrand());
+                ps.setString(8, row.getModel());
+                ps.setString(9, row.getImageUrl());
+                ps.setBoolean(10, row.getAvailable() != null ? row.getAvailable() : stock > 0);
+                ps.setTimestamp(11, now);
+                ps.setTimestamp(12, now);
+            });
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, row) -> {
+                ps.setString(1, row.getName());
+                ps.setString(2, row.getDescription());
+                ps.setBigDecimal(3, row.getPrice().getAmount());
+                setNullableInt(ps, 4, row.getStockQuantity());
+                setNullableLong(ps, 5, row.getCategoryId());
+                ps.setString(6, row.getBrand());
+                ps.setString(7, row.getModel());
+                ps.setString(8, row.getImageUrl());
+                setNullableBoolean(ps, 9, resolveAvailability(row));
+                ps.setTimestamp(10, now);
+                ps.setString(11, row.getSku());
+            });
+        }
+
+        return new int[]{inserts.size(), updates.size()};
+    }
+
+    private Set<String> findExistingSkus(Collection<ProductImportRow> rows) {
+        List<String> skus = new ArrayList<>(rows.size());
+        for (ProductImportRow row : rows) {
+            skus.add(row.getSku());
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT sku FROM products WHERE sku IN (:skus)",
+                Map.of("skus", skus), String.class));
+    }
+
+    private Boolean resolveAvailability(ProductImportRow row) {
+        if (row.getAvailable() != null) {
+            return row.getAvailable();
+        }
+        // Как и в ProductServiceImpl: доступность следует за количеством
+        return row.getStockQuantity() != null ? row.getStockQuantity() > 0 : null;
+    }
+
+    private CategoryLookup loadCategories() {
+        CategoryLookup lookup = new CategoryLookup();
+        jdbcTemplate.query("SELECT id, name FROM categories", rs -> {
+            lookup.add(rs.getLong(1), rs.getString(2));
+        });
+        return lookup;
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setNullableBoolean(PreparedStatement ps, int index, Boolean value) throws SQLException {
+        if (value != null) {
+            ps.setBoolean(index, value);
+        } else {
+            ps.setNull(index, Types.BIT);
+        }
+    }
+
+    /**
+     * Справочник категорий, загруженный один раз на импорт.
+     */
+    private static class CategoryLookup {
+        private final Map<String, Long> idsByName = new HashMap<>();
+        private final Set<Long> ids = new HashSet<>();
+
+        void add(long id, String name) {
+            ids.add(id);
+            if (name != null) {
+                idsByName.put(name.trim().toLowerCase(Locale.ROOT), id);
+            }
+        }
+
+        /**
+         * Проставляет строке идентификатор категории.
+         *
+         * @return текст ошибки или null
+         */
+        String resolve(ProductImportRow row) {
+            if (row.getCategoryId() != null) {
+                return ids.contains(row.getCategoryId()) ? null : "Категория не найдена с id: " + row.getCategoryId();
+            }
+            if (row.getCategoryName() != null) {
+                Long id = idsByName.get(row.getCategoryName().toLowerCase(Locale.ROOT));
+                if (id == null) {
+                    return "Категория не найдена: " + row.getCategoryName();
+                }
+                row.setCategoryId(id);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.academy.homework.motoshop.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Потоковый источник строк импорта.
+ *
+ * <p>Реализации читают файл по одной записи и не держат его целиком в памяти,
+ * поэтому расход памяти не зависит от размера каталога.</p>
+ */
+public interface ProductRowReader extends Closeable {
+
+    /**
+     * Читает следующую строку.
+     *
+     * @return строка импорта или null, если файл закончился
+     * @throws IOException при ошибке чтения или нарушении структуры файла,
+     *                     после которой продолжить разбор невозможно
+     */
+    ProductImportRow next() throws IOException;
+}
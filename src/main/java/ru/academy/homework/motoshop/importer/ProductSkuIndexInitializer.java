@@ -0,0 +1,70 @@
+package ru.academy.homework.motoshop.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Уникальный индекс артикула {@code ux_products_sku}, на который опирается upsert импорта.
+ *
+ * <p>Товары, заведенные вручную, артикула не имеют, поэтому на SQL Server индекс
+ * фильтрованный ({@code WHERE sku IS NOT NULL}): обычный уникальный индекс там допускает
+ * только один NULL. Такой индекс не описывается аннотациями JPA, поэтому создается здесь,
+ * после того как Hibernate обновил схему. H2 в режиме SQL Server ведет себя так же, но
+ * фильтров не знает, поэтому там индекс объявляется с {@code NULLS DISTINCT}.</p>
+ *
+ * <p>Если в таблице уже есть повторяющиеся артикулы, индекс не создается и в журнал
+ * пишется ошибка: дубликаты нужно убрать вручную.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ProductSkuIndexInitializer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSkuIndexInitializer.class);
+
+    static final String INDEX_NAME = "ux_products_sku";
+
+    private static final String SQL_SERVER_DDL =
+            "IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = '" + INDEX_NAME + "' " +
+                    "AND object_id = OBJECT_ID('products')) " +
+                    "CREATE UNIQUE INDEX " + INDEX_NAME + " ON products (sku) WHERE sku IS NOT NULL";
+
+    private static final String H2_DDL =
+            "CREATE UNIQUE NULLS DISTINCT INDEX IF NOT EXISTS " + INDEX_NAME + " ON products (sku)";
+
+    private static final String DEFAULT_DDL =
+            "CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_NAME + " ON products (sku)";
+
+    /** Прежний неуникальный индекс, который заменяет уникальный */
+    private static final String SQL_SERVER_DROP_OLD = "DROP INDEX IF EXISTS ix_products_sku ON products";
+
+    private static final String DEFAULT_DROP_OLD = "DROP INDEX IF EXISTS ix_products_sku";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProductSkuIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        boolean sqlServer = database != null && database.startsWith("Microsoft SQL Server");
+        try {
+            jdbcTemplate.execute(sqlServer ? SQL_SERVER_DDL : "H2".equals(database) ? H2_DDL : DEFAULT_DDL);
+            jdbcTemplate.execute(sqlServer ? SQL_SERVER_DROP_OLD : DEFAULT_DROP_OLD);
+        } catch (DataAccessException e) {
+            logger.error("Unique index {} was not created, remove duplicate product SKUs: {}", INDEX_NAME,
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+}
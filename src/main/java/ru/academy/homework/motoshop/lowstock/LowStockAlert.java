@@ -0,0 +1,13 @@
+package ru.academy.homework.motoshop.lowstock;
+
+/**
+ * Товар пересек порог остатка: публикуется как событие Spring и рассылается подписчикам
+ * {@link LowStockMonitor#subscribe}.
+ *
+ * @param previousLevel уровень до изменения; {@code null}, если товар только появился
+ * @param level         уровень после изменения; {@code null}, если товар удален
+ * @param changedAt     время обнаружения, мс с эпохи
+ */
+public record LowStockAlert(Long productId, String name, int stock,
+                            StockLevel previousLevel, StockLevel level, long changedAt) {
+}
@@ -0,0 +1,7 @@
+package ru.academy.homework.motoshop.lowstock;
+
+/**
+ * Товар из списка наблюдения с остатком на момент последнего обновления индекса.
+ */
+public record LowStockItem(Long productId, String name, int stock, StockLevel level) {
+}
@@ -0,0 +1,307 @@
+package ru.academy.homework.motoshop.lowstock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.academy.homework.motoshop.cache.CacheInvalidation;
+import ru.academy.homework.motoshop.cache.CacheInvalidationChannel;
+import ru.academy.homework.motoshop.model.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Список наблюдения за остатками: индекс товаров в памяти, упорядоченный по остатку,
+ * вместо запроса к таблице на каждый вызов списка или счетчика.
+ *
+ * <p>Индекс загружается целиком один раз после старта, дальше обновляется по сообщениям
+ * {@link CacheInvalidationChannel} о товарах: любое изменение остатка (заказ, пакетное
+ * обновление, отмена, импорт, правка через сессию) уже отправляет такое сообщение после
+ * коммита, и оно доходит до каждого узла, включая отправителя. Измененные id копятся и
+ * перечитываются фоновой задачей раз в {@code refresh-interval-ms} одним запросом на
+ * пачку; сброс всего региона перечитывает таблицу целиком.</p>
+ *
+ * <p>Когда товар пересекает порог {@code low-threshold} или заканчивается, публикуется
+ * {@link LowStockAlert}: событием Spring и подписчикам {@link #subscribe}. Первичная
+ * загрузка событий не порождает.</p>
+ */
+@Component
+public class LowStockMonitor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockMonitor.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String SELECT_ALL_SQL =
+            "SELECT id, name, stock_quantity, available FROM products";
+
+    private static final String SELECT_BY_IDS_SQL =
+            "SELECT id, name, stock_quantity, available FROM products WHERE id IN (:ids)";
+
+    private static final Comparator<Entry> BY_STOCK =
+            Comparator.comparingInt(Entry::stock).thenComparingLong(Entry::id);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int threshold;
+    private final long refreshIntervalMs;
+    private final String productEntityName = Product.class.getName();
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> byStock = new ConcurrentSkipListSet<>(BY_STOCK);
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private final List<Consumer<LowStockAlert>> subscribers = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean ready;
+
+    @Autowired
+    public LowStockMonitor(NamedParameterJdbcTemplate jdbcTemplate,
+                           CacheInvalidationChannel invalidationChannel,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${motoshop.stock.low-threshold:10}") int threshold,
+                           @Value("${motoshop.stock.low.refresh-interval-ms:200}") long refreshIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.threshold = threshold;
+        this.refreshIntervalMs = refreshIntervalMs;
+
+        invalidationChannel.subscribe(this::onInvalidation);
+
+        Gauge.builder("motoshop.stock.low", this, monitor -> monitor.countLowStock(monitor.threshold))
+                .description("Товаров в продаже с остатком не выше порога")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Индекс загружен; до этого вызывающие читают таблицу сами */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public void subscribe(Consumer<LowStockAlert> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Товары в продаже с остатком не выше {@code threshold}, по возрастанию остатка.
+     */
+    public List<LowStockItem> findLowStock(int threshold) {
+        List<LowStockItem> items = new ArrayList<>();
+        for (Entry entry : byStock.headSet(Entry.bound(threshold, Long.MAX_VALUE), true)) {
+            if (entry.available()) {
+                items.add(toItem(entry));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Число товаров в продаже с остатком от 1 до {@code threshold}.
+     */
+    public long countLowStock(int threshold) {
+        if (threshold < 1) {
+            return 0;
+        }
+        return byStock.subSet(Entry.bound(1, Long.MIN_VALUE), true, Entry.bound(threshold, Long.MAX_VALUE), true)
+                .stream()
+                .filter(Entry::available)
+                .count();
+    }
+
+    /** Товары ниже порога и закончившиеся — начальное состояние для подписчиков */
+    public List<LowStockItem> snapshot() {
+        List<LowStockItem> items = new ArrayList<>();
+        for (Entry entry : byStock.headSet(Entry.bound(threshold, Long.MAX_VALUE), true)) {
+            if (entry.level(threshold) != StockLevel.OK) {
+                items.add(toItem(entry));
+            }
+        }
+        return items;
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (!productEntityName.equals(invalidation.getEntityName())) {
+            return;
+        }
+        if (invalidation.isWholeRegion()) {
+            reloadRequested.set(true);
+        } else {
+            dirtyIds.addAll(invalidation.getIds());
+        }
+    }
+
+    /** Применяет накопленные изменения; вызывается фоновой задачей */
+    synchronized void refresh() {
+        try {
+            if (!ready) {
+                dirtyIds.clear();
+                reloadRequested.set(false);
+                reloadAll(false);
+                ready = true;
+                logger.info("Low-stock monitor loaded {} products, threshold={}", byId.size(), threshold);
+                return;
+            }
+            if (reloadRequested.getAndSet(false)) {
+                dirtyIds.clear();
+                reloadAll(true);
+                return;
+            }
+            if (!dirtyIds.isEmpty()) {
+                List<Long> ids = new ArrayList<>(dirtyIds);
+                dirtyIds.removeAll(ids);
+                reload(ids);
+            }
+        } catch (DataAccessException e) {
+            // Изменения не потеряны: полная перезагрузка на следующем проходе
+            reloadRequested.set(ready);
+            logger.warn("Low-stock monitor refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void reloadAll(boolean notify) {
+        Map<Long, Entry> loaded = new HashMap<>(Math.max(16, byId.size() * 2));
+        jdbcTemplate.query(SELECT_ALL_SQL, rowCollector(loaded));
+        for (Long id : new ArrayList<>(byId.keySet())) {
+            if (!loaded.containsKey(id)) {
+                remove(id, notify);
+            }
+        }
+        for (Entry entry : loaded.values()) {
+            put(entry, notify);
+        }
+    }
+
+    private void reload(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            Map<Long, Entry> loaded = new HashMap<>(chunk.size() * 2);
+            jdbcTemplate.query(SELECT_BY_IDS_SQL, new MapSqlParameterSource("ids", chunk), rowCollector(loaded));
+            Set<Long> missing = new HashSet<>(chunk);
+            missing.removeAll(loaded.keySet());
+            for (Long id : missing) {
+                remove(id, true);
+            }
+            for (Entry entry : loaded.values()) {
+                put(entry, true);
+            }
+        }
+    }
+
+    private static RowCallbackHandler rowCollector(Map<Long, Entry> loaded) {
+        return rs -> {
+            int stock = rs.getInt(3);
+            if (!rs.wasNull()) {
+                loaded.put(rs.getLong(1), new Entry(rs.getLong(1), rs.getString(2), stock, rs.getBoolean(4)));
+            }
+        };
+    }
+
+    private void put(Entry entry, boolean notify) {
+        Entry previous = byId.put(entry.id(), entry);
+        if (entry.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            byStock.remove(previous);
+        }
+        byStock.add(entry);
+
+        StockLevel previousLevel = previous != null ? previous.level(threshold) : null;
+        StockLevel level = entry.level(threshold);
+        if (notify && level != previousLevel && !(previousLevel == null && level == StockLevel.OK)) {
+            alert(new LowStockAlert(entry.id(), entry.name(), entry.stock(), previousLevel, level,
+                    System.currentTimeMillis()));
+        }
+    }
+
+    private void remove(Long id, boolean notify) {
+        Entry previous = byId.remove(id);
+        if (previous == null) {
+            return;
+        }
+        byStock.remove(previous);
+        StockLevel previousLevel = previous.level(threshold);
+        if (notify && previousLevel != StockLevel.OK) {
+            alert(new LowStockAlert(id, previous.name(), previous.stock(), previousLevel, null,
+                    System.currentTimeMillis()));
+        }
+    }
+
+    private void alert(LowStockAlert alert) {
+        logger.debug("Low-stock alert: {}", alert);
+        eventPublisher.publishEvent(alert);
+        for (Consumer<LowStockAlert> subscriber : subscribers) {
+            try {
+                subscriber.accept(alert);
+            } catch (RuntimeException e) {
+                logger.warn("Low-stock subscriber failed: {}", alert, e);
+            }
+        }
+    }
+
+    private LowStockItem toItem(Entry entry) {
+        return new LowStockItem(entry.id(), entry.name(), entry.stock(), entry.level(threshold));
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Строка индекса; порядок в {@link #byStock} — по остатку, затем по id */
+    private record Entry(long id, String name, int stock, boolean available) {
+
+        static Entry bound(int stock, long id) {
+            return new Entry(id, null, stock, false);
+        }
+
+        StockLevel level(int threshold) {
+            return StockLevel.of(stock, available, threshold);
+        }
+    }
+}
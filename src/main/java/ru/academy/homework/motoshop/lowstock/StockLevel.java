@@ -0,0 +1,20 @@
+package ru.academy.homework.motoshop.lowstock;
+
+/**
+ * Уровень остатка товара относительно порога {@code motoshop.stock.low-threshold}.
+ */
+public enum StockLevel {
+    /** Остаток выше порога или товар снят с продажи вручную */
+    OK,
+    /** Остаток от 1 до порога включительно */
+    LOW,
+    /** Остаток закончился */
+    OUT_OF_STOCK;
+
+    static StockLevel of(int stock, boolean available, int threshold) {
+        if (stock <= 0) {
+            return OUT_OF_STOCK;
+        }
+        return available && stock <= threshold ? LOW : OK;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.academy.homework.motoshop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики приложения, дополняющие стандартные метрики Spring Boot.
+ *
+ * <p>Что публикуется на {@code /actuator/prometheus}:</p>
+ * <ul>
+ *   <li>{@code http.server.requests} — задержка эндпоинтов по URI (стандартная метрика MVC);</li>
+ *   <li>{@code motoshop.repository.invocations} / {@code motoshop.repository.rows} —
+ *       время и число строк по методам репозиториев;</li>
+ *   <li>{@code motoshop.jwt.verify} — проверка подписи JWT (см. {@code JwtUtils});</li>
+ *   <li>{@code motoshop.password.encoder} — BCrypt (см. {@link TimedPasswordEncoder});</li>
+ *   <li>{@code hikaricp.connections.acquire} — ожидание соединения из пула.</li>
+ * </ul>
+ *
+ * <p>Эндпоинт доступен только с ролью ADMIN (см. {@code SecurityConfig}), публичен лишь
+ * {@code /actuator/health}.</p>
+ *
+ * <p>Перцентили считаются на стороне приложения по HDR-гистограммам Micrometer,
+ * список перцентилей задается в application.properties.</p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new RepositoryMetricsPostProcessor(registry);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.academy.homework.motoshop.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * Замеряет время каждого вызова метода репозитория и число строк в результате.
+ *
+ * <p>Метры создаются один раз на метод и кешируются, поэтому на горячем пути остаются
+ * только {@link System#nanoTime()} и запись в гистограмму. Число строк считается по
+ * результату: размер коллекции или страницы, 0/1 для {@code Optional} и сущности,
+ * число измененных строк для {@link Modifying}-запросов. Для {@code count}/{@code exists}
+ * и потоков {@code Stream} строки не учитываются.</p>
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    static final String TIMER_NAME = "motoshop.repository.invocations";
+    static final String ROWS_NAME = "motoshop.repository.rows";
+
+    private final Supplier<MeterRegistry> registry;
+    private final String repository;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    RepositoryMetricsInterceptor(Supplier<MeterRegistry> registry, String repository) {
+        this.registry = registry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        MethodMeters methodMeters = meters.computeIfAbsent(method, this::createMeters);
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodMeters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            long rows = countRows(result, methodMeters.modifying);
+            if (rows >= 0) {
+                methodMeters.rows.record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            methodMeters.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private MethodMeters createMeters(Method method) {
+        MeterRegistry meterRegistry = registry.get();
+        String name = method.getName();
+        Timer success = Timer.builder(TIMER_NAME)
+                .description("Время выполнения методов репозиториев")
+                .tags("repository", repository, "method", name, "outcome", "SUCCESS")
+                .register(meterRegistry);
+        Timer error = Timer.builder(TIMER_NAME)
+                .description("Время выполнения методов репозиториев")
+                .tags("repository", repository, "method", name, "outcome", "ERROR")
+                .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder(ROWS_NAME)
+                .description("Число строк, прочитанных или измененных методом репозитория")
+                .baseUnit("rows")
+                .tags("repository", repository, "method", name)
+                .register(meterRegistry);
+        return new MethodMeters(success, error, rows, method.isAnnotationPresent(Modifying.class));
+    }
+
+    private static long countRows(Object result, boolean modifying) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number) {
+            return modifying ? ((Number) result).longValue() : -1;
+        }
+        if (result instanceof Boolean || result instanceof BaseStream) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static final class MethodMeters {
+        final Timer success;
+        final Timer error;
+        final DistributionSummary rows;
+        final boolean modifying;
+
+        MethodMeters(Timer success, Timer error, DistributionSummary rows, boolean modifying) {
+            this.success = success;
+            this.error = error;
+            this.rows = rows;
+            this.modifying = modifying;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.academy.homework.motoshop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+/**
+ * Добавляет {@link RepositoryMetricsInterceptor} в прокси каждого репозитория Spring Data.
+ *
+ * <p>Реестр метрик запрашивается при первом вызове, а не при создании постпроцессора,
+ * чтобы не инициализировать его раньше остальных бинов.</p>
+ */
+class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final Supplier<MeterRegistry> registry;
+
+    RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = SingletonSupplier.of(registry::getObject);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryMetricsInterceptor(registry,
+                                    repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+}
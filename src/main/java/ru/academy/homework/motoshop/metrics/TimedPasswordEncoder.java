@@ -0,0 +1,59 @@
+package ru.academy.homework.motoshop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PasswordEncoder} с замером времени хеширования и проверки пароля.
+ *
+ * <p>BCrypt намеренно медленный (десятки миллисекунд на вызов) и выполняется на каждом
+ * входе, поэтому его время — заметная часть задержки {@code /api/auth/signin}.</p>
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private static final String TIMER_NAME = "motoshop.password.encoder";
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        String algorithm = delegate.getClass().getSimpleName();
+        this.encodeTimer = timer(registry, algorithm, "encode", "SUCCESS");
+        this.matchTimer = timer(registry, algorithm, "matches", "MATCH");
+        this.mismatchTimer = timer(registry, algorithm, "matches", "MISMATCH");
+    }
+
+    private static Timer timer(MeterRegistry registry, String algorithm, String operation, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Время хеширования и проверки паролей")
+                .tags("encoder", algorithm, "operation", operation, "outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        String encoded = delegate.encode(rawPassword);
+        encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
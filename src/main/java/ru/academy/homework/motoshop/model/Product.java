@@ -1,8 +1,13 @@
 package ru.academy.homework.motoshop.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.academy.homework.motoshop.cache.CacheRegions;
 import ru.academy.homework.motoshop.entity.OrderItem;
+import ru.academy.homework.motoshop.money.Money;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,7 +15,10 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+// Уникальный фильтрованный индекс артикула создает ProductSkuIndexInitializer
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCTS)
 public class Product {
 
     @Id
@@ -20,11 +28,15 @@ public class Product {
     @Column(nullable = false)
     private String name;
 
+    /** Артикул поставщика, ключ для массового импорта */
+    @Column(name = "sku", length = 64)
+    private String sku;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @Column(nullable = false)
-    private Double price;
+    @Column(nullable = false, precision = 19, scale = Money.SCALE)
+    private Money price;
 
     @Column(name = "stock_quantity")
     private Integer stockQuantity = 0;
@@ -47,6 +59,7 @@ public class Product {
     private Boolean available = true;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
     private List<OrderItem> orderItems = new ArrayList<>();
 
     @Column(name = "created_at")
@@ -70,7 +83,7 @@ public class Product {
     public Product() {
     }
 
-    public Product(String name, String description, Double price, Integer stockQuantity, Category category) {
+    public Product(String name, String description, Money price, Integer stockQuantity, Category category) {
         this.name = name;
         this.description = description;
         this.price = price;
@@ -111,6 +124,14 @@ public class Product {
         this.name = name;
     }
 
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -119,11 +140,11 @@ public class Product {
         this.description = description;
     }
 
-    public Double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
@@ -3,7 +3,16 @@ package ru.academy.homework.motoshop.model;
 import jakarta.persistence.*;
 import ru.academy.homework.motoshop.entity.User;
 
+import java.time.LocalDateTime;
+
+/**
+ * Отзыв о товаре. Связи ленивые: списки отзывов читаются проекциями
+ * ({@code ReviewRepository#findViewsByProductId}), а рейтинг товара накапливается отдельно.
+ */
 @Entity
+@Table(name = "review", indexes = {
+        @Index(name = "ix_review_product", columnList = "product_id, id")
+})
 public class Review {
 
     @Id
@@ -14,14 +23,22 @@ public class Review {
 
     private String comment;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
     public long getId() {
         return id;
     }
@@ -61,4 +78,8 @@ public class Review {
     public void setUser(User user) {
         this.user = user;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
 }
@@ -0,0 +1,120 @@
+package ru.academy.homework.motoshop.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Денежная сумма в рублях, хранимая как целое число копеек.
+ *
+ * <p>Сложение и умножение на количество — арифметика над {@code long} с проверкой
+ * переполнения, без двоичной погрешности {@code double} и без промежуточных объектов
+ * {@link BigDecimal}. В JSON и в базе ({@link MoneyConverter}) сумма — десятичное число
+ * с двумя знаками, поэтому формат API и колонки {@code DECIMAL(19, 2)} не меняются.
+ * Суммы с долями копейки отклоняются, а не округляются.</p>
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    /** Знаков после запятой: копейки */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * @throws IllegalArgumentException если в сумме есть доли копейки или она не помещается в long
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Некорректная денежная сумма: " + amount.toPlainString());
+        }
+    }
+
+    /**
+     * Сумма из десятичной записи {@code double} ({@code 0.1} — ровно 10 копеек).
+     */
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * Разбор строки из формы или параметра запроса; запятая допускается как разделитель.
+     * Используется конвертацией Spring при привязке параметров.
+     *
+     * @return {@code null} для пустой строки
+     * @throws IllegalArgumentException если строка не число или в ней доли копейки
+     */
+    public static Money valueOf(String amount) {
+        if (amount == null || amount.isBlank()) {
+            return null;
+        }
+        try {
+            return of(new BigDecimal(amount.trim().replace(',', '.')));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректная денежная сумма: " + amount);
+        }
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /** Сумма в рублях с двумя знаками; так она выглядит в JSON */
+    @JsonValue
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return minorUnits == ((Money) o).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /** Десятичная запись без экспоненты, например {@code 45990.00}; ее же принимает {@link #valueOf} */
+    @Override
+    public String toString() {
+        return getAmount().toPlainString();
+    }
+}
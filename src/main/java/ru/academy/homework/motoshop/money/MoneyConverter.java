@@ -0,0 +1,28 @@
+package ru.academy.homework.motoshop.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Хранение {@link Money} в колонке {@code DECIMAL(19, 2)}. Применяется ко всем атрибутам
+ * типа {@code Money}, в том числе к параметрам запросов, сравниваемым с ними.
+ *
+ * <p>Колонки, созданные до перехода на {@code Money} как {@code FLOAT}, читаются с
+ * округлением до копейки.</p>
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money != null ? money.getAmount() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return amount != null ? Money.of(amount.setScale(Money.SCALE, RoundingMode.HALF_UP)) : null;
+    }
+}
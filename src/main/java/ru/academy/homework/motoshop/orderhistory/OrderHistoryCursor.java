@@ -0,0 +1,36 @@
+package ru.academy.homework.motoshop.orderhistory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в истории заказов: дата и id последнего заказа страницы. Для клиента курсор
+ * непрозрачен — это base64url от {@code "<orderDate>|<id>"}.
+ */
+record OrderHistoryCursor(LocalDateTime orderDate, long id) {
+
+    static OrderHistoryCursor after(OrderSummaryView order) {
+        return new OrderHistoryCursor(order.getOrderDate(), order.getId());
+    }
+
+    String encode() {
+        String raw = orderDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException если курсор поврежден
+     */
+    static OrderHistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new OrderHistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор истории заказов");
+        }
+    }
+}
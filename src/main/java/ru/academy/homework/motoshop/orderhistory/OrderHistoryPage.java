@@ -0,0 +1,30 @@
+package ru.academy.homework.motoshop.orderhistory;
+
+import java.util.List;
+
+/**
+ * Страница истории заказов. {@code nextCursor} передается в следующий запрос;
+ * {@code null} — страница последняя.
+ */
+public class OrderHistoryPage {
+
+    private final List<OrderSummaryView> orders;
+    private final String nextCursor;
+
+    public OrderHistoryPage(List<OrderSummaryView> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderSummaryView> getOrders() {
+        return orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.academy.homework.motoshop.orderhistory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.academy.homework.motoshop.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * История заказов пользователя с пагинацией по ключу.
+ *
+ * <p>Страница — один запрос по индексу {@code (user_id, order_date DESC, id DESC)}:
+ * условие «строго после (order_date, id) последнего заказа предыдущей страницы» сразу
+ * попадает в нужное место индекса, поэтому глубокие страницы стоят столько же, сколько
+ * первая, в отличие от OFFSET. Строки всех заказов страницы читаются вторым запросом
+ * по {@code order_id IN (...)}, а не по одному на заказ.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderHistoryService {
+
+    private final OrderRepository orderRepository;
+
+    @Value("${motoshop.orders.history.max-page-size:100}")
+    private int maxPageSize = 100;
+
+    @Autowired
+    public OrderHistoryService(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * @param cursor       {@code nextCursor} предыдущей страницы или {@code null} для первой
+     * @param size         размер страницы, не больше {@code motoshop.orders.history.max-page-size}
+     * @param includeItems читать ли строки заказов
+     * @throws IllegalArgumentException если курсор поврежден или размер вне допустимого
+     */
+    public OrderHistoryPage getHistory(Long userId, String cursor, int size, boolean includeItems) {
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + maxPageSize);
+        }
+
+        // Лишняя строка показывает, есть ли следующая страница, без COUNT
+        Limit limit = Limit.of(size + 1);
+        List<OrderSummaryView> orders;
+        if (cursor == null || cursor.isEmpty()) {
+            orders = orderRepository.findHistory(userId, limit);
+        } else {
+            OrderHistoryCursor position = OrderHistoryCursor.decode(cursor);
+            orders = orderRepository.findHistoryAfter(userId, position.orderDate(), position.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = new ArrayList<>(orders.subList(0, size));
+            nextCursor = OrderHistoryCursor.after(orders.get(size - 1)).encode();
+        }
+
+        if (includeItems && !orders.isEmpty()) {
+            Map<Long, OrderSummaryView> byId = new HashMap<>(orders.size() * 2);
+            for (OrderSummaryView order : orders) {
+                byId.put(order.getId(), order);
+            }
+            for (OrderLineView line : orderRepository.findHistoryLines(byId.keySet())) {
+                byId.get(line.getOrderId()).getItems().add(line);
+            }
+        }
+        return new OrderHistoryPage(orders, nextCursor);
+    }
+}
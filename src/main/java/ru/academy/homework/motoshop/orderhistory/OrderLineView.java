@@ -0,0 +1,45 @@
+package ru.academy.homework.motoshop.orderhistory;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import ru.academy.homework.motoshop.money.Money;
+
+/**
+ * Строка заказа в истории. Читается запросом-проекцией сразу для всех заказов страницы.
+ */
+public class OrderLineView {
+
+    private final Long orderId;
+    private final Long productId;
+    private final String productName;
+    private final Integer quantity;
+    private final Money price;
+
+    public OrderLineView(Long orderId, Long productId, String productName, Integer quantity, Money price) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    @JsonIgnore
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+}
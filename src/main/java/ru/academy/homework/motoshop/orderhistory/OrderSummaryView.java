@@ -0,0 +1,56 @@
+package ru.academy.homework.motoshop.orderhistory;
+
+import ru.academy.homework.motoshop.entity.OrderStatus;
+import ru.academy.homework.motoshop.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заказ в истории пользователя: поля заказа и число строк из одного запроса-проекции,
+ * строки добавляются вторым запросом.
+ */
+public class OrderSummaryView {
+
+    private final Long id;
+    private final LocalDateTime orderDate;
+    private final OrderStatus status;
+    private final Money totalAmount;
+    private final long itemCount;
+    private final List<OrderLineView> items = new ArrayList<>();
+
+    public OrderSummaryView(Long id, LocalDateTime orderDate, OrderStatus status, Money totalAmount, Long itemCount) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.itemCount = itemCount != null ? itemCount : 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Money getTotalAmount() {
+        return totalAmount;
+    }
+
+    /** Число строк заказа */
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    /** Строки заказа; пусто, если страница запрошена без строк */
+    public List<OrderLineView> getItems() {
+        return items;
+    }
+}
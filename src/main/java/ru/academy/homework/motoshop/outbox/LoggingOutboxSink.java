@@ -0,0 +1,31 @@
+package ru.academy.homework.motoshop.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Приемник для отладки: пишет каждое событие в лог. Включается
+ * {@code motoshop.outbox.sinks.log.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "motoshop.outbox.sinks.log.enabled", havingValue = "true")
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            logger.info("Outbox event: {}", event);
+        }
+    }
+}
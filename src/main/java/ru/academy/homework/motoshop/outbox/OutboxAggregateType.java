@@ -0,0 +1,10 @@
+package ru.academy.homework.motoshop.outbox;
+
+/**
+ * Агрегаты, события которых пишутся в outbox. Порядок доставки гарантируется внутри
+ * одного агрегата (тип + id).
+ */
+public enum OutboxAggregateType {
+    PRODUCT,
+    ORDER
+}
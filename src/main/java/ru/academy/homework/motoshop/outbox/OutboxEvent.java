@@ -0,0 +1,84 @@
+package ru.academy.homework.motoshop.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Событие outbox, доставляемое подписчикам.
+ *
+ * <p>Внутри процесса событие публикуется как событие приложения, подписка —
+ * {@code @EventListener} с параметром {@code OutboxEvent}. Доставка «хотя бы один раз»:
+ * после сбоя пакет доставляется повторно, поэтому подписчик должен быть идемпотентным,
+ * {@link #getId()} для этого уникален и растет в пределах агрегата.</p>
+ */
+public final class OutboxEvent {
+
+    private final long id;
+    private final OutboxAggregateType aggregateType;
+    private final long aggregateId;
+    private final OutboxEventType type;
+    private final String payload;
+    private final long createdAt;
+
+    public OutboxEvent(long id, OutboxAggregateType aggregateType, long aggregateId, OutboxEventType type,
+                       String payload, long createdAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public OutboxAggregateType getAggregateType() {
+        return aggregateType;
+    }
+
+    public long getAggregateId() {
+        return aggregateId;
+    }
+
+    public OutboxEventType getType() {
+        return type;
+    }
+
+    /** JSON полезной нагрузки; null, если у события ее нет */
+    public String getPayload() {
+        return payload;
+    }
+
+    /** Время записи в транзакции изменения, мс с эпохи */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Читает полезную нагрузку как одну из записей {@link OutboxPayloads}.
+     *
+     * @throws IllegalStateException если JSON не соответствует типу
+     */
+    public <T> T payloadAs(Class<T> type, ObjectMapper objectMapper) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Некорректная полезная нагрузка события " + id + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", aggregate=" + aggregateType + ":" + aggregateId +
+                ", type=" + type +
+                ", payload=" + payload +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package ru.academy.homework.motoshop.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Строка таблицы {@code outbox}. Приложение пишет ее через JDBC в транзакции изменения
+ * ({@link OutboxWriter}) и читает в {@link OutboxRelay}; сущность нужна, чтобы таблица
+ * создавалась вместе со схемой.
+ */
+@Entity
+@Table(name = "outbox")
+public class OutboxEventRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    /** Компактный JSON события */
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    /** Время записи, мс с эпохи */
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+}
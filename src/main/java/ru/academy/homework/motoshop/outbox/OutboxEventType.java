@@ -0,0 +1,33 @@
+package ru.academy.homework.motoshop.outbox;
+
+/**
+ * Типы событий outbox. Изменения остатков относятся к агрегату товара, поэтому
+ * приходят подписчикам в одном потоке с изменениями карточки.
+ */
+public enum OutboxEventType {
+
+    /** Товар создан или изменен; полезная нагрузка — {@link OutboxPayloads.ProductSnapshot} */
+    PRODUCT_UPSERTED(OutboxAggregateType.PRODUCT),
+
+    /** Товар удален; без полезной нагрузки */
+    PRODUCT_DELETED(OutboxAggregateType.PRODUCT),
+
+    /** Изменился остаток; полезная нагрузка — {@link OutboxPayloads.StockLevel} с итоговым остатком */
+    STOCK_CHANGED(OutboxAggregateType.PRODUCT),
+
+    /** Оформлен заказ; полезная нагрузка — {@link OutboxPayloads.OrderPlaced} */
+    ORDER_CREATED(OutboxAggregateType.ORDER),
+
+    /** Заказ перешел в другой статус; полезная нагрузка — {@link OutboxPayloads.StatusChange} */
+    ORDER_STATUS_CHANGED(OutboxAggregateType.ORDER);
+
+    private final OutboxAggregateType aggregateType;
+
+    OutboxEventType(OutboxAggregateType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public OutboxAggregateType getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.academy.homework.motoshop.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ru.academy.homework.motoshop.entity.Order;
+import ru.academy.homework.motoshop.entity.OrderItem;
+import ru.academy.homework.motoshop.entity.OrderStatus;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Полезная нагрузка событий outbox. Записи сериализуются в JSON без null-полей;
+ * подписчики читают их через {@link OutboxEvent#payloadAs}.
+ */
+public final class OutboxPayloads {
+
+    private OutboxPayloads() {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ProductSnapshot(String name, String sku, Money price, Integer stock, Boolean available,
+                                  Long categoryId) {
+
+        public static ProductSnapshot of(Product product) {
+            return new ProductSnapshot(product.getName(), product.getSku(), product.getPrice(),
+                    product.getStockQuantity(), product.getAvailable(),
+                    product.getCategory() != null ? product.getCategory().getId() : null);
+        }
+    }
+
+    /**
+     * Итоговый остаток после изменения; {@code delta} указывается, если известна.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record StockLevel(Integer stock, Boolean available, Integer delta) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record OrderPlaced(Long userId, Money total, List<OrderLine> items) {
+
+        public static OrderPlaced of(Order order) {
+            List<OrderLine> lines = new ArrayList<>(order.getOrderItems().size());
+            for (OrderItem item : order.getOrderItems()) {
+                lines.add(new OrderLine(item.getProduct().getId(), item.getQuantity(), item.getPrice()));
+            }
+            return new OrderPlaced(order.getUser().getId(), order.getTotalAmount(), lines);
+        }
+    }
+
+    public record OrderLine(Long productId, Integer quantity, Money price) {
+    }
+
+    public record StatusChange(OrderStatus from, OrderStatus to) {
+    }
+}
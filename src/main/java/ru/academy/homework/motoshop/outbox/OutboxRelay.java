@@ -0,0 +1,306 @@
+package ru.academy.homework.motoshop.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор таблицы {@code outbox}: пакетами в порядке id события доставляются подписчикам
+ * внутри процесса ({@code @EventListener} с параметром {@link OutboxEvent}) и всем
+ * бинам {@link OutboxSink}, после чего строки удаляются.
+ *
+ * <p>Разбирает таблицу один узел — владелец аренды {@link OutboxRelayLease}; аренда
+ * продлевается каждым опросом и переходит к другому узлу, если владелец не продлевал ее
+ * {@code leaseMs}. Строки, зафиксированные позже строк с большими id, не теряются:
+ * читаются все оставшиеся строки, а удаляются только доставленные. Порядок внутри
+ * агрегата обеспечивает {@link OutboxWriter}, выдающий id под блокировкой строки агрегата.</p>
+ *
+ * <p>Сбой любого подписчика или приемника оставляет пакет в таблице, и он доставляется
+ * повторно с растущей паузой до {@code maxBackoffMs}. Метрики: {@code motoshop.outbox.lag}
+ * (возраст самого старого недоставленного события), {@code motoshop.outbox.events{stage=RELAYED}}
+ * (пропускная способность), {@code motoshop.outbox.latency} (от записи до доставки) и
+ * {@code motoshop.outbox.delivery} по приемникам.</p>
+ */
+@Component
+public class OutboxRelay implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final String IN_PROCESS = "in-process";
+
+    /** Пакетов за один опрос, чтобы поток успевал продлевать аренду и отдавать процессор */
+    private static final int MAX_BATCHES_PER_POLL = 20;
+
+    private static final String SELECT_SQL =
+            "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox ORDER BY id";
+    private static final String DELETE_SQL = "DELETE FROM outbox WHERE id IN (:ids)";
+
+    private static final String RENEW_LEASE_SQL =
+            "UPDATE outbox_relay_lease SET owner = ?, expires_at = ? WHERE id = 1 AND (owner = ? OR expires_at < ?)";
+    private static final String INSERT_LEASE_SQL =
+            "INSERT INTO outbox_relay_lease (id, owner, expires_at) VALUES (1, ?, ?)";
+    private static final String RELEASE_LEASE_SQL =
+            "UPDATE outbox_relay_lease SET expires_at = 0 WHERE id = 1 AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate pollTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OutboxSink> sinks;
+    private final MeterRegistry meterRegistry;
+    private final Counter relayedCounter;
+    private final Timer latencyTimer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final long leaseMs;
+    private final int batchSize;
+    private final long maxBackoffMs;
+
+    private volatile long lagMs;
+    private volatile boolean leader;
+
+    // Состояние повторов: только поток разбора
+    private int failures;
+    private long retryAt;
+
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public OutboxRelay(DataSource dataSource,
+                       ApplicationEventPublisher eventPublisher,
+                       ObjectProvider<OutboxSink> sinks,
+                       MeterRegistry meterRegistry,
+                       @Value("${motoshop.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${motoshop.outbox.relay.poll-interval-ms:200}") long pollIntervalMs,
+                       @Value("${motoshop.outbox.relay.lease-ms:10000}") long leaseMs,
+                       @Value("${motoshop.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${motoshop.outbox.relay.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.pollTemplate = new JdbcTemplate(dataSource);
+        this.pollTemplate.setMaxRows(batchSize);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.eventPublisher = eventPublisher;
+        this.sinks = sinks;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.leaseMs = leaseMs;
+        this.batchSize = batchSize;
+        this.maxBackoffMs = maxBackoffMs;
+
+        this.relayedCounter = Counter.builder("motoshop.outbox.events")
+                .description("События outbox")
+                .tag("stage", "RELAYED")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("motoshop.outbox.latency")
+                .description("Задержка от записи события до доставки")
+                .register(meterRegistry);
+        Gauge.builder("motoshop.outbox.lag", this, relay -> relay.lagMs)
+                .description("Возраст самого старого недоставленного события")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("motoshop.outbox.leader", this, relay -> relay.leader ? 1 : 0)
+                .description("Разбирает ли этот узел outbox")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Outbox relay is disabled on this node");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::pollQuietly, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Outbox relay started: node={}, pollIntervalMs={}, batchSize={}, sinks={}",
+                nodeId, pollIntervalMs, batchSize, sinks.stream().map(OutboxSink::getName).toList());
+    }
+
+    /**
+     * Один опрос: продление аренды и доставка пакетов, пока таблица не опустеет.
+     */
+    void poll() {
+        for (int round = 0; round < MAX_BATCHES_PER_POLL; round++) {
+            if (!acquireLease(System.currentTimeMillis())) {
+                lagMs = 0;
+                return;
+            }
+
+            List<Long> ids = new ArrayList<>(batchSize);
+            List<OutboxEvent> events = new ArrayList<>(batchSize);
+            pollTemplate.query(SELECT_SQL, rs -> {
+                long id = rs.getLong(1);
+                ids.add(id);
+                OutboxEvent event = toEvent(id, rs.getString(2), rs.getLong(3), rs.getString(4),
+                        rs.getString(5), rs.getLong(6));
+                if (event != null) {
+                    events.add(event);
+                }
+            });
+            if (ids.isEmpty()) {
+                lagMs = 0;
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            lagMs = events.isEmpty() ? 0 : now - events.get(0).getCreatedAt();
+            deliver(events);
+            namedParameterJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+
+            now = System.currentTimeMillis();
+            for (OutboxEvent event : events) {
+                latencyTimer.record(Math.max(0, now - event.getCreatedAt()), TimeUnit.MILLISECONDS);
+            }
+            relayedCounter.increment(events.size());
+
+            if (ids.size() < batchSize) {
+                lagMs = 0;
+                return;
+            }
+        }
+    }
+
+    private static OutboxEvent toEvent(long id, String aggregateType, long aggregateId, String eventType,
+                                       String payload, long createdAt) {
+        try {
+            return new OutboxEvent(id, OutboxAggregateType.valueOf(aggregateType), aggregateId,
+                    OutboxEventType.valueOf(eventType), payload, createdAt);
+        } catch (IllegalArgumentException e) {
+            // Событие неизвестного этой версии типа, например во время обновления узлов
+            logger.warn("Skipping outbox event {} of unknown type {}:{}", id, aggregateType, eventType);
+            return null;
+        }
+    }
+
+    private void deliver(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            for (OutboxEvent event : events) {
+                eventPublisher.publishEvent(event);
+            }
+        } catch (RuntimeException e) {
+            recordDelivery(IN_PROCESS, "FAILURE", start);
+            throw e;
+        }
+        recordDelivery(IN_PROCESS, "SUCCESS", start);
+
+        for (OutboxSink sink : sinks) {
+            start = System.nanoTime();
+            try {
+                sink.deliver(events);
+            } catch (Exception e) {
+                recordDelivery(sink.getName(), "FAILURE", start);
+                throw new IllegalStateException("Приемник outbox " + sink.getName() + " не принял пакет: "
+                        + e.getMessage(), e);
+            }
+            recordDelivery(sink.getName(), "SUCCESS", start);
+        }
+    }
+
+    private void recordDelivery(String sink, String outcome, long startNanos) {
+        Timer.builder("motoshop.outbox.delivery")
+                .description("Доставка пакета outbox подписчикам и приемникам")
+                .tag("sink", sink)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean acquireLease(long now) {
+        boolean acquired = jdbcTemplate.update(RENEW_LEASE_SQL, nodeId, now + leaseMs, nodeId, now) > 0;
+        if (!acquired) {
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_relay_lease", Integer.class);
+            if (rows != null && rows == 0) {
+                try {
+                    acquired = jdbcTemplate.update(INSERT_LEASE_SQL, nodeId, now + leaseMs) > 0;
+                } catch (DuplicateKeyException e) {
+                    // Другой узел создал строку аренды первым
+                    acquired = false;
+                }
+            }
+        }
+
+        if (acquired != leader) {
+            logger.info(acquired ? "Outbox relay lease acquired by node {}" : "Outbox relay lease lost by node {}",
+                    nodeId);
+        }
+        leader = acquired;
+        return acquired;
+    }
+
+    private void pollQuietly() {
+        long now = System.currentTimeMillis();
+        if (now < retryAt) {
+            return;
+        }
+        try {
+            poll();
+            failures = 0;
+        } catch (RuntimeException e) {
+            failures++;
+            long backoff = Math.min(maxBackoffMs, pollIntervalMs << Math.min(failures, 16));
+            retryAt = now + backoff;
+            logger.warn("Outbox relay failed (attempt {}), retrying in {} ms: {}", failures, backoff, e.getMessage());
+        }
+    }
+
+    /**
+     * @return возраст самого старого недоставленного события на последнем опросе, мс
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (leader) {
+            // Другой узел подхватит разбор сразу, не дожидаясь истечения аренды
+            try {
+                jdbcTemplate.update(RELEASE_LEASE_SQL, nodeId);
+            } catch (DataAccessException e) {
+                logger.warn("Outbox relay lease release failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.academy.homework.motoshop.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Единственная строка-аренда: разбирает {@code outbox} только узел, который ее держит,
+ * поэтому события одного агрегата не доставляются параллельно с разных узлов.
+ * Таблица создается вместе со схемой, {@link OutboxRelay} работает с ней через JDBC.
+ */
+@Entity
+@Table(name = "outbox_relay_lease")
+public class OutboxRelayLease {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "owner", nullable = false, length = 64)
+    private String owner;
+
+    /** Окончание аренды, мс с эпохи */
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+}
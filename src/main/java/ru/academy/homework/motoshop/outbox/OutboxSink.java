@@ -0,0 +1,19 @@
+package ru.academy.homework.motoshop.outbox;
+
+import java.util.List;
+
+/**
+ * Внешний получатель событий outbox (брокер, поисковый индекс, вебхук).
+ *
+ * <p>Любой бин этого типа подключается к {@link OutboxRelay} автоматически. Пакет
+ * передается в порядке id, и приемник обязан сохранить этот порядок хотя бы в пределах
+ * агрегата. Исключение означает, что пакет не доставлен: он будет передан повторно
+ * всем приемникам и подписчикам вместе со следующими событиями.</p>
+ */
+public interface OutboxSink {
+
+    /** Имя для логов и тега метрик */
+    String getName();
+
+    void deliver(List<OutboxEvent> events) throws Exception;
+}
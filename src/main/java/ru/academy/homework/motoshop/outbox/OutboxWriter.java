@@ -0,0 +1,119 @@
+package ru.academy.homework.motoshop.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запись событий в таблицу {@code outbox} в транзакции самого изменения.
+ *
+ * <p>{@link #append} только копит строки; перед фиксацией они вставляются одним пакетом
+ * JDBC в той же транзакции, поэтому событие появляется тогда и только тогда, когда
+ * фиксируется изменение. Перед вставкой сбрасывается контекст Hibernate: UPDATE строки
+ * товара выполняется раньше, и id события выдается уже под блокировкой этой строки.
+ * Так порядок id для одного агрегата совпадает с порядком фиксации, и {@link OutboxRelay}
+ * доставляет события агрегата по порядку.</p>
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Counter writtenCounter;
+
+    @Autowired
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                        EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.writtenCounter = Counter.builder("motoshop.outbox.events")
+                .description("События outbox")
+                .tag("stage", "WRITTEN")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Добавляет событие в текущую транзакцию.
+     *
+     * @param payload одна из записей {@link OutboxPayloads} или null
+     * @throws IllegalStateException если транзакции нет
+     */
+    public void append(OutboxEventType type, long aggregateId, Object payload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Событие outbox можно записать только в транзакции");
+        }
+
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.rows.add(new Object[]{type.getAggregateType().name(), aggregateId, type.name(),
+                serialize(payload), System.currentTimeMillis()});
+    }
+
+    private String serialize(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать событие outbox: " + e.getMessage(), e);
+        }
+    }
+
+    /** События одной транзакции */
+    private final class PendingEvents implements TransactionSynchronization {
+
+        final List<Object[]> rows = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                    .getResource(entityManagerFactory);
+            if (holder != null) {
+                holder.getEntityManager().flush();
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+
+        @Override
+        public void afterCommit() {
+            writtenCounter.increment(rows.size());
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(OutboxWriter.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.academy.homework.motoshop.payload.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+public class ReviewRequest {
+    @Min(1)
+    @Max(5)
+    private int rating;
+
+    @Size(max = 255)
+    private String comment;
+
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+}
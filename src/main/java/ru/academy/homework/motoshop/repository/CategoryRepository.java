@@ -1,9 +1,14 @@
 package ru.academy.homework.motoshop.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.academy.homework.motoshop.cache.CacheRegions;
 import org.springframework.stereotype.Repository;
 import ru.academy.homework.motoshop.model.Category;
+import ru.academy.homework.motoshop.view.CategoryView;
 
 import java.util.List;
 
@@ -13,8 +18,22 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     boolean existsByName(String name);
 
+    // Список категорий почти не меняется: результат берется из кэша запросов
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CATEGORY_QUERIES)})
+    List<Category> findAll();
+
     @Query("SELECT c FROM Category c JOIN FETCH c.products")
     List<Category> findCategoriesWithProducts();
 
     List<Category> findByNameContainingIgnoreCase(String name);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CATEGORY_QUERIES)})
+    @Query("SELECT new ru.academy.homework.motoshop.view.CategoryView(c.id, c.name, c.description, c.imageUrl) " +
+            "FROM Category c ORDER BY c.id")
+    List<CategoryView> findAllViews();
 }
@@ -1,10 +1,41 @@
 package ru.academy.homework.motoshop.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.academy.homework.motoshop.entity.Order;
+import ru.academy.homework.motoshop.orderhistory.OrderLineView;
+import ru.academy.homework.motoshop.orderhistory.OrderSummaryView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-}
\ No newline at end of file
+    /** Проекция истории заказов; порядок совпадает с индексом ix_orders_user_date */
+    String HISTORY_SELECT = "SELECT new ru.academy.homework.motoshop.orderhistory.OrderSummaryView(" +
+            "o.id, o.orderDate, o.status, o.totalAmount, " +
+            "(SELECT COUNT(i) FROM OrderItem i WHERE i.order.id = o.id)) " +
+            "FROM Order o WHERE o.user.id = :userId ";
+
+    String HISTORY_ORDER = "ORDER BY o.orderDate DESC, o.id DESC";
+
+    @Query(HISTORY_SELECT + HISTORY_ORDER)
+    List<OrderSummaryView> findHistory(@Param("userId") Long userId, Limit limit);
+
+    @Query(HISTORY_SELECT +
+            "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " + HISTORY_ORDER)
+    List<OrderSummaryView> findHistoryAfter(@Param("userId") Long userId,
+                                            @Param("orderDate") LocalDateTime orderDate,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    @Query("SELECT new ru.academy.homework.motoshop.orderhistory.OrderLineView(" +
+            "i.order.id, p.id, p.name, i.quantity, i.price) " +
+            "FROM OrderItem i JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.order.id, i.id")
+    List<OrderLineView> findHistoryLines(@Param("orderIds") Collection<Long> orderIds);
+}
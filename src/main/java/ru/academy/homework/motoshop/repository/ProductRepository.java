@@ -2,29 +2,47 @@ package ru.academy.homework.motoshop.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.academy.homework.motoshop.model.Category;
 import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.view.ProductCardView;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository {
 
     long count();
 
+    // Списки, которые REST отдает сущностями, читаются вместе с категорией:
+    // open-in-view выключен, и после выхода из сервиса ленивый прокси уже не загрузить
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Pageable pageable);
+
     // Базовые методы поиска
+    @EntityGraph(attributePaths = "category")
     List<Product> findByNameContainingIgnoreCase(String name);
-    List<Product> findByPriceBetween(Double minPrice, Double maxPrice);
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByPriceBetween(Money minPrice, Money maxPrice);
     List<Product> findByCategory(Category category);
+    @EntityGraph(attributePaths = "category")
     List<Product> findByAvailableTrue();
 
     // Методы для низкого запаса
+    @EntityGraph(attributePaths = "category")
     List<Product> findByStockQuantityLessThanEqualAndAvailableTrue(Integer threshold);
     List<Product> findByStockQuantityBetweenAndAvailableTrue(Integer min, Integer max);
 
@@ -36,6 +54,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Методы с пагинацией
     Page<Product> findByAvailableTrue(Pageable pageable);
     Page<Product> findByCategory(Category category, Pageable pageable);
+    @EntityGraph(attributePaths = "category")
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
@@ -47,8 +66,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
             "(:available IS NULL OR p.available = :available)")
     Page<Product> findWithFilters(@Param("name") String name,
-                                  @Param("minPrice") Double minPrice,
-                                  @Param("maxPrice") Double maxPrice,
+                                  @Param("minPrice") Money minPrice,
+                                  @Param("maxPrice") Money maxPrice,
                                   @Param("categoryId") Long categoryId,
                                   @Param("available") Boolean available,
                                   Pageable pageable);
@@ -66,4 +85,29 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     long countByCategoryId(Long categoryId);
 
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findWithCategoryByIdIn(Collection<Long> ids);
+
+    // Проекции для страниц (CatalogViewService), категория читается тем же запросом
+    String CARD_SELECT = "SELECT new ru.academy.homework.motoshop.view.ProductCardView(" +
+            "p.id, p.name, p.description, p.price, p.stockQuantity, p.available, " +
+            "p.brand, p.model, p.imageUrl, c.id, c.name, r.ratingCount, r.ratingSum) " +
+            "FROM Product p LEFT JOIN p.category c " +
+            "LEFT JOIN ProductRating r ON r.productId = p.id ";
+
+    @Query(CARD_SELECT + "ORDER BY p.id")
+    List<ProductCardView> findAllCards();
+
+    @Query(CARD_SELECT + "WHERE c.id = :categoryId ORDER BY p.id")
+    List<ProductCardView> findCardsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(CARD_SELECT + "WHERE p.id = :id")
+    Optional<ProductCardView> findCardById(@Param("id") Long id);
+
+    @Query(value = CARD_SELECT + "ORDER BY p.id",
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductCardView> findCards(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.academy.homework.motoshop.repository;
+
+/**
+ * Списание остатков без загрузки сущностей.
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Списывает остаток одним UPDATE: не уходит в минус и не теряет параллельные списания.
+     *
+     * @return 1, если остаток списан; 0, если товара нет, он недоступен или остатка не хватает
+     */
+    int reserveStock(Long id, int quantity);
+}
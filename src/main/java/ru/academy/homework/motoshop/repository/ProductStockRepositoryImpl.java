@@ -0,0 +1,43 @@
+package ru.academy.homework.motoshop.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.academy.homework.motoshop.cache.SecondLevelCacheInvalidator;
+import ru.academy.homework.motoshop.model.Product;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Списание через JDBC, а не массовым JPQL UPDATE: после массового UPDATE Hibernate
+ * сбрасывает весь регион {@code Product} в кэше второго уровня, и каждый заказ
+ * опустошал бы кэш каталога. Здесь из кэша вытесняется только списанный товар.
+ */
+class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, " +
+                    "available = CASE WHEN stock_quantity - ? > 0 THEN 1 ELSE 0 END, " +
+                    "updated_at = ? " +
+                    "WHERE id = ? AND available = ? AND stock_quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    ProductStockRepositoryImpl(JdbcTemplate jdbcTemplate, SecondLevelCacheInvalidator cacheInvalidator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    @Override
+    public int reserveStock(Long id, int quantity) {
+        int updated = jdbcTemplate.update(RESERVE_SQL, quantity, quantity,
+                Timestamp.valueOf(LocalDateTime.now()), id, true, quantity);
+        if (updated > 0) {
+            cacheInvalidator.invalidate(Product.class, List.of(id));
+        }
+        return updated;
+    }
+}
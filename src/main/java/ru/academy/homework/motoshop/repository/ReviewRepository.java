@@ -1,9 +1,34 @@
 package ru.academy.homework.motoshop.repository;
 
 import ru.academy.homework.motoshop.model.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.academy.homework.motoshop.review.ReviewView;
+
+import java.util.List;
 
 @Repository
 public interface ReviewRepository  extends JpaRepository<Review, Long> {
+
+    /**
+     * Отзывы товара, новые первыми; страница задается {@link Pageable} без запроса COUNT
+     * (общее число берется из рейтинга товара).
+     */
+    @Query("SELECT new ru.academy.homework.motoshop.review.ReviewView(" +
+            "r.id, r.rating, r.comment, u.id, u.username, r.createdAt) " +
+            "FROM Review r LEFT JOIN r.user u WHERE r.product.id = :productId ORDER BY r.id DESC")
+    List<ReviewView> findViewsByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    /**
+     * Удаляет отзыв одним DELETE.
+     *
+     * @return 1, если отзыв удален; 0, если его уже удалила другая транзакция
+     */
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.id = :id")
+    int deleteReviewById(@Param("id") Long id);
 }
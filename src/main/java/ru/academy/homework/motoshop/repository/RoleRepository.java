@@ -1,8 +1,12 @@
 package ru.academy.homework.motoshop.repository;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import ru.academy.homework.motoshop.cache.CacheRegions;
 import ru.academy.homework.motoshop.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.academy.homework.motoshop.entity.RoleName;
 
@@ -18,6 +22,9 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
      * @param name имя роли для поиска
      * @return Optional с ролью, если найдена
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.ROLE_QUERIES)})
     Optional<Role> findByName(RoleName name);
 
 
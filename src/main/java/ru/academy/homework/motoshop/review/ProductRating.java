@@ -0,0 +1,77 @@
+package ru.academy.homework.motoshop.review;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Накопленный рейтинг товара: число отзывов, сумма оценок и число оценок каждого
+ * значения. Меняется через JDBC в транзакции добавления или удаления отзыва
+ * ({@link ProductRatingService}); сущность нужна, чтобы таблица создавалась вместе со
+ * схемой, и для соединения в запросах карточек товаров.
+ *
+ * <p>Отдельная таблица, а не колонки {@code products}: запись отзыва не блокирует строку
+ * товара, которую обновляет списание остатков, и не вытесняет товар из кэша второго уровня.</p>
+ */
+@Entity
+@Table(name = "product_ratings")
+public class ProductRating {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long getStars1() {
+        return stars1;
+    }
+
+    public long getStars2() {
+        return stars2;
+    }
+
+    public long getStars3() {
+        return stars3;
+    }
+
+    public long getStars4() {
+        return stars4;
+    }
+
+    public long getStars5() {
+        return stars5;
+    }
+}
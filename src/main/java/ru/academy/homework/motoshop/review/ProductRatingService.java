@@ -0,0 +1,150 @@
+package ru.academy.homework.motoshop.review;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Накопленные рейтинги товаров ({@link ProductRating}).
+ *
+ * <p>Добавление и удаление отзыва меняет строку рейтинга одним UPDATE с приращением в той
+ * же транзакции, что и сам отзыв, поэтому рейтинг не расходится с таблицей отзывов и не
+ * пересчитывается агрегатным запросом при показе каталога. Первый отзыв товара вставляет
+ * строку; если ее одновременно вставила другая транзакция, приращение повторяется.</p>
+ *
+ * <p>Отзывы, записанные в обход сервиса (генератор данных, отзывы до появления рейтингов),
+ * учитываются полным пересчетом {@link #rebuildAll()}; при старте он выполняется, если
+ * отзывы есть, а рейтингов нет.</p>
+ */
+@Service
+public class ProductRatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRatingService.class);
+
+    private static final String SELECT_SQL =
+            "SELECT rating_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5 " +
+                    "FROM product_ratings WHERE product_id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_ratings (product_id, rating_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5) " +
+                    "VALUES (?, 1, ?, ?, ?, ?, ?, ?)";
+
+    /** UPDATE для каждой оценки: колонка гистограммы подставляется из проверенного значения 1–5 */
+    private static final String[] APPLY_SQL = new String[6];
+
+    static {
+        for (int stars = 1; stars <= 5; stars++) {
+            APPLY_SQL[stars] = "UPDATE product_ratings SET rating_count = rating_count + ?, " +
+                    "rating_sum = rating_sum + ?, stars_" + stars + " = stars_" + stars + " + ? WHERE product_id = ?";
+        }
+    }
+
+    private static final String DELETE_ALL_SQL = "DELETE FROM product_ratings";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO product_ratings (product_id, rating_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5) " +
+                    "SELECT product_id, COUNT(*), SUM(rating), " +
+                    "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) " +
+                    "FROM review WHERE product_id IS NOT NULL AND rating BETWEEN 1 AND 5 GROUP BY product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ProductRatingService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public ProductRatingView getRating(Long productId) {
+        List<ProductRatingView> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> ProductRatingView.of(productId,
+                rs.getLong(1), rs.getLong(2),
+                List.of(rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7))), productId);
+        return rows.isEmpty() ? ProductRatingView.empty(productId) : rows.get(0);
+    }
+
+    /**
+     * Учитывает новый отзыв; вызывается в транзакции, записавшей отзыв.
+     *
+     * @throws IllegalStateException если транзакции нет
+     */
+    public void reviewAdded(long productId, int rating) {
+        requireTransaction();
+        if (apply(productId, rating, 1)) {
+            return;
+        }
+        long[] stars = new long[5];
+        stars[rating - 1] = 1;
+        try {
+            jdbcTemplate.update(INSERT_SQL, productId, rating, stars[0], stars[1], stars[2], stars[3], stars[4]);
+        } catch (DuplicateKeyException e) {
+            // Первый отзыв товара одновременно записала другая транзакция
+            apply(productId, rating, 1);
+        }
+    }
+
+    /**
+     * Исключает удаленный отзыв; вызывается в транзакции, удалившей отзыв.
+     *
+     * @throws IllegalStateException если транзакции нет
+     */
+    public void reviewDeleted(long productId, int rating) {
+        requireTransaction();
+        if (!apply(productId, rating, -1)) {
+            logger.warn("Rating of product {} is missing, rebuild required", productId);
+        }
+    }
+
+    /**
+     * Пересчитывает все рейтинги по таблице отзывов.
+     *
+     * @return число товаров с отзывами
+     */
+    public int rebuildAll() {
+        Integer products = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_ALL_SQL);
+            return jdbcTemplate.update(REBUILD_SQL);
+        });
+        logger.info("Product ratings rebuilt: {} products", products);
+        return products != null ? products : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        try {
+            Boolean missing = jdbcTemplate.queryForObject(
+                    "SELECT CASE WHEN EXISTS (SELECT 1 FROM review) AND NOT EXISTS (SELECT 1 FROM product_ratings) " +
+                            "THEN 1 ELSE 0 END", Boolean.class);
+            if (Boolean.TRUE.equals(missing)) {
+                rebuildAll();
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Product ratings check failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean apply(long productId, int rating, int delta) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Оценка должна быть от 1 до 5");
+        }
+        return jdbcTemplate.update(APPLY_SQL[rating], delta, delta * rating, delta, productId) > 0;
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Рейтинг меняется только в транзакции отзыва");
+        }
+    }
+}
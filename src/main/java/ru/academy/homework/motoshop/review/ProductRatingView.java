@@ -0,0 +1,25 @@
+package ru.academy.homework.motoshop.review;
+
+import java.util.List;
+
+/**
+ * Рейтинг товара для API.
+ *
+ * @param average   средняя оценка или {@code null}, если отзывов нет
+ * @param histogram число оценок от 1 до 5 звезд, по порядку
+ */
+public record ProductRatingView(Long productId, long count, Double average, List<Long> histogram) {
+
+    static ProductRatingView empty(Long productId) {
+        return new ProductRatingView(productId, 0, null, List.of(0L, 0L, 0L, 0L, 0L));
+    }
+
+    static ProductRatingView of(Long productId, long count, long sum, List<Long> histogram) {
+        return new ProductRatingView(productId, count, average(count, sum), histogram);
+    }
+
+    /** Средняя оценка с одним знаком после запятой */
+    public static Double average(long count, long sum) {
+        return count > 0 ? Math.round(sum * 10.0 / count) / 10.0 : null;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.academy.homework.motoshop.review;
+
+import java.util.List;
+
+/**
+ * Страница отзывов товара вместе с его рейтингом. Общее число отзывов берется из
+ * накопленного рейтинга, без отдельного COUNT.
+ */
+public record ProductReviewsPage(ProductRatingView rating, List<ReviewView> reviews, int currentPage,
+                                 long totalItems, int totalPages) {
+}
@@ -0,0 +1,115 @@
+package ru.academy.homework.motoshop.review;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.model.Review;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.ReviewRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+
+import java.util.List;
+
+/**
+ * Отзывы о товарах. Каждое добавление и удаление сразу меняет накопленный рейтинг товара
+ * ({@link ProductRatingService}) в той же транзакции.
+ */
+@Service
+@Transactional
+public class ReviewService {
+
+    public static final int MAX_COMMENT_LENGTH = 255;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ReviewRepository reviewRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ProductRatingService ratingService;
+
+    @Autowired
+    public ReviewService(ReviewRepository reviewRepository,
+                         ProductRepository productRepository,
+                         UserRepository userRepository,
+                         ProductRatingService ratingService) {
+        this.reviewRepository = reviewRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.ratingService = ratingService;
+    }
+
+    /**
+     * @throws IllegalArgumentException если товар не найден, оценка вне 1–5 или комментарий слишком длинный
+     */
+    public ReviewView addReview(Long userId, Long productId, int rating, String comment) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Оценка должна быть от 1 до 5");
+        }
+        String text = comment != null && !comment.isBlank() ? comment.trim() : null;
+        if (text != null && text.length() > MAX_COMMENT_LENGTH) {
+            throw new IllegalArgumentException("Отзыв не должен быть длиннее " + MAX_COMMENT_LENGTH + " символов");
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new IllegalArgumentException("Продукт не найден с id: " + productId);
+        }
+
+        User user = userRepository.getReferenceById(userId);
+        Review review = new Review();
+        review.setRating(rating);
+        review.setComment(text);
+        review.setProduct(productRepository.getReferenceById(productId));
+        review.setUser(user);
+        review = reviewRepository.save(review);
+
+        ratingService.reviewAdded(productId, rating);
+        return new ReviewView(review.getId(), rating, text, userId, user.getUsername(), review.getCreatedAt());
+    }
+
+    /**
+     * Удаляет отзыв автора; модератор может удалить любой.
+     *
+     * @throws IllegalArgumentException если отзыв не найден, в том числе если его одновременно удалили
+     * @throws AccessDeniedException    если отзыв чужой
+     */
+    public void deleteReview(Long reviewId, Long userId, boolean moderator) {
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new IllegalArgumentException("Отзыв не найден с id: " + reviewId));
+        // id ленивых связей берутся из прокси без загрузки товара и автора
+        Long authorId = review.getUser() != null ? review.getUser().getId() : null;
+        if (!moderator && !userId.equals(authorId)) {
+            throw new AccessDeniedException("Можно удалить только свой отзыв");
+        }
+        // Счетчик строк, а не удаление сущности: второе одновременное удаление получает 0,
+        // а не ошибку устаревшего состояния при flush, и рейтинг уменьшается один раз
+        if (reviewRepository.deleteReviewById(reviewId) == 0) {
+            throw new IllegalArgumentException("Отзыв не найден с id: " + reviewId);
+        }
+        if (review.getProduct() != null) {
+            ratingService.reviewDeleted(review.getProduct().getId(), review.getRating());
+        }
+    }
+
+    /**
+     * Страница отзывов товара, новые первыми, вместе с рейтингом.
+     *
+     * @throws IllegalArgumentException если товар не найден или размер страницы вне 1–{@value #MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public ProductReviewsPage getReviews(Long productId, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        ProductRatingView rating = ratingService.getRating(productId);
+        // Существование проверяется, только если у товара нет отзывов: иначе его подтверждает рейтинг
+        if (rating.count() == 0 && !productRepository.existsById(productId)) {
+            throw new IllegalArgumentException("Продукт не найден с id: " + productId);
+        }
+        List<ReviewView> reviews = rating.count() > (long) page * size
+                ? reviewRepository.findViewsByProductId(productId, PageRequest.of(page, size))
+                : List.of();
+        int totalPages = (int) ((rating.count() + size - 1) / size);
+        return new ProductReviewsPage(rating, reviews, page, rating.count(), totalPages);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.academy.homework.motoshop.review;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отзыв в списке отзывов товара: проекция без сущностей, автор читается тем же запросом.
+ */
+public record ReviewView(Long id, int rating, String comment, Long authorId, String authorName,
+                         LocalDateTime createdAt) {
+}
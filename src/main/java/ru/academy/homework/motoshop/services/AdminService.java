@@ -99,7 +99,7 @@ public class AdminService {
         );
     }
 
-    private UserDto convertToDto(User user) {
+    UserDto convertToDto(User user) {
         return new UserDto(
                 user.getId(),
                 user.getUsername(),
@@ -127,6 +127,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public Category categoryFindById(Long id) {
         return categoryRepository.findById(id).orElse(null);
     }
@@ -158,11 +159,13 @@ public class CategoryServiceImpl implements CategoryService {
     // ========== ДОПОЛНИТЕЛЬНЫЕ МЕТОДЫ ДЛЯ БИЗНЕС-ЛОГИКИ ==========
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         return categoryRepository.existsById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long count() {
         return categoryRepository.count();
     }
@@ -1,5 +1,7 @@
 package ru.academy.homework.motoshop.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import ru.academy.homework.motoshop.repository.OrderRepository;
@@ -9,6 +11,8 @@ import ru.academy.homework.motoshop.repository.UserRepository;
 @Service
 public class DashboardServiceImpl implements DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
@@ -28,7 +32,7 @@ public class DashboardServiceImpl implements DashboardService {
             return userRepository.count();
         } catch (Exception e) {
             // Логируем ошибку и возвращаем 0
-            System.err.println("Ошибка при получении количества пользователей: " + e.getMessage());
+            logger.error("Failed to count users", e);
             return 0L;
         }
     }
@@ -38,7 +42,7 @@ public class DashboardServiceImpl implements DashboardService {
         try {
             return productRepository.count();
         } catch (Exception e) {
-            System.err.println("Ошибка при получении количества товаров: " + e.getMessage());
+            logger.error("Failed to count products", e);
             return 0L;
         }
     }
@@ -48,7 +52,7 @@ public class DashboardServiceImpl implements DashboardService {
         try {
             return orderRepository.count();
         } catch (Exception e) {
-            System.err.println("Ошибка при получении количества заказов: " + e.getMessage());
+            logger.error("Failed to count orders", e);
             return 0L;
         }
     }
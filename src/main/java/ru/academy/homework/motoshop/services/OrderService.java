@@ -0,0 +1,15 @@
+package ru.academy.homework.motoshop.services;
+
+import ru.academy.homework.motoshop.entity.Order;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+
+public interface OrderService {
+
+    /**
+     * Оформляет заказ пользователя: списывает остатки и сохраняет заказ в одной транзакции.
+     *
+     * @throws IllegalArgumentException если товар не найден
+     * @throws IllegalStateException если товара недостаточно на складе
+     */
+    Order checkout(Long userId, CheckoutRequest request);
+}
@@ -0,0 +1,81 @@
+package ru.academy.homework.motoshop.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.academy.homework.motoshop.entity.Order;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.outbox.OutboxEventType;
+import ru.academy.homework.motoshop.outbox.OutboxPayloads;
+import ru.academy.homework.motoshop.outbox.OutboxWriter;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+import ru.academy.homework.motoshop.repository.OrderRepository;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class OrderServiceImpl implements OrderService {
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final OutboxWriter outboxWriter;
+
+    @Autowired
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            ProductRepository productRepository,
+                            UserRepository userRepository,
+                            OutboxWriter outboxWriter) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.outboxWriter = outboxWriter;
+    }
+
+    @Override
+    public Order checkout(Long userId, CheckoutRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден"));
+
+        // Повторы товара складываются; остатки списываются по возрастанию id,
+        // чтобы параллельные заказы блокировали строки в одном порядке
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CheckoutRequest.Item item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.reserveStock(entry.getKey(), entry.getValue()) == 0) {
+                if (!productRepository.existsById(entry.getKey())) {
+                    throw new IllegalArgumentException("Продукт не найден с id: " + entry.getKey());
+                }
+                throw new IllegalStateException("Недостаточно товара на складе, id: " + entry.getKey());
+            }
+        }
+
+        // Товары читаются после списания, поэтому в контексте уже актуальные остатки
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Order order = new Order(user, request.getShippingAddress(), request.getPhoneNumber(),
+                request.getCustomerName() != null ? request.getCustomerName() : user.getUsername(),
+                request.getCustomerEmail() != null ? request.getCustomerEmail() : user.getEmail());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            order.addProduct(product, entry.getValue());
+            outboxWriter.append(OutboxEventType.STOCK_CHANGED, product.getId(),
+                    new OutboxPayloads.StockLevel(product.getStockQuantity(), product.getAvailable(), -entry.getValue()));
+        }
+
+        Order saved = orderRepository.save(order);
+        outboxWriter.append(OutboxEventType.ORDER_CREATED, saved.getId(), OutboxPayloads.OrderPlaced.of(saved));
+        return saved;
+    }
+}
@@ -3,6 +3,7 @@ package ru.academy.homework.motoshop.services;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
 
 
 import java.util.List;
@@ -24,7 +25,7 @@ public interface ProductService {
 
     // Поиск и фильтрация
     List<Product> searchProductsByName(String name);
-    List<Product> findProductsByPriceRange(Double minPrice, Double maxPrice);
+    List<Product> findProductsByPriceRange(Money minPrice, Money maxPrice);
     List<Product> findProductsByCategory(Long categoryId);
     List<Product> findActiveProducts();
     List<Product> findLowStockProducts(int threshold);
@@ -1,30 +1,55 @@
 package ru.academy.homework.motoshop.services;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.academy.homework.motoshop.lowstock.LowStockItem;
+import ru.academy.homework.motoshop.lowstock.LowStockMonitor;
 import ru.academy.homework.motoshop.model.Category;
 import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.outbox.OutboxEventType;
+import ru.academy.homework.motoshop.outbox.OutboxPayloads;
+import ru.academy.homework.motoshop.outbox.OutboxWriter;
 import ru.academy.homework.motoshop.repository.CategoryRepository;
 import ru.academy.homework.motoshop.repository.ProductRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+    /** Верхняя граница фильтра по цене: наибольшее значение колонки DECIMAL(19, 2) */
+    private static final Money MAX_PRICE = Money.ofMinor(9_999_999_999_999_999L);
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final OutboxWriter outboxWriter;
+
+    private LowStockMonitor lowStockMonitor;
 
     @Autowired
     public ProductServiceImpl(ProductRepository productRepository,
-                              CategoryRepository categoryRepository) {
+                              CategoryRepository categoryRepository,
+                              OutboxWriter outboxWriter) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.outboxWriter = outboxWriter;
+    }
+
+    /** Индекс остатков; пока он не загружен, списки и счетчики считаются запросом к таблице */
+    @Autowired(required = false)
+    public void setLowStockMonitor(LowStockMonitor lowStockMonitor) {
+        this.lowStockMonitor = lowStockMonitor;
     }
 
     @Override
@@ -44,8 +69,9 @@ public class ProductServiceImpl implements ProductService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Product> findById(Long id) {
-        return productRepository.findById(id);
+        return productRepository.findWithCategoryById(id);
     }
 
     /**
@@ -53,8 +79,7 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public void save(Product product) {
-        productRepository.save(product);
-
+        publishUpserted(productRepository.save(product));
     }
 
     /**
@@ -63,7 +88,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public void deleteById(Long id) {
         productRepository.deleteById(id);
-
+        outboxWriter.append(OutboxEventType.PRODUCT_DELETED, id, null);
     }
 
     @Override
@@ -75,7 +100,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productRepository.findWithCategoryById(id);
     }
 
     @Override
@@ -88,7 +113,7 @@ public class ProductServiceImpl implements ProductService {
             product.setAvailable(product.getStockQuantity() > 0);
         }
 
-        return productRepository.save(product);
+        return withCategory(publishUpserted(productRepository.save(product)));
     }
 
     @Override
@@ -100,6 +125,9 @@ public class ProductServiceImpl implements ProductService {
         if (productDetails.getName() != null) {
             existingProduct.setName(productDetails.getName());
         }
+        if (productDetails.getSku() != null) {
+            existingProduct.setSku(productDetails.getSku());
+        }
         if (productDetails.getDescription() != null) {
             existingProduct.setDescription(productDetails.getDescription());
         }
@@ -128,7 +156,7 @@ public class ProductServiceImpl implements ProductService {
             existingProduct.setAvailable(productDetails.getAvailable());
         }
 
-        return productRepository.save(existingProduct);
+        return withCategory(publishUpserted(productRepository.save(existingProduct)));
     }
 
     @Override
@@ -142,6 +170,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.delete(product);
+        outboxWriter.append(OutboxEventType.PRODUCT_DELETED, id, null);
     }
 
     @Override
@@ -152,9 +181,9 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Product> findProductsByPriceRange(Double minPrice, Double maxPrice) {
-        if (minPrice == null) minPrice = 0.0;
-        if (maxPrice == null) maxPrice = Double.MAX_VALUE;
+    public List<Product> findProductsByPriceRange(Money minPrice, Money maxPrice) {
+        if (minPrice == null) minPrice = Money.ZERO;
+        if (maxPrice == null) maxPrice = MAX_PRICE;
 
         return productRepository.findByPriceBetween(minPrice, maxPrice);
     }
@@ -177,7 +206,26 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public List<Product> findLowStockProducts(int threshold) {
-        return productRepository.findByStockQuantityLessThanEqualAndAvailableTrue(threshold);
+        if (lowStockMonitor == null || !lowStockMonitor.isReady()) {
+            return productRepository.findByStockQuantityLessThanEqualAndAvailableTrue(threshold);
+        }
+        List<LowStockItem> items = lowStockMonitor.findLowStock(threshold);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        // Товары читаются одним запросом вместе с категорией и отдаются в порядке индекса
+        Map<Long, Product> products = productRepository.findWithCategoryByIdIn(
+                        items.stream().map(LowStockItem::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> result = new ArrayList<>(items.size());
+        for (LowStockItem item : items) {
+            Product product = products.get(item.productId());
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -201,6 +249,9 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public long getLowStockProductsCount(int threshold) {
+        if (lowStockMonitor != null && lowStockMonitor.isReady()) {
+            return lowStockMonitor.countLowStock(threshold);
+        }
         return productRepository.countByStockQuantityBetweenAndAvailableTrue(1, threshold);
     }
 
@@ -223,6 +274,7 @@ public class ProductServiceImpl implements ProductService {
         product.setAvailable(product.getStockQuantity() > 0);
 
         productRepository.save(product);
+        publishStockChanged(product, -quantity);
     }
 
     @Override
@@ -239,6 +291,7 @@ public class ProductServiceImpl implements ProductService {
         product.setAvailable(true);
 
         productRepository.save(product);
+        publishStockChanged(product, quantity);
     }
 
     /**
@@ -247,6 +300,7 @@ public class ProductServiceImpl implements ProductService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<Product> findByCategoryId(Long categoryId, Pageable pageable) {
         return productRepository.findByCategoryId(categoryId, pageable);
     }
@@ -255,6 +309,7 @@ public class ProductServiceImpl implements ProductService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public Object findAllProducts() {
         return productRepository.findAll();
     }
@@ -264,16 +319,40 @@ public class ProductServiceImpl implements ProductService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public Object findAllProductsById(Long categoryId) {
         return productRepository.findById(categoryId);
     }
 
     // Вспомогательные методы
+    /**
+     * Сохраненный товар REST отдает уже после транзакции (open-in-view выключен), а merge
+     * оставляет вместо категории ленивый прокси. Категория загружается здесь и подставляется
+     * самой сущностью: прокси Jackson не сериализует.
+     */
+    private static Product withCategory(Product product) {
+        if (product.getCategory() != null) {
+            product.setCategory(Hibernate.unproxy(product.getCategory(), Category.class));
+        }
+        return product;
+    }
+
+    private Product publishUpserted(Product product) {
+        outboxWriter.append(OutboxEventType.PRODUCT_UPSERTED, product.getId(),
+                OutboxPayloads.ProductSnapshot.of(product));
+        return product;
+    }
+
+    private void publishStockChanged(Product product, int delta) {
+        outboxWriter.append(OutboxEventType.STOCK_CHANGED, product.getId(),
+                new OutboxPayloads.StockLevel(product.getStockQuantity(), product.getAvailable(), delta));
+    }
+
     private void validateProduct(Product product) {
         if (product.getName() == null || product.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Название продукта обязательно");
         }
-        if (product.getPrice() == null || product.getPrice() <= 0) {
+        if (product.getPrice() == null || !product.getPrice().isPositive()) {
             throw new IllegalArgumentException("Цена должна быть положительной");
         }
         if (product.getStockQuantity() != null && product.getStockQuantity() < 0) {
@@ -0,0 +1,51 @@
+package ru.academy.homework.motoshop.sql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Форма SQL-выражения без конкретных значений.
+ *
+ * <p>Строковые и числовые литералы заменяются на {@code ?}, списки {@code IN (?, ?, ?)}
+ * сворачиваются в {@code IN (?...)}, пробелы нормализуются. Выражения, различающиеся
+ * только параметрами, получают одинаковый отпечаток — по нему ищутся N+1 и медленные
+ * запросы. Hibernate и JdbcTemplate повторяют одни и те же строки SQL, поэтому результат
+ * кешируется.</p>
+ */
+final class SqlFingerprint {
+
+    private static final int CACHE_LIMIT = 4096;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    static String of(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        String fingerprint = CACHE.get(sql);
+        if (fingerprint == null) {
+            fingerprint = normalize(sql);
+            // Выражения с литералами вместо параметров могут быть уникальными: кеш не растет бесконечно
+            if (CACHE.size() < CACHE_LIMIT) {
+                CACHE.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    static String normalize(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = IN_LIST.matcher(result).replaceAll("(?...)");
+        return WHITESPACE.matcher(result).replaceAll(" ").trim();
+    }
+}
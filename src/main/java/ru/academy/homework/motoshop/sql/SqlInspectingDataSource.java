@@ -0,0 +1,128 @@
+package ru.academy.homework.motoshop.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * {@link DataSource}, замеряющий каждое выполненное выражение.
+ *
+ * <p>Соединения и выражения оборачиваются динамическими прокси: текст SQL запоминается
+ * при {@code prepareStatement}, время считается вокруг {@code execute*}. Остальные вызовы
+ * (установка параметров, чтение результатов) передаются без изменений. Через этот
+ * источник проходят и Hibernate, и JdbcTemplate, поэтому учитываются все выражения.</p>
+ */
+class SqlInspectingDataSource extends DelegatingDataSource {
+
+    private final Supplier<SqlStatementRecorder> recorder;
+
+    SqlInspectingDataSource(DataSource target, Supplier<SqlStatementRecorder> recorder) {
+        super(target);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlInspectingDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof Statement
+                    && ("prepareStatement".equals(name) || "prepareCall".equals(name) || "createStatement".equals(name))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(SqlInspectingDataSource.class.getClassLoader(),
+                        new Class<?>[]{type}, new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private String batchSql;
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if ("addBatch".equals(name)) {
+                    batchSize++;
+                    if (args != null && args.length == 1) {
+                        batchSql = (String) args[0];
+                    }
+                } else if ("clearBatch".equals(name)) {
+                    batchSize = 0;
+                }
+                return SqlInspectingDataSource.invoke(target, method, args);
+            }
+
+            boolean batch = name.endsWith("Batch");
+            String executed;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                executed = (String) args[0];
+            } else {
+                executed = batch && sql == null ? batchSql : sql;
+            }
+            int rows = batch ? Math.max(batchSize, 1) : 1;
+
+            long start = System.nanoTime();
+            try {
+                return SqlInspectingDataSource.invoke(target, method, args);
+            } finally {
+                recorder.get().record(executed, System.nanoTime() - start, rows);
+                if (batch) {
+                    batchSize = 0;
+                }
+            }
+        }
+    }
+}
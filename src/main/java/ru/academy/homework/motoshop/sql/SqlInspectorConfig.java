@@ -0,0 +1,37 @@
+package ru.academy.homework.motoshop.sql;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * Подключает учет SQL-выражений: источник данных приложения (бин {@code dataSource})
+ * оборачивается {@link SqlInspectingDataSource}. Пулы, на которые он ссылается при
+ * чтении с реплики, не оборачиваются, чтобы выражения не учитывались дважды.
+ * Отключается {@code motoshop.sql.inspector.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "motoshop.sql.inspector.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInspectorConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    static BeanPostProcessor sqlInspectingDataSourcePostProcessor(ObjectProvider<SqlStatementRecorder> recorder) {
+        SingletonSupplier<SqlStatementRecorder> supplier = SingletonSupplier.of(recorder::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+                    return new SqlInspectingDataSource((DataSource) bean, supplier);
+                }
+                return bean;
+            }
+        };
+    }
+}
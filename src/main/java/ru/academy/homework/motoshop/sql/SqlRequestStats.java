@@ -0,0 +1,70 @@
+package ru.academy.homework.motoshop.sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Выражения, выполненные в рамках одного HTTP-запроса. Используется только потоком
+ * запроса, поэтому без синхронизации.
+ */
+class SqlRequestStats {
+
+    private final Map<String, Shape> shapes = new HashMap<>();
+    private int statements;
+    private long totalNanos;
+
+    void record(String fingerprint, long nanos, int count) {
+        Shape shape = shapes.get(fingerprint);
+        if (shape == null) {
+            shape = new Shape(fingerprint);
+            shapes.put(fingerprint, shape);
+        }
+        shape.executions++;
+        shape.rows += count;
+        shape.nanos += nanos;
+        statements++;
+        totalNanos += nanos;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return формы, выполненные отдельными выражениями не меньше {@code threshold} раз
+     */
+    List<Shape> repeatedShapes(int threshold) {
+        List<Shape> repeated = new ArrayList<>();
+        for (Shape shape : shapes.values()) {
+            if (shape.executions >= threshold) {
+                repeated.add(shape);
+            }
+        }
+        repeated.sort((a, b) -> Integer.compare(b.executions, a.executions));
+        return repeated;
+    }
+
+    List<Shape> slowestShapes(int limit) {
+        List<Shape> sorted = new ArrayList<>(shapes.values());
+        sorted.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+
+    static final class Shape {
+        final String fingerprint;
+        int executions;
+        /** Для пакетных выражений — число строк в пакете */
+        int rows;
+        long nanos;
+
+        Shape(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
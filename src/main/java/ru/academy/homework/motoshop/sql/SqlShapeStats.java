@@ -0,0 +1,46 @@
+package ru.academy.homework.motoshop.sql;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накопленная статистика по одной форме SQL-выражения.
+ */
+public class SqlShapeStats {
+
+    private final String fingerprint;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    SqlShapeStats(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    void record(long nanos) {
+        executions.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public double getTotalMs() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public double getAvgMs() {
+        long count = executions.sum();
+        return count == 0 ? 0 : getTotalMs() / count;
+    }
+}
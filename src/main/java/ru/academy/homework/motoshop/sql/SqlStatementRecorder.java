@@ -0,0 +1,185 @@
+package ru.academy.homework.motoshop.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Учет SQL-выражений по HTTP-запросам и по формам выражений.
+ *
+ * <p>Выражения поступают от {@link SqlInspectingDataSource}. Если поток обрабатывает
+ * HTTP-запрос ({@link SqlStatementBudgetFilter}), выражение учитывается и в статистике
+ * запроса. По завершении запроса проверяется бюджет: число выражений, время в базе и
+ * повторы одной формы (N+1). Запросы сверх бюджета пишутся в лог вместе с отпечатками
+ * самых дорогих выражений.</p>
+ *
+ * <p>Время выражения — время вызова {@code execute*}, без чтения {@code ResultSet}.</p>
+ */
+@Component
+public class SqlStatementRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementRecorder.class);
+
+    private static final int LOGGED_SHAPES = 5;
+
+    private final ThreadLocal<SqlRequestStats> currentRequest = new ThreadLocal<>();
+    private final Map<String, SqlShapeStats> shapes = new ConcurrentHashMap<>();
+    private final LongAdder droppedShapes = new LongAdder();
+
+    private final DistributionSummary statementsPerRequest;
+    private final Counter budgetExceeded;
+    private final Counter nPlusOneDetected;
+
+    @Value("${motoshop.sql.budget.statements:30}")
+    private int statementBudget = 30;
+
+    @Value("${motoshop.sql.budget.time-ms:200}")
+    private long timeBudgetMs = 200;
+
+    @Value("${motoshop.sql.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold = 10;
+
+    @Value("${motoshop.sql.max-shapes:2000}")
+    private int maxShapes = 2000;
+
+    @Autowired
+    public SqlStatementRecorder(MeterRegistry meterRegistry) {
+        this.statementsPerRequest = DistributionSummary.builder("motoshop.sql.statements.per.request")
+                .description("Число SQL-выражений на HTTP-запрос")
+                .baseUnit("statements")
+                .register(meterRegistry);
+        this.budgetExceeded = Counter.builder("motoshop.sql.budget.exceeded")
+                .description("HTTP-запросы, превысившие бюджет SQL")
+                .register(meterRegistry);
+        this.nPlusOneDetected = Counter.builder("motoshop.sql.n.plus.one")
+                .description("HTTP-запросы с повторяющейся формой выражения (N+1)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Учитывает выполненное выражение.
+     *
+     * @param rows для пакетных выражений — размер пакета, иначе 1
+     */
+    void record(String sql, long nanos, int rows) {
+        String fingerprint = SqlFingerprint.of(sql);
+
+        SqlShapeStats shape = shapes.get(fingerprint);
+        if (shape == null) {
+            if (shapes.size() >= maxShapes) {
+                droppedShapes.increment();
+            } else {
+                shape = shapes.computeIfAbsent(fingerprint, SqlShapeStats::new);
+            }
+        }
+        if (shape != null) {
+            shape.record(nanos);
+        }
+
+        SqlRequestStats request = currentRequest.get();
+        if (request != null) {
+            request.record(fingerprint, nanos, rows);
+        }
+    }
+
+    void beginRequest() {
+        currentRequest.set(new SqlRequestStats());
+    }
+
+    void endRequest(String method, String uri, int status, long requestNanos) {
+        SqlRequestStats request = currentRequest.get();
+        currentRequest.remove();
+        if (request == null || request.getStatements() == 0) {
+            return;
+        }
+
+        statementsPerRequest.record(request.getStatements());
+        List<SqlRequestStats.Shape> repeated = request.repeatedShapes(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            nPlusOneDetected.increment();
+        }
+
+        boolean overBudget = request.getStatements() > statementBudget
+                || request.getTotalNanos() / 1_000_000 > timeBudgetMs;
+        if (overBudget) {
+            budgetExceeded.increment();
+        }
+        if ((overBudget || !repeated.isEmpty()) && logger.isWarnEnabled()) {
+            logger.warn(describe(overBudget, method, uri, status, requestNanos, request, repeated));
+        }
+    }
+
+    private String describe(boolean overBudget, String method, String uri, int status, long requestNanos,
+                            SqlRequestStats request, List<SqlRequestStats.Shape> repeated) {
+        StringBuilder message = new StringBuilder(512);
+        message.append(overBudget ? "SQL budget exceeded: " : "Repeated SQL statements (N+1): ");
+        message.append(String.format(Locale.ROOT,
+                "%s %s -> %d, statements=%d (budget %d), sqlMs=%.1f (budget %d), requestMs=%.1f",
+                method, uri, status, request.getStatements(), statementBudget,
+                request.getTotalNanos() / 1_000_000.0, timeBudgetMs, requestNanos / 1_000_000.0));
+
+        List<SqlRequestStats.Shape> logged = new ArrayList<>(repeated.size() > LOGGED_SHAPES
+                ? repeated.subList(0, LOGGED_SHAPES) : repeated);
+        for (SqlRequestStats.Shape shape : request.slowestShapes(LOGGED_SHAPES)) {
+            if (!logged.contains(shape)) {
+                logged.add(shape);
+            }
+        }
+        for (SqlRequestStats.Shape shape : logged) {
+            message.append(String.format(Locale.ROOT, "%n  %5d x %8.1f ms  %s", shape.executions,
+                    shape.nanos / 1_000_000.0, shape.fingerprint));
+            if (shape.executions >= nPlusOneThreshold) {
+                message.append("  [N+1]");
+            }
+        }
+        return message.toString();
+    }
+
+    /**
+     * Самые дорогие формы выражений с момента запуска или последнего сброса.
+     *
+     * @param sort {@code total} (суммарное время), {@code max}, {@code avg} или {@code count}
+     */
+    public List<SqlShapeStats> topShapes(int limit, String sort) {
+        Comparator<SqlShapeStats> comparator;
+        if ("max".equals(sort)) {
+            comparator = Comparator.comparingDouble(SqlShapeStats::getMaxMs);
+        } else if ("avg".equals(sort)) {
+            comparator = Comparator.comparingDouble(SqlShapeStats::getAvgMs);
+        } else if ("count".equals(sort)) {
+            comparator = Comparator.comparingLong(SqlShapeStats::getExecutions);
+        } else {
+            comparator = Comparator.comparingDouble(SqlShapeStats::getTotalMs);
+        }
+
+        List<SqlShapeStats> sorted = new ArrayList<>(shapes.values());
+        sorted.sort(comparator.reversed());
+        return sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+    }
+
+    public int getTrackedShapes() {
+        return shapes.size();
+    }
+
+    public long getDroppedShapes() {
+        return droppedShapes.sum();
+    }
+
+    public void reset() {
+        shapes.clear();
+        droppedShapes.reset();
+    }
+}
@@ -0,0 +1,55 @@
+package ru.academy.homework.motoshop.stock;
+
+import java.util.List;
+
+/**
+ * Итог пакетного обновления остатков. Результаты идут в порядке элементов запроса.
+ */
+public class StockBatchReport {
+
+    private final int updated;
+    private final int notFound;
+    private final int rejected;
+    private final long elapsedMs;
+    private final List<StockUpdateResult> results;
+
+    StockBatchReport(List<StockUpdateResult> results, long elapsedMs) {
+        int updatedCount = 0;
+        int notFoundCount = 0;
+        int rejectedCount = 0;
+        for (StockUpdateResult result : results) {
+            if (result.getStatus() == StockUpdateResult.Status.UPDATED) {
+                updatedCount++;
+            } else if (result.getStatus() == StockUpdateResult.Status.NOT_FOUND) {
+                notFoundCount++;
+            } else {
+                rejectedCount++;
+            }
+        }
+        this.updated = updatedCount;
+        this.notFound = notFoundCount;
+        this.rejected = rejectedCount;
+        this.elapsedMs = elapsedMs;
+        this.results = results;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public List<StockUpdateResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.academy.homework.motoshop.stock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пакет изменений остатков от складской системы.
+ *
+ * <pre>
+ * {"mode": "DELTA", "updates": [{"productId": 1, "quantity": -2},
+ *                               {"productId": 7, "quantity": 40, "mode": "ABSOLUTE"}]}
+ * </pre>
+ */
+public class StockBatchRequest {
+
+    /** Режим по умолчанию для элементов без собственного режима */
+    private StockUpdateMode mode = StockUpdateMode.DELTA;
+
+    private List<Item> updates = new ArrayList<>();
+
+    public StockUpdateMode getMode() {
+        return mode;
+    }
+
+    public void setMode(StockUpdateMode mode) {
+        this.mode = mode;
+    }
+
+    public List<Item> getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(List<Item> updates) {
+        this.updates = updates;
+    }
+
+    public static class Item {
+        private Long productId;
+        private Integer quantity;
+        private StockUpdateMode mode;
+
+        public Item() {
+        }
+
+        public Item(Long productId, Integer quantity, StockUpdateMode mode) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.mode = mode;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public StockUpdateMode getMode() {
+            return mode;
+        }
+
+        public void setMode(StockUpdateMode mode) {
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package ru.academy.homework.motoshop.stock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.academy.homework.motoshop.cache.SecondLevelCacheInvalidator;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.outbox.OutboxEventType;
+import ru.academy.homework.motoshop.outbox.OutboxPayloads;
+import ru.academy.homework.motoshop.outbox.OutboxWriter;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Пакетное обновление остатков для синхронизации со складом.
+ *
+ * <p>Весь пакет применяется одной транзакцией без загрузки сущностей: изменения
+ * отправляются пакетными JDBC-выражениями UPDATE, каждое из которых в том же выражении
+ * пересчитывает {@code available} и не дает остатку уйти в минус. После этого одним
+ * запросом на каждую тысячу товаров читаются итоговые остатки для ответа.</p>
+ *
+ * <p>Элементы применяются в порядке возрастания id (для одного товара порядок запроса
+ * сохраняется), поэтому два одновременных пакета блокируют строки в одном порядке и не
+ * попадают во взаимную блокировку.</p>
+ *
+ * <p>На каждый измененный товар в ту же транзакцию пишется одно событие
+ * {@link OutboxEventType#STOCK_CHANGED} с итоговым остатком.</p>
+ */
+@Service
+public class StockBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockBatchService.class);
+
+    /** SQL Server ограничивает запрос 2100 параметрами, итоговые остатки читаются через IN (...) */
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String ABSOLUTE_SQL =
+            "UPDATE products SET stock_quantity = ?, " +
+                    "available = CASE WHEN ? > 0 THEN 1 ELSE 0 END, " +
+                    "updated_at = ? " +
+                    "WHERE id = ?";
+
+    private static final String DELTA_SQL =
+            "UPDATE products SET stock_quantity = COALESCE(stock_quantity, 0) + ?, " +
+                    "available = CASE WHEN COALESCE(stock_quantity, 0) + ? > 0 THEN 1 ELSE 0 END, " +
+                    "updated_at = ? " +
+                    "WHERE id = ? AND COALESCE(stock_quantity, 0) + ? >= 0";
+
+    private static final String SELECT_SQL =
+            "SELECT id, stock_quantity, available FROM products WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private SecondLevelCacheInvalidator cacheInvalidator;
+    private OutboxWriter outboxWriter;
+
+    @Value("${motoshop.stock.batch.max-size:10000}")
+    private int maxBatchSize = 10000;
+
+    @Autowired
+    public StockBatchService(JdbcTemplate jdbcTemplate,
+                             NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                             TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /** Вытеснение измененных строк из кэша второго уровня; в тестах без контекста отсутствует */
+    @Autowired(required = false)
+    public void setCacheInvalidator(SecondLevelCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    /** События об остатках для outbox; в тестах без контекста отсутствует */
+    @Autowired(required = false)
+    public void setOutboxWriter(OutboxWriter outboxWriter) {
+        this.outboxWriter = outboxWriter;
+    }
+
+    /**
+     * Применяет пакет изменений остатков.
+     *
+     * @throws IllegalArgumentException если пакет пуст или превышает допустимый размер
+     */
+    public StockBatchReport applyBatch(StockBatchRequest request) {
+        List<StockBatchRequest.Item> items = request.getUpdates();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Пакет обновлений пуст");
+        }
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Пакет превышает " + maxBatchSize + " обновлений");
+        }
+
+        long start = System.nanoTime();
+        StockUpdateMode defaultMode = request.getMode() != null ? request.getMode() : StockUpdateMode.DELTA;
+
+        StockUpdateResult[] results = new StockUpdateResult[items.size()];
+        List<Update> updates = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            StockBatchRequest.Item item = items.get(i);
+            StockUpdateMode mode = item.getMode() != null ? item.getMode() : defaultMode;
+            String error = validate(item, mode);
+            if (error != null) {
+                results[i] = new StockUpdateResult(item.getProductId(), StockUpdateResult.Status.REJECTED,
+                        null, null, error);
+            } else {
+                updates.add(new Update(i, item.getProductId(), item.getQuantity(), mode));
+            }
+        }
+        updates.sort(Comparator.comparingLong(update -> update.productId));
+
+        transactionTemplate.executeWithoutResult(status -> apply(updates, results));
+
+        StockBatchReport report = new StockBatchReport(Arrays.asList(results), (System.nanoTime() - start) / 1_000_000);
+        logger.info("Stock batch applied: items={}, updated={}, notFound={}, rejected={}, elapsedMs={}",
+                items.size(), report.getUpdated(), report.getNotFound(), report.getRejected(), report.getElapsedMs());
+        return report;
+    }
+
+    /**
+     * Возвращает на склад ранее списанные количества, например при отмене заказов.
+     * Выполняется в текущей транзакции тем же пакетом UPDATE, что и {@link #applyBatch};
+     * размер не ограничивается, количества должны быть положительными.
+     */
+    public void release(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Update> updates = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            updates.add(new Update(updates.size(), entry.getKey(), entry.getValue(), StockUpdateMode.DELTA));
+        }
+        updates.sort(Comparator.comparingLong(update -> update.productId));
+
+        transactionTemplate.executeWithoutResult(status -> apply(updates, new StockUpdateResult[updates.size()]));
+    }
+
+    private static String validate(StockBatchRequest.Item item, StockUpdateMode mode) {
+        if (item.getProductId() == null) {
+            return "Не указан productId";
+        }
+        if (item.getQuantity() == null) {
+            return "Не указано количество";
+        }
+        if (mode == StockUpdateMode.ABSOLUTE && item.getQuantity() < 0) {
+            return "Остаток не может быть отрицательным";
+        }
+        return null;
+    }
+
+    private void apply(List<Update> updates, StockUpdateResult[] results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // Подряд идущие элементы с одним режимом уходят одним пакетом JDBC
+        int from = 0;
+        while (from < updates.size()) {
+            StockUpdateMode mode = updates.get(from).mode;
+            int to = from + 1;
+            while (to < updates.size() && to - from < CHUNK_SIZE && updates.get(to).mode == mode) {
+                to++;
+            }
+            execute(updates.subList(from, to), mode, now);
+            from = to;
+        }
+
+        if (cacheInvalidator != null) {
+            List<Long> changed = new ArrayList<>(updates.size());
+            for (Update update : updates) {
+                if (update.applied) {
+                    changed.add(update.productId);
+                }
+            }
+            cacheInvalidator.invalidate(Product.class, changed);
+        }
+
+        Map<Long, Object[]> stock = loadStock(updates);
+        if (outboxWriter != null) {
+            publishStockChanged(updates, stock);
+        }
+        for (Update update : updates) {
+            Object[] row = stock.get(update.productId);
+            StockUpdateResult.Status status;
+            String message = null;
+            if (row == null) {
+                status = StockUpdateResult.Status.NOT_FOUND;
+                message = "Продукт не найден";
+            } else if (update.applied) {
+                status = StockUpdateResult.Status.UPDATED;
+            } else {
+                status = StockUpdateResult.Status.REJECTED;
+                message = "Недостаточно товара на складе";
+            }
+            results[update.index] = new StockUpdateResult(update.productId, status,
+                    row != null ? (Integer) row[0] : null,
+                    row != null ? (Boolean) row[1] : null,
+                    message);
+        }
+    }
+
+    private void publishStockChanged(List<Update> updates, Map<Long, Object[]> stock) {
+        // Несколько изменений одного товара дают одно событие с итоговым остатком
+        Set<Long> published = new LinkedHashSet<>();
+        for (Update update : updates) {
+            Object[] row = stock.get(update.productId);
+            if (update.applied && row != null && published.add(update.productId)) {
+                outboxWriter.append(OutboxEventType.STOCK_CHANGED, update.productId,
+                        new OutboxPayloads.StockLevel((Integer) row[0], (Boolean) row[1], null));
+            }
+        }
+    }
+
+    private void execute(List<Update> chunk, StockUpdateMode mode, Timestamp now) {
+        List<Object[]> args = new ArrayList<>(chunk.size());
+        for (Update update : chunk) {
+            if (mode == StockUpdateMode.ABSOLUTE) {
+                args.add(new Object[]{update.quantity, update.quantity, now, update.productId});
+            } else {
+                args.add(new Object[]{update.quantity, update.quantity, now, update.productId, update.quantity});
+            }
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(mode == StockUpdateMode.ABSOLUTE ? ABSOLUTE_SQL : DELTA_SQL, args);
+        for (int i = 0; i < counts.length; i++) {
+            chunk.get(i).applied = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+    }
+
+    private Map<Long, Object[]> loadStock(List<Update> updates) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Update update : updates) {
+            ids.add(update.productId);
+        }
+
+        Map<Long, Object[]> stock = new HashMap<>(ids.size() * 2);
+        List<Long> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(from, Math.min(from + CHUNK_SIZE, idList.size()));
+            namedParameterJdbcTemplate.query(SELECT_SQL, new MapSqlParameterSource("ids", chunk), rs -> {
+                int quantity = rs.getInt(2);
+                Integer stockQuantity = rs.wasNull() ? null : quantity;
+                boolean available = rs.getBoolean(3);
+                stock.put(rs.getLong(1), new Object[]{stockQuantity, rs.wasNull() ? null : available});
+            });
+        }
+        return stock;
+    }
+
+    private static final class Update {
+        final int index;
+        final long productId;
+        final int quantity;
+        final StockUpdateMode mode;
+        boolean applied;
+
+        Update(int index, long productId, int quantity, StockUpdateMode mode) {
+            this.index = index;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.academy.homework.motoshop.stock;
+
+/**
+ * Способ изменения остатка в пакетном обновлении.
+ */
+public enum StockUpdateMode {
+    /** Остаток заменяется переданным значением */
+    ABSOLUTE,
+    /** К остатку прибавляется переданное значение (может быть отрицательным) */
+    DELTA
+}
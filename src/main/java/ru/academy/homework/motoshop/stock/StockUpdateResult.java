@@ -0,0 +1,48 @@
+package ru.academy.homework.motoshop.stock;
+
+/**
+ * Результат одного элемента пакета. Остаток и доступность — значения после
+ * применения всего пакета.
+ */
+public class StockUpdateResult {
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        REJECTED
+    }
+
+    private final Long productId;
+    private final Status status;
+    private final Integer stockQuantity;
+    private final Boolean available;
+    private final String message;
+
+    StockUpdateResult(Long productId, Status status, Integer stockQuantity, Boolean available, String message) {
+        this.productId = productId;
+        this.status = status;
+        this.stockQuantity = stockQuantity;
+        this.available = available;
+        this.message = message;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
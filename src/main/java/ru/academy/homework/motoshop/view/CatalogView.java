@@ -0,0 +1,32 @@
+package ru.academy.homework.motoshop.view;
+
+import java.util.List;
+
+/**
+ * Все данные страницы каталога, прочитанные одной транзакцией.
+ */
+public class CatalogView {
+
+    private final List<ProductCardView> products;
+    private final List<CategoryView> categories;
+    private final CategoryView selectedCategory;
+
+    public CatalogView(List<ProductCardView> products, List<CategoryView> categories, CategoryView selectedCategory) {
+        this.products = products;
+        this.categories = categories;
+        this.selectedCategory = selectedCategory;
+    }
+
+    public List<ProductCardView> getProducts() {
+        return products;
+    }
+
+    public List<CategoryView> getCategories() {
+        return categories;
+    }
+
+    /** Выбранная категория или {@code null}, если показан весь каталог */
+    public CategoryView getSelectedCategory() {
+        return selectedCategory;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.academy.homework.motoshop.view;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.academy.homework.motoshop.repository.CategoryRepository;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Модели представления для Thymeleaf-страниц.
+ *
+ * <p>Open-session-in-view выключен, поэтому соединение с базой занято только на время
+ * метода этого сервиса, а не на всю отрисовку шаблона. Каждый метод собирает все данные
+ * страницы в одной транзакции только для чтения и возвращает проекции без ссылок на
+ * сущности: после выхода из контроллера шаблону нечего загружать лениво.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class CatalogViewService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Autowired
+    public CatalogViewService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    public List<CategoryView> getCategories() {
+        return categoryRepository.findAllViews();
+    }
+
+    /**
+     * Страница каталога: товары, список категорий и выбранная категория.
+     *
+     * @param categoryId категория или {@code null} для всего каталога
+     * @throws IllegalArgumentException если категория не найдена
+     */
+    public CatalogView getCatalog(Long categoryId) {
+        List<CategoryView> categories = categoryRepository.findAllViews();
+        if (categoryId == null) {
+            return new CatalogView(productRepository.findAllCards(), categories, null);
+        }
+
+        CategoryView selected = categories.stream()
+                .filter(category -> category.getId().equals(categoryId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Категория не найдена с id: " + categoryId));
+        return new CatalogView(productRepository.findCardsByCategoryId(categoryId), categories, selected);
+    }
+
+    public Optional<ProductCardView> getProduct(Long id) {
+        return productRepository.findCardById(id);
+    }
+
+    public Page<ProductCardView> getProductPage(Pageable pageable) {
+        return productRepository.findCards(pageable);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.academy.homework.motoshop.view;
+
+/**
+ * Категория для страниц каталога. Собирается запросом-проекцией и не связана
+ * с сессией Hibernate, поэтому шаблон не может вызвать ленивую загрузку.
+ */
+public class CategoryView {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String imageUrl;
+
+    public CategoryView(Long id, String name, String description, String imageUrl) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.imageUrl = imageUrl;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
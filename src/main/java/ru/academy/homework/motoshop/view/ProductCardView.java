@@ -0,0 +1,98 @@
+package ru.academy.homework.motoshop.view;
+
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.review.ProductRatingView;
+
+/**
+ * Карточка товара для страниц каталога, товара и админки.
+ *
+ * <p>Название категории и накопленный рейтинг читаются тем же запросом через LEFT JOIN,
+ * поэтому при отрисовке списка не выполняется ни одного дополнительного запроса.</p>
+ */
+public class ProductCardView {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Money price;
+    private final Integer stockQuantity;
+    private final Boolean available;
+    private final String brand;
+    private final String model;
+    private final String imageUrl;
+    private final Long categoryId;
+    private final String categoryName;
+    private final long ratingCount;
+    private final Double averageRating;
+
+    public ProductCardView(Long id, String name, String description, Money price, Integer stockQuantity,
+                           Boolean available, String brand, String model, String imageUrl,
+                           Long categoryId, String categoryName, Long ratingCount, Long ratingSum) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.available = available;
+        this.brand = brand;
+        this.model = model;
+        this.imageUrl = imageUrl;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.ratingCount = ratingCount != null ? ratingCount : 0;
+        this.averageRating = ProductRatingView.average(this.ratingCount, ratingSum != null ? ratingSum : 0);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    /** Средняя оценка или {@code null}, если отзывов нет */
+    public Double getAverageRating() {
+        return averageRating;
+    }
+}
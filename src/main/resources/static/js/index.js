@@ -0,0 +1,148 @@
+let authCheckInterval;
+
+document.addEventListener('DOMContentLoaded', function () {
+    checkAuthStatus();
+
+    // Запускаем периодическую проверку и сохраняем ID интервала
+    authCheckInterval = setInterval(checkAuthStatus, 30000);
+
+    // Показываем сообщение о выходе, если есть параметр
+    const urlParams = new URLSearchParams(window.location.search);
+    if (urlParams.has('logout')) {
+        showLogoutMessage();
+        // Убираем параметр из URL
+        window.history.replaceState({}, document.title, window.location.pathname);
+    }
+});
+
+
+async function checkAuthStatus() {
+    try {
+        // Добавляем timestamp для предотвращения кэширования
+        const response = await fetch('/api/auth/validate?t=' + Date.now(), {
+            headers: {
+                'Cache-Control': 'no-cache'
+            },
+            credentials: 'include'
+        });
+
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+
+        const data = await response.json();
+        console.log('Auth response:', data);
+
+        // Проверяем несколько возможных форматов ответа
+        const isAuthenticated = data.status === 'valid' || data.authenticated === true;
+
+        if (isAuthenticated) {
+            const username = data.username || data.user || 'Пользователь';
+            showAuthenticatedUI(username);
+
+            // ТОЛЬКО если мы не на главной странице И не в процессе выхода
+            const currentPath = window.location.pathname;
+            if (currentPath !== '/' && !currentPath.includes('/index')) {
+                const isAdmin = data.roles && data.roles.some(role =>
+                    role.includes('ADMIN') || role.includes('ROLE_ADMIN'));
+                const isModerator = data.roles && data.roles.some(role =>
+                    role.includes('MODERATOR') || role.includes('ROLE_MODERATOR'));
+
+                if (isAdmin && !currentPath.includes('/admin')) {
+                    console.log('Redirecting admin to dashboard');
+                    window.location.href = '/admin/dashboard';
+                } else if (isModerator && !currentPath.includes('/moderator')) {
+                    console.log('Redirecting moderator to dashboard');
+                    window.location.href = '/moderator/dashboard';
+                }
+            }
+        } else {
+            showNotAuthenticatedUI();
+        }
+    } catch (error) {
+        console.log('Auth check failed:', error);
+        showNotAuthenticatedUI();
+    }
+}
+
+function showAuthenticatedUI(username) {
+    document.getElementById('auth-authenticated').style.display = 'flex';
+    document.getElementById('auth-not-authenticated').style.display = 'none';
+    document.getElementById('username').textContent = username;
+}
+
+function showNotAuthenticatedUI() {
+    document.getElementById('auth-authenticated').style.display = 'none';
+    document.getElementById('auth-not-authenticated').style.display = 'flex';
+}
+
+function logout(event) {
+    event.preventDefault();
+
+    if (confirm('Вы уверены, что хотите выйти?')) {
+        // НЕМЕДЛЕННО показываем UI неаутентифицированного пользователя
+        showNotAuthenticatedUI();
+
+        // Останавливаем интервал проверки авторизации
+        if (authCheckInterval) {
+            clearInterval(authCheckInterval);
+        }
+
+        // Очищаем хранилища
+        localStorage.clear();
+        sessionStorage.clear();
+
+        // Делаем запрос на выход
+        fetch('/api/auth/logout', {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                'Cache-Control': 'no-cache'
+            },
+            credentials: 'include'
+        })
+            .then(response => {
+                console.log('Logout response status:', response.status);
+                // Редирект на главную с параметром
+                window.location.href = '/?logout=true&t=' + Date.now();
+            })
+            .catch(error => {
+                console.error('Logout error:', error);
+                // Все равно делаем редирект
+                window.location.href = '/?logout=true&t=' + Date.now();
+            });
+    }
+}
+
+function clearAllIntervals() {
+    const maxIntervalId = setTimeout(() => {
+    }, 0);
+    for (let i = 1; i < maxIntervalId; i++) {
+        clearInterval(i);
+    }
+}
+
+function clearAllStorages() {
+    localStorage.clear();
+    sessionStorage.clear();
+
+    // Пытаемся очистить куки (если не httpOnly)
+    document.cookie.split(";").forEach(function (c) {
+        document.cookie = c.replace(/^ +/, "").replace(/=.*/, "=;expires=" + new Date().toUTCString() + ";path=/");
+    });
+
+    function showLogoutMessage() {
+        const message = document.createElement('div');
+        message.className = 'logout-message';
+        message.textContent = 'Вы успешно вышли из системы';
+        document.body.appendChild(message);
+
+        setTimeout(() => {
+            if (message.parentNode) {
+                message.parentNode.removeChild(message);
+            }
+        }, 3000);
+    }
+}
+
+
@@ -0,0 +1,121 @@
+function viewProduct(productId) {
+    window.location.href = '/product?id=' + productId;
+}
+
+function editProduct(productId) {
+    alert('Редактирование продукта ' + productId);
+    // window.location.href = '/edit-product?id=' + productId;
+}
+
+function createNewProduct() {
+    alert('Создание нового продукта');
+    // window.location.href = '/create-product';
+}
+
+function clearFilters() {
+    window.location.href = '/catalog';
+}
+
+
+function formatPrice(price) {
+    return new Intl.NumberFormat('ru-RU', {
+        style: 'currency',
+        currency: 'RUB'
+    }).format(price);
+}
+let authCheckInterval;
+
+document.addEventListener('DOMContentLoaded', function() {
+    checkAuthStatus();
+    authCheckInterval = setInterval(checkAuthStatus, 30000);
+});
+
+async function checkAuthStatus() {
+    try {
+        const response = await fetch('/api/auth/validate?t=' + Date.now(), {
+            headers: {
+                'Cache-Control': 'no-cache'
+            },
+            credentials: 'include'
+        });
+
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+
+        const data = await response.json();
+        const isAuthenticated = data.status === 'valid' || data.authenticated === true;
+
+        if (isAuthenticated) {
+            const username = data.username || data.user || 'Пользователь';
+            showAuthenticatedUI(username);
+        } else {
+            showNotAuthenticatedUI();
+        }
+    } catch (error) {
+        console.log('Auth check failed:', error);
+        showNotAuthenticatedUI();
+    }
+}
+
+function showAuthenticatedUI(username) {
+    document.getElementById('auth-authenticated').style.display = 'flex';
+    document.getElementById('auth-not-authenticated').style.display = 'none';
+    document.getElementById('username').textContent = username;
+}
+
+function showNotAuthenticatedUI() {
+    document.getElementById('auth-authenticated').style.display = 'none';
+    document.getElementById('auth-not-authenticated').style.display = 'flex';
+}
+
+async function logout(event) {
+    event.preventDefault();
+
+    if (confirm('Вы уверены, что хотите выйти?')) {
+        // Немедленно показываем UI неаутентифицированного пользователя
+        showNotAuthenticatedUI();
+
+        // Останавливаем интервал проверки
+        if (authCheckInterval) {
+            clearInterval(authCheckInterval);
+        }
+
+        try {
+            const response = await fetch('/api/auth/logout', {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                    'Cache-Control': 'no-cache'
+                },
+                credentials: 'include'
+            });
+
+            console.log('Logout response status:', response.status);
+            // Редирект на текущую страницу с параметром logout
+            window.location.href = window.location.pathname + '?logout=true&t=' + Date.now();
+        } catch (error) {
+            console.error('Logout error:', error);
+            window.location.href = window.location.pathname + '?logout=true&t=' + Date.now();
+        }
+    }
+}
+
+// Показываем сообщение о выходе если есть параметр
+const urlParams = new URLSearchParams(window.location.search);
+if (urlParams.has('logout')) {
+    showLogoutMessage();
+}
+
+function showLogoutMessage() {
+    const message = document.createElement('div');
+    message.className = 'logout-message';
+    message.textContent = 'Вы успешно вышли из системы';
+    document.body.appendChild(message);
+
+    setTimeout(() => {
+        if (message.parentNode) {
+            message.parentNode.removeChild(message);
+        }
+    }, 3000);
+}
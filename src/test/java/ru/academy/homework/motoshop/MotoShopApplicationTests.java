@@ -35,5 +35,13 @@ class MotoShopApplicationTests {
                 .andDo(print());
     }
 
+    @Test
+    void actuatorMetricsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
 
 }
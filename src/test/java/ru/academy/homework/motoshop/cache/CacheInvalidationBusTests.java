@@ -0,0 +1,104 @@
+package ru.academy.homework.motoshop.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.academy.homework.motoshop.MotoShopApplication;
+import ru.academy.homework.motoshop.model.Category;
+import ru.academy.homework.motoshop.repository.CategoryRepository;
+import ru.academy.homework.motoshop.services.CategoryService;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Два узла в одном процессе с общей базой: изменение на одном узле вытесняет запись
+ * из кэша другого через таблицу {@code cache_invalidation}.
+ */
+class CacheInvalidationBusTests {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(MotoShopApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:cache-bus;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--motoshop.cache.node-id=" + nodeId,
+                "--motoshop.cache.bus.enabled=true",
+                "--motoshop.cache.bus.flush-interval-ms=20",
+                "--motoshop.cache.bus.poll-interval-ms=50");
+    }
+
+    @Test
+    void updateOnOneNodeEvictsCachedEntityOnAnother() throws InterruptedException {
+        Long id = nodeA.getBean(CategoryRepository.class).findAll().get(0).getId();
+        nodeA.getBean(CategoryRepository.class).findById(id);
+        assertTrue(cached(nodeA, id));
+
+        Category details = new Category(nodeB.getBean(CategoryRepository.class).findById(id).orElseThrow().getName(),
+                "Описание с узла B");
+        nodeB.getBean(CategoryService.class).updateCategory(id, details);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cached(nodeA, id) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertFalse(cached(nodeA, id), "Узел A не получил инвалидацию");
+        assertEquals("Описание с узла B",
+                nodeA.getBean(CategoryRepository.class).findById(id).orElseThrow().getDescription());
+
+        Timer delay = nodeA.getBean(MeterRegistry.class).find("motoshop.cache.invalidation.delay")
+                .tag("transport", "outbox").timer();
+        assertNotNull(delay);
+        assertTrue(delay.count() > 0);
+    }
+
+    @Test
+    void coalescesMessagesPerEntityAndFallsBackToWholeRegion() {
+        InvalidationCoalescer coalescer = new InvalidationCoalescer(3);
+        assertFalse(coalescer.add(new CacheInvalidation("n", "Product", Set.of(1L)), 100));
+        assertTrue(coalescer.add(new CacheInvalidation("n", "Product", Set.of(2L)), 200));
+        assertFalse(coalescer.add(new CacheInvalidation("n", "Category", Set.of(7L)), 300));
+
+        List<InvalidationCoalescer.Entry> entries = coalescer.drain();
+        assertEquals(2, entries.size());
+        InvalidationCoalescer.Entry product = entries.stream()
+                .filter(entry -> entry.invalidation().getEntityName().equals("Product")).findFirst().orElseThrow();
+        assertEquals(Set.of(1L, 2L), product.invalidation().getIds());
+        assertEquals(100, product.publishedAt());
+        assertTrue(coalescer.isEmpty());
+
+        coalescer.add(new CacheInvalidation("n", "Product", Set.of(1L, 2L, 3L)), 400);
+        coalescer.add(new CacheInvalidation("n", "Product", Set.of(4L)), 500);
+        assertTrue(coalescer.drain().get(0).invalidation().isWholeRegion());
+    }
+
+    private static boolean cached(ConfigurableApplicationContext node, Long id) {
+        return node.getBean(EntityManagerFactory.class).getCache().contains(Category.class, id);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.academy.homework.motoshop.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.academy.homework.motoshop.model.Category;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.repository.CategoryRepository;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.stock.StockBatchRequest;
+import ru.academy.homework.motoshop.stock.StockBatchService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SecondLevelCacheTests {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheInvalidationChannel channel;
+
+    @Autowired
+    private SecondLevelCacheInvalidator invalidator;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockBatchService stockBatchService;
+
+    @Test
+    void remoteInvalidationEvictsCachedCategory() {
+        Long id = categoryRepository.findAll().get(0).getId();
+        categoryRepository.findById(id);
+        assertTrue(cached(Category.class, id));
+
+        // Собственные сообщения узел пропускает: кэш он уже обновил сам
+        channel.publish(new CacheInvalidation(invalidator.getNodeId(), Category.class.getName(), Set.of(id)));
+        assertTrue(cached(Category.class, id));
+
+        channel.publish(new CacheInvalidation("other-node", Category.class.getName(), Set.of(id)));
+        assertFalse(cached(Category.class, id));
+    }
+
+    @Test
+    void jdbcStockUpdateEvictsOnlyChangedProductAndNotifiesOtherNodes() {
+        List<Product> products = productRepository.findAll();
+        Long changed = products.get(0).getId();
+        Long untouched = products.get(1).getId();
+        productRepository.findById(changed);
+        productRepository.findById(untouched);
+        assertTrue(cached(Product.class, changed));
+        assertTrue(cached(Product.class, untouched));
+
+        List<CacheInvalidation> published = new CopyOnWriteArrayList<>();
+        channel.subscribe(published::add);
+
+        StockBatchRequest request = new StockBatchRequest();
+        request.setUpdates(List.of(new StockBatchRequest.Item(changed, 1, null)));
+        stockBatchService.applyBatch(request);
+
+        assertFalse(cached(Product.class, changed));
+        assertTrue(cached(Product.class, untouched));
+        assertTrue(published.stream().anyMatch(invalidation ->
+                invalidation.getEntityName().equals(Product.class.getName())
+                        && invalidation.getIds().equals(Set.of(changed))));
+    }
+
+    private boolean cached(Class<?> entityClass, Long id) {
+        return entityManagerFactory.getCache().contains(entityClass, id);
+    }
+}
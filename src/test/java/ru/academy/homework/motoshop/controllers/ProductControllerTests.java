@@ -0,0 +1,63 @@
+package ru.academy.homework.motoshop.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.academy.homework.motoshop.model.Category;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.repository.CategoryRepository;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Ответы REST сериализуются после транзакции (open-in-view выключен): категория в них
+ * должна быть загружена сервисом, а не оставаться ленивым прокси.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Экипировка " + System.nanoTime(), null));
+        product = productRepository.save(new Product("Перчатки Held", null, Money.valueOf("4500"), 20, category));
+    }
+
+    @Test
+    void updateReturnsProductWithCategory() throws Exception {
+        mockMvc.perform(put("/products/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Перчатки Held Phantom\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Перчатки Held Phantom"))
+                .andExpect(jsonPath("$.category.name").value(category.getName()));
+    }
+
+    @Test
+    void imageUpdateReturnsProductWithCategory() throws Exception {
+        mockMvc.perform(post("/products/{id}/image", product.getId())
+                        .param("imageUrl", "/images/held-phantom.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrl").value("/images/held-phantom.jpg"))
+                .andExpect(jsonPath("$.category.name").value(category.getName()));
+    }
+}
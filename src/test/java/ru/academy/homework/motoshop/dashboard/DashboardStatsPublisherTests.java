@@ -0,0 +1,125 @@
+package ru.academy.homework.motoshop.dashboard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.academy.homework.motoshop.cache.CacheInvalidationChannel;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.lowstock.LowStockMonitor;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+import ru.academy.homework.motoshop.services.OrderService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DashboardStatsPublisherTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private CacheInvalidationChannel invalidationChannel;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void publishesIncrementalDeltaOnceForAllClients() {
+        RecordingHub hub = new RecordingHub(objectMapper);
+        DashboardStatsPublisher publisher = new DashboardStatsPublisher(jdbcTemplate, hub, lowStockMonitor,
+                invalidationChannel, 1000, 60_000);
+        try {
+            publisher.refresh();
+            DashboardStats before = publisher.getStats();
+            assertNotNull(before);
+            assertEquals(count("users"), before.usersCount());
+            assertEquals(count("orders"), before.ordersCount());
+            assertEquals(count("products"), before.productsCount());
+
+            User user = userRepository.save(new User("dashboard-user", "dashboard@example.com", "secret"));
+            Product product = productRepository.save(new Product("Товар для панели", "",
+                    Money.ofMinor(250_000), 100, null));
+            orderService.checkout(user.getId(), request(product, 2));
+
+            // Без изменений приращение не рассылается
+            publisher.refresh();
+            publisher.refresh();
+
+            List<DashboardStatsDelta> deltas = hub.events("delta");
+            assertEquals(1, deltas.size());
+            DashboardStatsDelta delta = deltas.get(0);
+            assertEquals(1, delta.users());
+            assertEquals(1, delta.products());
+            assertEquals(1, delta.orders());
+            assertEquals(Money.ofMinor(500_000), delta.revenue());
+
+            DashboardStats after = publisher.getStats();
+            assertEquals(before.usersCount() + 1, after.usersCount());
+            assertEquals(before.revenue().plus(Money.ofMinor(500_000)), after.revenue());
+        } finally {
+            publisher.destroy();
+            hub.destroy();
+        }
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static CheckoutRequest request(Product product, int quantity) {
+        CheckoutRequest.Item item = new CheckoutRequest.Item();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        CheckoutRequest request = new CheckoutRequest();
+        request.setItems(List.of(item));
+        request.setShippingAddress("Москва");
+        request.setPhoneNumber("+70000000000");
+        return request;
+    }
+
+    /** Запоминает рассылки вместо отправки клиентам */
+    private static final class RecordingHub extends DashboardStreamHub {
+
+        private final List<Map.Entry<String, Object>> broadcasts = new ArrayList<>();
+
+        RecordingHub(ObjectMapper objectMapper) {
+            super(objectMapper, new SimpleMeterRegistry(), 60_000, 16, 1);
+        }
+
+        @Override
+        public synchronized void broadcast(String name, Object data) {
+            broadcasts.add(Map.entry(name, data));
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized <T> List<T> events(String name) {
+            return broadcasts.stream()
+                    .filter(entry -> entry.getKey().equals(name))
+                    .map(entry -> (T) entry.getValue())
+                    .toList();
+        }
+    }
+}
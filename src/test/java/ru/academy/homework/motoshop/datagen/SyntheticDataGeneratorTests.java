@@ -0,0 +1,89 @@
+package ru.academy.homework.motoshop.datagen;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext
+class SyntheticDataGeneratorTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rowsInsertedConcurrentlyByTheApplicationAreNotTakenForGeneratedOnes() {
+        DataGenerationSettings settings = new DataGenerationSettings();
+        settings.setCategories(5);
+        settings.setBrands(10);
+        settings.setProducts(200);
+        settings.setUsers(50);
+        settings.setOrderItems(1_000);
+        settings.setReviews(100);
+        settings.setBatchSize(64);
+
+        jdbcTemplate.update("INSERT INTO users (username, email, password, enabled) " +
+                "VALUES ('shop-customer', 'customer@motoshop.ru', '{noop}secret', TRUE)");
+        Long customerId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE username = 'shop-customer'", Long.class);
+
+        // Перед каждой записью генератора приложение в своей транзакции создает категорию и заказ
+        JdbcTemplate racing = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) throws DataAccessException {
+                insertConcurrently(customerId);
+                return super.batchUpdate(sql, batchArgs);
+            }
+
+            @Override
+            public <T> T execute(ConnectionCallback<T> action) throws DataAccessException {
+                insertConcurrently(customerId);
+                return super.execute(action);
+            }
+        };
+        new SyntheticDataGenerator(racing, transactionTemplate).generate(settings, "{noop}synthetic");
+
+        assertEquals(1_000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items i " +
+                "JOIN orders o ON o.id = i.order_id WHERE o.customer_name = 'app'", Integer.class));
+        // Сумма каждого сгенерированного заказа совпадает с суммой его позиций
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders o " +
+                "WHERE o.customer_name <> 'app' AND o.total_amount <> " +
+                "(SELECT COALESCE(SUM(i.price * i.quantity), 0) FROM order_items i WHERE i.order_id = o.id)",
+                Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products p " +
+                "JOIN categories c ON c.id = p.category_id WHERE c.name = 'app'", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM review r " +
+                "JOIN users u ON u.id = r.user_id WHERE u.username = 'shop-customer'", Integer.class));
+    }
+
+    private void insertConcurrently(long customerId) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO categories (name) VALUES ('app')");
+            statement.executeUpdate("INSERT INTO orders (user_id, total_amount, status, customer_name) " +
+                    "VALUES (" + customerId + ", 1, 'PENDING', 'app')");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
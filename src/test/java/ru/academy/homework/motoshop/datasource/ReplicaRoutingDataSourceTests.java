@@ -0,0 +1,142 @@
+package ru.academy.homework.motoshop.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTests {
+
+    private static final String SELECT_NAME = "SELECT name FROM products WHERE id = 1";
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database();
+        replica = database();
+        new JdbcTemplate(primary).update("INSERT INTO products (id, name, price) VALUES (1, 'primary', 100)");
+        new JdbcTemplate(replica).update("INSERT INTO products (id, name, price) VALUES (1, 'replica', 100)");
+
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(10_000, clock::get);
+        monitor = new ReplicaLagMonitor(new JdbcTemplate(primary), new JdbcTemplate(replica),
+                5_000, 1_000, tracker, clock::get);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(monitor, tracker, new SimpleMeterRegistry());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRole.PRIMARY, primary);
+        targets.put(DataSourceRole.REPLICA, replica);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        routedJdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    private static EmbeddedDatabase database() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/products-schema.sql")
+                .build();
+        new JdbcTemplate(database).execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        return database;
+    }
+
+    /** Копирует пульс с основной базы на реплику, как это сделала бы репликация */
+    private void replicate() {
+        Long beat = new JdbcTemplate(primary).queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        if (replicaJdbc.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", beat) == 0) {
+            replicaJdbc.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+        }
+    }
+
+    private String readInReadOnlyTransaction() {
+        return readOnly.execute(status -> routedJdbc.queryForObject(SELECT_NAME, String.class));
+    }
+
+    private void syncReplica() {
+        monitor.check();
+        replicate();
+        clock.addAndGet(1_000);
+        monitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaOnlyWhenItIsInSync() {
+        // Реплика еще не проверялась
+        assertEquals("primary", readInReadOnlyTransaction());
+
+        syncReplica();
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals("replica", readInReadOnlyTransaction());
+        assertEquals("primary", readWrite.execute(status -> routedJdbc.queryForObject(SELECT_NAME, String.class)));
+        assertEquals("primary", routedJdbc.queryForObject(SELECT_NAME, String.class));
+
+        // Репликация остановилась: реплика видит пульс семисекундной давности
+        clock.addAndGet(6_000);
+        monitor.check();
+        assertEquals(7_000, monitor.getLagMs());
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", readInReadOnlyTransaction());
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryUntilStickyWindowExpires() {
+        syncReplica();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("rider", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        readWrite.executeWithoutResult(status ->
+                routedJdbc.update("UPDATE products SET name = 'primary-updated' WHERE id = 1"));
+        assertEquals("primary-updated", readInReadOnlyTransaction());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        assertEquals("replica", readInReadOnlyTransaction());
+
+        clock.addAndGet(1_000);
+        monitor.check();
+        replicate();
+        clock.addAndGet(10_000);
+        monitor.check();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("rider", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        assertEquals("replica", readInReadOnlyTransaction());
+    }
+}
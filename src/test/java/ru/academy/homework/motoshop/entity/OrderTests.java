@@ -0,0 +1,52 @@
+package ru.academy.homework.motoshop.entity;
+
+import org.junit.jupiter.api.Test;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTests {
+
+    @Test
+    void maintainsExactTotalAndMergesLinesOfSameProduct() {
+        Product first = product(1L, "0.1");
+        Product second = product(2L, "0.2");
+
+        Order order = new Order();
+        for (int i = 0; i < 10; i++) {
+            order.addProduct(first, 1);
+        }
+        order.addProduct(second, 1);
+
+                assertEquals(2, order.getOrderItems().size());
+        assertEquals(10, order.getOrderItems().get(0).getQuantity());
+        assertEquals(money("1.2"), order.getTotalAmount());
+
+        OrderItem extra = new OrderItem(null, product(3L, "5.55"), 2, money("5.55"));
+        order.addOrderItem(extra);
+        assertEquals(money("12.3"), order.getTotalAmount());
+
+        order.removeOrderItem(order.getOrderItems().get(0));
+        assertEquals(money("11.3"), order.getTotalAmount());
+        order.removeOrderItem(extra);
+        assertEquals(money("0.2"), order.getTotalAmount());
+
+        // Строка удаленного товара снова создается, а не ищется в индексе
+        order.addProduct(first, 3);
+        assertEquals(2, order.getOrderItems().size());
+        assertEquals(money("0.5"), order.getTotalAmount());
+    }
+
+    private static Product product(Long id, String price) {
+        Product product = new Product("Товар " + id, "", money(price), 10, null);
+        product.setId(id);
+        return product;
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
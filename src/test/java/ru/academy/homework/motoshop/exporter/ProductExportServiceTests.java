@@ -0,0 +1,85 @@
+package ru.academy.homework.motoshop.exporter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductExportServiceTests {
+
+    /** Цена, которую double округлил бы до 12345678901234568 */
+    private static final String PRICE = "12345678901234567.89";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmbeddedDatabase database;
+    private ProductExportService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/products-schema.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("INSERT INTO products (name, sku, price, stock_quantity, available) " +
+                "VALUES ('Мотоцикл', 'BIKE-1', " + PRICE + ", 1, TRUE)");
+        jdbcTemplate.update("INSERT INTO products (name, sku, price, stock_quantity, available) " +
+                "VALUES ('Перчатки', 'GLOVES-1', 2500.50, 3, TRUE)");
+
+        service = new ProductExportService(jdbcTemplate, objectMapper);
+        ReflectionTestUtils.setField(service, "rowGroupSize", 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void csvKeepsExactPrices() throws IOException {
+        String[] lines = export(ExportFormat.CSV).split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertEquals(PRICE, lines[1].split(",")[4]);
+        assertEquals("2500.50", lines[2].split(",")[4]);
+    }
+
+    @Test
+    void jsonLinesKeepExactPrices() throws IOException {
+        String[] lines = export(ExportFormat.JSONL).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"price\":" + PRICE + ","), lines[0]);
+        assertTrue(lines[1].contains("\"price\":2500.50,"), lines[1]);
+    }
+
+    @Test
+    void columnarDeclaresDecimalPriceColumn() throws IOException {
+        String[] lines = export(ExportFormat.COLUMNAR).split("\n");
+
+        JsonNode schema = objectMapper.readTree(lines[0]);
+        assertEquals("price", schema.get("columns").get(4).get("name").asText());
+        assertEquals("decimal", schema.get("columns").get(4).get("type").asText());
+        assertTrue(lines[1].contains("\"price\":[" + PRICE + ",2500.50]"), lines[1]);
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(2, service.export(format, output));
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.academy.homework.motoshop.fulfillment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.academy.homework.motoshop.entity.OrderStatus;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+import ru.academy.homework.motoshop.services.OrderService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderLifecycleServiceTests {
+
+    @Autowired
+    private OrderLifecycleService orderLifecycleService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void appliesValidTransitionsWritesHistoryAndReleasesStockOnCancel() {
+        User user = userRepository.save(new User("lifecycle-user", "lifecycle@example.com", "secret"));
+        Product product = productRepository.findAll().get(0);
+        int stockBefore = product.getStockQuantity();
+
+        Long shipped = checkout(user, product, 1);
+        Long cancelled = checkout(user, product, 2);
+        assertEquals(stockBefore - 3, stock(product));
+
+        OrderTransitionReport confirm = orderLifecycleService.transition(
+                new OrderTransitionRequest(OrderStatus.CONFIRMED, List.of(cancelled, shipped, -1L, shipped)));
+        assertEquals(2, confirm.getUpdated());
+        assertEquals(1, confirm.getNotFound());
+        assertEquals(List.of(cancelled, shipped, -1L),
+                confirm.getResults().stream().map(OrderTransitionResult::getOrderId).toList());
+
+        orderLifecycleService.transition(new OrderTransitionRequest(OrderStatus.SHIPPED, List.of(shipped)));
+
+        OrderTransitionReport cancel = orderLifecycleService.transition(
+                new OrderTransitionRequest(OrderStatus.CANCELLED, List.of(shipped, cancelled)));
+        assertEquals(OrderTransitionResult.Status.REJECTED, cancel.getResults().get(0).getStatus());
+        assertEquals(OrderStatus.SHIPPED, cancel.getResults().get(0).getPreviousStatus());
+        assertEquals(OrderTransitionResult.Status.UPDATED, cancel.getResults().get(1).getStatus());
+        assertEquals(2, cancel.getReleasedUnits());
+        assertEquals(stockBefore - 1, stock(product));
+
+        // Повтор отмены ничего не меняет и остаток второй раз не возвращает
+        OrderTransitionReport repeat = orderLifecycleService.transition(
+                new OrderTransitionRequest(OrderStatus.CANCELLED, List.of(cancelled)));
+        assertEquals(1, repeat.getUnchanged());
+        assertEquals(stockBefore - 1, stock(product));
+
+        assertEquals(List.of("PENDING>CONFIRMED", "CONFIRMED>CANCELLED"), jdbcTemplate.queryForList(
+                "SELECT from_status || '>' || to_status FROM order_status_history WHERE order_id = ? ORDER BY id",
+                String.class, cancelled));
+        assertEquals("SHIPPED", jdbcTemplate.queryForObject(
+                "SELECT status FROM orders WHERE id = ?", String.class, shipped));
+    }
+
+    private Long checkout(User user, Product product, int quantity) {
+        CheckoutRequest.Item item = new CheckoutRequest.Item();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        CheckoutRequest request = new CheckoutRequest();
+        request.setItems(List.of(item));
+        request.setShippingAddress("Москва");
+        request.setPhoneNumber("+70000000000");
+        return orderService.checkout(user.getId(), request).getId();
+    }
+
+    private int stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+                Integer.class, product.getId());
+    }
+}
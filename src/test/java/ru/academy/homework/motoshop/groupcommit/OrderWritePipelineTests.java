@@ -0,0 +1,182 @@
+package ru.academy.homework.motoshop.groupcommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+import ru.academy.homework.motoshop.services.OrderService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderWritePipelineTests {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void commitsConcurrentCheckoutsTogetherAndIsolatesFailedOne() throws Exception {
+        User user = userRepository.save(new User("group-commit-user", "group-commit@example.com", "secret"));
+        Product product = productRepository.save(new Product("Товар для групповой фиксации", "",
+                Money.ofMinor(100_000), 100, null));
+        int stockBefore = stock(product);
+
+        // Длинное окно сбора, чтобы все оформления попали в один пакет
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OrderWritePipeline pipeline = new OrderWritePipeline(transactionTemplate, meterRegistry, true, 50, 300, 1, 100);
+        applicationContext.getAutowireCapableBeanFactory().autowireBean(pipeline);
+        pipeline.start();
+
+        int orders = 8;
+        ExecutorService callers = Executors.newFixedThreadPool(orders);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < orders; i++) {
+                Long productId = i == 3 ? -1L : product.getId();
+                results.add(callers.submit(() -> {
+                    ready.await();
+                    return pipeline.write(() -> orderService.checkout(user.getId(), request(productId)).getId());
+                }));
+            }
+            ready.countDown();
+
+            int placed = 0;
+            for (int i = 0; i < orders; i++) {
+                if (i == 3) {
+                    Exception error = assertThrows(Exception.class, results.get(i)::get);
+                    assertInstanceOf(IllegalArgumentException.class, error.getCause());
+                } else {
+                    assertNotNull(results.get(i).get());
+                    placed++;
+                }
+            }
+
+            assertEquals(orders - 1, placed);
+            assertEquals(stockBefore - placed, stock(product));
+            assertEquals(placed, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM orders WHERE user_id = ?", Integer.class, user.getId()));
+            assertEquals(1, meterRegistry.get("motoshop.orders.group-commit.batch").summary().count());
+            assertEquals(1.0, meterRegistry.get("motoshop.orders.group-commit.retries").counter().count());
+        } finally {
+            callers.shutdownNow();
+            pipeline.destroy();
+        }
+    }
+
+    @Test
+    void retriesWholeBatchAfterCrossBatchDeadlock() throws Exception {
+        Product first = productRepository.save(new Product("Товар для взаимоблокировки 1", "",
+                Money.ofMinor(100_000), 100, null));
+        Product second = productRepository.save(new Product("Товар для взаимоблокировки 2", "",
+                Money.ofMinor(100_000), 100, null));
+
+        // Два конвейера по одному писателю дают два предсказуемых пакета:
+        // [A: second, B: first] и [C: first, D: second] — встречный порядок блокировок
+        MeterRegistry leftMetrics = new SimpleMeterRegistry();
+        MeterRegistry rightMetrics = new SimpleMeterRegistry();
+        OrderWritePipeline left = new OrderWritePipeline(transactionTemplate, leftMetrics, true, 2, 2000, 1, 100);
+        OrderWritePipeline right = new OrderWritePipeline(transactionTemplate, rightMetrics, true, 2, 2000, 1, 100);
+        applicationContext.getAutowireCapableBeanFactory().autowireBean(left);
+        applicationContext.getAutowireCapableBeanFactory().autowireBean(right);
+        left.start();
+        right.start();
+
+        // Первые заявки пакетов захватывают по строке и ждут друг друга, вторые идут навстречу
+        CyclicBarrier bothLocked = new CyclicBarrier(2);
+        AtomicBoolean firstAttempt = new AtomicBoolean(true);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<Integer> a = callers.submit(() -> left.write(() -> lockThenMeet(second, bothLocked, firstAttempt)));
+            Future<Integer> c = callers.submit(() -> right.write(() -> lockThenMeet(first, bothLocked, firstAttempt)));
+            Thread.sleep(200);
+            Future<Integer> b = callers.submit(() -> left.write(() -> decrement(first)));
+            Future<Integer> d = callers.submit(() -> right.write(() -> decrement(second)));
+
+            // Ни одна заявка не получает ошибку чужой взаимоблокировки
+            for (Future<Integer> result : List.of(a, b, c, d)) {
+                assertEquals(1, result.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(98, stock(first));
+            assertEquals(98, stock(second));
+            double conflicts = leftMetrics.get("motoshop.orders.group-commit.lock-conflicts").counter().count()
+                    + rightMetrics.get("motoshop.orders.group-commit.lock-conflicts").counter().count();
+            assertTrue(conflicts >= 1);
+            assertEquals(0.0, leftMetrics.get("motoshop.orders.group-commit.retries").counter().count());
+            assertEquals(0.0, rightMetrics.get("motoshop.orders.group-commit.retries").counter().count());
+        } finally {
+            callers.shutdownNow();
+            left.destroy();
+            right.destroy();
+        }
+    }
+
+    private int lockThenMeet(Product product, CyclicBarrier barrier, AtomicBoolean firstAttempt) {
+        int updated = decrement(product);
+        if (firstAttempt.get()) {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            firstAttempt.set(false);
+        }
+        return updated;
+    }
+
+    private int decrement(Product product) {
+        return jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity - 1 WHERE id = ?",
+                product.getId());
+    }
+
+    private static CheckoutRequest request(Long productId) {
+        CheckoutRequest.Item item = new CheckoutRequest.Item();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        CheckoutRequest request = new CheckoutRequest();
+        request.setItems(List.of(item));
+        request.setShippingAddress("Москва");
+        request.setPhoneNumber("+70000000000");
+        return request;
+    }
+
+    private int stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+                Integer.class, product.getId());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.academy.homework.motoshop.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.groupcommit.OrderWritePipeline;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.payload.request.CheckoutRequest;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+import ru.academy.homework.motoshop.services.OrderService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class IdempotentCheckoutServiceTests {
+
+    @Autowired
+    private IdempotentCheckoutService checkoutService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderWritePipeline writePipeline;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void retryReturnsStoredOrderWithoutSecondStockDecrement() {
+        User user = userRepository.save(new User("idempotent-user", "idempotent@example.com", "secret"));
+        Product product = productRepository.findAll().get(0);
+        int stockBefore = stock(product);
+
+        CheckoutResult first = checkoutService.checkout(user.getId(), "retry-1", request(product, 2));
+        assertFalse(first.replayed());
+
+        CheckoutResult retry = checkoutService.checkout(user.getId(), "retry-1", request(product, 2));
+        assertTrue(retry.replayed());
+        assertEquals(first.orderId(), retry.orderId());
+        assertEquals(stockBefore - 2, stock(product));
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> checkoutService.checkout(user.getId(), "retry-1", request(product, 3)));
+
+        // Другой узел без записи в кэше: его попытка откатывается на ключе, ответ собирается из таблицы
+        IdempotentCheckoutService otherNode = new IdempotentCheckoutService(orderService, jdbcTemplate,
+                writePipeline, meterRegistry, 60_000, 100, 60_000);
+        CheckoutResult fromTable = otherNode.checkout(user.getId(), "retry-1", request(product, 2));
+        assertTrue(fromTable.replayed());
+        assertEquals(first.orderId(), fromTable.orderId());
+        assertEquals(first.totalAmount(), fromTable.totalAmount());
+        assertEquals(1, fromTable.items());
+        assertEquals(stockBefore - 2, stock(product));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE user_id = ?", Integer.class, user.getId()));
+    }
+
+    private static CheckoutRequest request(Product product, int quantity) {
+        CheckoutRequest.Item item = new CheckoutRequest.Item();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        CheckoutRequest request = new CheckoutRequest();
+        request.setItems(List.of(item));
+        request.setShippingAddress("Москва");
+        request.setPhoneNumber("+70000000000");
+        return request;
+    }
+
+    private int stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+                Integer.class, product.getId());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.academy.homework.motoshop.importer;
+
+import org.junit.jupiter.api.Test;
+import ru.academy.homework.motoshop.money.Money;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvProductRowReaderTests {
+
+    private static CsvProductRowReader reader(String csv) throws IOException {
+        return new CsvProductRowReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void parsesQuotedFieldsWithDelimitersQuotesAndNewlines() throws IOException {
+        String csv = "\uFEFFsku;name;description;price;stock_quantity;category\r\n" +
+                "AGV-K6;Шлем AGV K6;\"Карбон; \"\"легкий\"\"\nвторая строка\";45000,50;5;Шлем\r\n" +
+                "\r\n" +
+                "TCX-1;Ботинки TCX;;16000;0;Обувь\n";
+
+        try (CsvProductRowReader reader = reader(csv)) {
+            ProductImportRow first = reader.next();
+            assertNull(first.validate());
+            assertEquals(2, first.getRowNumber());
+            assertEquals("AGV-K6", first.getSku());
+            assertEquals("Карбон; \"легкий\"\nвторая строка", first.getDescription());
+            assertEquals(Money.of(new BigDecimal("45000.50")), first.getPrice());
+            assertEquals(5, first.getStockQuantity());
+            assertEquals("Шлем", first.getCategoryName());
+
+            ProductImportRow second = reader.next();
+            assertEquals(5, second.getRowNumber());
+            assertNull(second.getDescription());
+            assertEquals(0, second.getStockQuantity());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void reportsRowErrorsWithoutStoppingTheFile() throws IOException {
+        String csv = "sku,name,price\n" +
+                "A-1,Перчатки,abc\n" +
+                "A-2,Перчатки\n" +
+                ",Без артикула,100\n" +
+                "A-3,Куртка,25000\n";
+
+        try (CsvProductRowReader reader = reader(csv)) {
+            assertTrue(reader.next().validate().contains("price"));
+            assertTrue(reader.next().validate().contains("колонок"));
+            assertNotNull(reader.next().validate());
+            assertNull(reader.next().validate());
+            assertNull(reader.next());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.academy.homework.motoshop.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImportServiceTests {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/products-schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Шлем')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void insertsNewSkusAndUpdatesExistingOnes() throws IOException {
+        ProductImportService service = service(new NamedParameterJdbcTemplate(database));
+
+        ProductImportReport first = importCsv(service, "sku;name;price;stock_quantity;category\n" +
+                "AGV-K6;Шлем AGV K6;45000;5;Шлем\n" +
+                "TCX-1;Ботинки TCX;16000;0;\n");
+        assertEquals(2, first.getInserted());
+        assertEquals(0, first.getUpdated());
+
+        ProductImportReport second = importCsv(service, "sku;name;price\n" +
+                "AGV-K6;Шлем AGV K6 Carbon;47000\n" +
+                "SHOEI-1;Шлем Shoei;52000\n");
+        assertEquals(1, second.getInserted());
+        assertEquals(1, second.getUpdated());
+
+        // Остаток и категория без колонок в файле не меняются
+        Map<String, Object> updated = jdbcTemplate.queryForMap(
+                "SELECT name, stock_quantity, category_id FROM products WHERE sku = 'AGV-K6'");
+        assertEquals("Шлем AGV K6 Carbon", updated.get("NAME"));
+        assertEquals(5, updated.get("STOCK_QUANTITY"));
+        assertEquals(1L, ((Number) updated.get("CATEGORY_ID")).longValue());
+        assertEquals(3, count());
+    }
+
+    @Test
+    void skuInsertedConcurrentlyAfterLookupIsUpdatedNotDuplicated() throws IOException {
+        // Параллельная транзакция вставляет артикул сразу после поиска существующих
+        AtomicBoolean raced = new AtomicBoolean();
+        NamedParameterJdbcTemplate racing = new NamedParameterJdbcTemplate(database) {
+            @Override
+            public <T> List<T> queryForList(String sql, Map<String, ?> paramMap, Class<T> elementType) {
+                List<T> result = super.queryForList(sql, paramMap, elementType);
+                if (raced.compareAndSet(false, true)) {
+                    // Отдельное соединение вне транзакции импорта, фиксируется сразу
+                    try (Connection connection = database.getConnection();
+                         Statement statement = connection.createStatement()) {
+                        statement.executeUpdate("INSERT INTO products (name, sku, price, stock_quantity, available) " +
+                                "VALUES ('Из другого импорта', 'RACE-1', 100, 1, TRUE)");
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return result;
+            }
+        };
+
+        ProductImportReport report = importCsv(service(racing), "sku;name;price;stock_quantity\n" +
+                "RACE-1;Шлем из файла;45000;3\n" +
+                "RACE-2;Куртка из файла;30000;2\n");
+
+        assertTrue(raced.get());
+        assertEquals(0, report.getFailed());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE sku = 'RACE-1'", Integer.class));
+        assertEquals("Шлем из файла", jdbcTemplate.queryForObject(
+                "SELECT name FROM products WHERE sku = 'RACE-1'", String.class));
+
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO products (name, sku, price) VALUES ('Дубликат', 'RACE-2', 1)"));
+    }
+
+    private ProductImportService service(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        return new ProductImportService(jdbcTemplate, namedParameterJdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(database)), new ObjectMapper());
+    }
+
+    private static ProductImportReport importCsv(ProductImportService service, String csv) throws IOException {
+        return service.importProducts(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                ImportFormat.CSV, 100);
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+    }
+}
@@ -0,0 +1,156 @@
+package ru.academy.homework.motoshop.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузочный прогон "N одновременных пользователей" против запущенного приложения.
+ *
+ * <p>Каждый пользователь по кругу запрашивает страницы каталога и API, отправляя следующий
+ * запрос сразу после ответа на предыдущий (замкнутая модель). Клиент асинхронный, поэтому
+ * 2000 пользователей не требуют 2000 клиентских потоков и не искажают замер.</p>
+ *
+ * <p>Для сравнения режимов приложение запускается дважды — обычным образом и с профилем
+ * {@code virtual-threads} — и прогон повторяется с одинаковыми параметрами:</p>
+ * <pre>
+ * java -cp target/test-classes ru.academy.homework.motoshop.loadtest.ConcurrentUsersLoadRunner \
+ *      http://localhost:8080 2000 60 platform
+ * java -cp target/test-classes ru.academy.homework.motoshop.loadtest.ConcurrentUsersLoadRunner \
+ *      http://localhost:8080 2000 60 virtual
+ * </pre>
+ *
+ * <p>Каждый прогон дописывает строку с меткой режима в {@code target/concurrent-users-results.csv},
+ * чтобы результаты обоих режимов лежали рядом.</p>
+ */
+public final class ConcurrentUsersLoadRunner {
+
+    private static final Path RESULTS = Paths.get("target", "concurrent-users-results.csv");
+
+    private static final List<String> PATHS = List.of(
+            "/catalog",
+            "/products?page=0&size=12",
+            "/products/search?name=%D0%A8%D0%BB%D0%B5%D0%BC",
+            "/products/stats"
+    );
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    private ConcurrentUsersLoadRunner(URI baseUri) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        String label = args.length > 3 ? args[3] : "run";
+        int warmupSeconds = Math.min(10, durationSeconds / 5);
+
+        ConcurrentUsersLoadRunner runner = new ConcurrentUsersLoadRunner(URI.create(baseUrl));
+        runner.run(label, users, warmupSeconds, durationSeconds);
+    }
+
+    private void run(String label, int users, int warmupSeconds, int durationSeconds)
+            throws InterruptedException, IOException {
+        System.out.printf("Target: %s, users: %d, warmup: %ds, measurement: %ds%n",
+                baseUri, users, warmupSeconds, durationSeconds);
+
+        CountDownLatch finished = new CountDownLatch(users);
+        for (int i = 0; i < users; i++) {
+            nextRequest(i, finished);
+        }
+
+        Thread.sleep(warmupSeconds * 1000L);
+        reset();
+
+        long start = System.nanoTime();
+        Thread.sleep(durationSeconds * 1000L);
+        long elapsedNanos = System.nanoTime() - start;
+        long done = completed.sum();
+        long failed = errors.sum();
+        long latency = latencyNanos.sum();
+        long maxLatency = maxLatencyNanos.get();
+
+        running = false;
+        finished.await();
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double throughput = done / seconds;
+        double meanMs = done > 0 ? latency / (double) done / 1_000_000 : 0.0;
+        double maxMs = maxLatency / 1_000_000.0;
+        System.out.printf("Requests: %d, errors: %d%n", done, failed);
+        System.out.printf("Throughput: %.1f req/s%n", throughput);
+        System.out.printf("Mean latency: %.1f ms, max: %.1f ms%n", meanMs, maxMs);
+
+        appendResult(String.format(Locale.ROOT, "%s,%d,%.0f,%d,%d,%.1f,%.1f,%.1f",
+                label, users, seconds, done, failed, throughput, meanMs, maxMs));
+    }
+
+    private static void appendResult(String line) throws IOException {
+        Files.createDirectories(RESULTS.getParent());
+        if (Files.notExists(RESULTS)) {
+            Files.writeString(RESULTS, "mode,users,seconds,requests,errors,throughput_rps,mean_ms,max_ms\n",
+                    StandardCharsets.UTF_8);
+        }
+        Files.writeString(RESULTS, line + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        System.out.println("Result appended to " + RESULTS);
+    }
+
+    private void nextRequest(int user, CountDownLatch finished) {
+        if (!running) {
+            finished.countDown();
+            return;
+        }
+
+        String path = PATHS.get((int) ((user + completed.sum()) % PATHS.size()));
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - start;
+                    if (error != null || response.statusCode() >= 400) {
+                        errors.increment();
+                    } else {
+                        completed.increment();
+                        latencyNanos.add(latency);
+                        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                    }
+                    nextRequest(user, finished);
+                });
+    }
+
+    private void reset() {
+        completed.reset();
+        errors.reset();
+        latencyNanos.reset();
+        maxLatencyNanos.set(0);
+    }
+}
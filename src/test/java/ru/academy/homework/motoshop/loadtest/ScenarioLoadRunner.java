@@ -0,0 +1,346 @@
+package ru.academy.homework.motoshop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ru.academy.homework.motoshop.datagen.ZipfSampler;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузочный прогон сценариев с фиксированной интенсивностью поступления (открытая модель).
+ *
+ * <p>Новые сценарии запускаются по расписанию независимо от того, успел ли сервер ответить
+ * на предыдущие, а задержка первого шага отсчитывается от запланированного момента старта.
+ * Поэтому замедление сервера видно в перцентилях, а не маскируется снижением нагрузки,
+ * как в замкнутой модели {@link ConcurrentUsersLoadRunner}.</p>
+ *
+ * <p>Сценарии:</p>
+ * <ul>
+ *   <li>{@code browse} — страница категории, страница API каталога, карточка товара;</li>
+ *   <li>{@code search} — поиск по названию;</li>
+ *   <li>{@code login} — вход через {@code /api/auth/signin};</li>
+ *   <li>{@code checkout} — оформление заказа от имени одного из пользователей, вход выполняется
+ *       один раз на пользователя и токен переиспользуется.</li>
+ * </ul>
+ *
+ * <p>Приложение запускается с профилем {@code loadtest} (встроенная БД с синтетическими
+ * данными, см. application-loadtest.properties), затем:</p>
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=ru.academy.homework.motoshop.loadtest.ScenarioLoadRunner \
+ *     -Dexec.args="baseUrl=http://localhost:8080 duration=60 warmup=10 rates=browse:100,search:30,login:5,checkout:10"
+ * </pre>
+ *
+ * <p>По каждому эндпоинту печатаются p50/p99/p99.9 и максимум; тот же отчет в JSON пишется
+ * в файл {@code report} (по умолчанию {@code target/loadtest-report.json}).</p>
+ */
+public final class ScenarioLoadRunner {
+
+    private static final int CHECKOUT_USERS = 1000;
+
+    private static final String[] SEARCH_BRANDS = {
+            "AGV", "Shoei", "Arai", "HJC", "Alpinestars", "Dainese", "Rev'It", "TCX", "Sidi", "Held"};
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int products;
+    private final int users;
+    private final int categories;
+    private final String password;
+    private final ZipfSampler productSampler;
+    private final ZipfSampler brandSampler;
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Map<Integer, String> tokens = new ConcurrentHashMap<>();
+    private final LongAdder droppedScenarios = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    private volatile boolean measuring;
+
+    private ScenarioLoadRunner(Map<String, String> options) {
+        this.baseUri = URI.create(options.getOrDefault("baseUrl", "http://localhost:8080"));
+        this.products = Integer.parseInt(options.getOrDefault("products", "100000"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "100000"));
+        this.categories = Integer.parseInt(options.getOrDefault("categories", "200"));
+        this.password = options.getOrDefault("password", "loadtest");
+        // Популярные товары и бренды запрашиваются чаще, как в SyntheticDataGenerator
+        this.productSampler = new ZipfSampler(products, Double.parseDouble(options.getOrDefault("skew", "1.0")));
+        this.brandSampler = new ZipfSampler(SEARCH_BRANDS.length, 1.1);
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        Map<String, Double> rates = parseRates(options.getOrDefault("rates", "browse:100,search:30,login:5,checkout:10"));
+        File report = new File(options.getOrDefault("report", "target/loadtest-report.json"));
+
+        new ScenarioLoadRunner(options).run(rates, warmup, duration, report);
+    }
+
+    private static Map<String, Double> parseRates(String value) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            rates.put(pair[0], Double.parseDouble(pair[1]));
+        }
+        return rates;
+    }
+
+    private void run(Map<String, Double> rates, int warmupSeconds, int durationSeconds, File report)
+            throws InterruptedException, IOException {
+        System.out.printf("Target: %s, rates (per second): %s, warmup: %ds, measurement: %ds%n",
+                baseUri, rates, warmupSeconds, durationSeconds);
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(rates.size());
+        long origin = System.nanoTime();
+        for (Map.Entry<String, Double> entry : rates.entrySet()) {
+            String scenario = entry.getKey();
+            long periodNanos = (long) (1_000_000_000L / entry.getValue());
+            AtomicLong sequence = new AtomicLong();
+            // При отставании планировщик запускает пропущенные такты подряд, интенсивность сохраняется
+            scheduler.scheduleAtFixedRate(() -> {
+                long intended = origin + sequence.getAndIncrement() * periodNanos;
+                start(scenario, intended);
+            }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        }
+
+        Thread.sleep(warmupSeconds * 1000L);
+        measuring = true;
+
+        long start = System.nanoTime();
+        Thread.sleep(durationSeconds * 1000L);
+        measuring = false;
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        scheduler.shutdownNow();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        printReport(seconds);
+        writeReport(report, seconds);
+    }
+
+    private void start(String scenario, long intendedStartNanos) {
+        CompletableFuture<?> run;
+        switch (scenario) {
+            case "browse":
+                run = browse(intendedStartNanos);
+                break;
+            case "search":
+                run = search(intendedStartNanos);
+                break;
+            case "login":
+                run = login(1 + ThreadLocalRandom.current().nextInt(users), intendedStartNanos);
+                break;
+            case "checkout":
+                run = checkout(intendedStartNanos);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный сценарий: " + scenario);
+        }
+
+        inFlight.incrementAndGet();
+        run.whenComplete((result, error) -> {
+            inFlight.decrementAndGet();
+            if (error != null && measuring) {
+                droppedScenarios.increment();
+            }
+        });
+    }
+
+    private CompletableFuture<?> browse(long intendedStartNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int categoryId = 1 + random.nextInt(categories);
+        int page = random.nextInt(Math.max(1, products / 12));
+        long productId = productSampler.sample(random);
+
+        return send("GET /catalog?categoryId", get("/catalog?categoryId=" + categoryId), intendedStartNanos)
+                .thenCompose(r -> send("GET /products?page", get("/products?page=" + page + "&size=12"),
+                        System.nanoTime()))
+                .thenCompose(r -> send("GET /products/{id}", get("/products/" + productId), System.nanoTime()));
+    }
+
+    private CompletableFuture<?> search(long intendedStartNanos) {
+        String term = "Шлем " + SEARCH_BRANDS[brandSampler.sample(ThreadLocalRandom.current()) - 1];
+        String path = "/products/search?name=" + URLEncoder.encode(term, StandardCharsets.UTF_8);
+        return send("GET /products/search", get(path), intendedStartNanos);
+    }
+
+    private CompletableFuture<String> login(int userId, long intendedStartNanos) {
+        String body = "{\"username\":\"user" + userId + "\",\"password\":\"" + password + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/auth/signin"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return send("POST /api/auth/signin", request, intendedStartNanos)
+                .thenApply(response -> {
+                    try {
+                        JsonNode token = objectMapper.readTree(response.body()).get("token");
+                        return token != null ? token.asText() : null;
+                    } catch (IOException e) {
+                        return null;
+                    }
+                });
+    }
+
+    private CompletableFuture<?> checkout(long intendedStartNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int userId = 1 + random.nextInt(Math.min(users, CHECKOUT_USERS));
+
+        StringBuilder body = new StringBuilder("{\"shippingAddress\":\"Москва, ул. Нагрузочная, 1\",")
+                .append("\"phoneNumber\":\"+70000000000\",\"items\":[");
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"productId\":").append(productSampler.sample(random))
+                    .append(",\"quantity\":1}");
+        }
+        body.append("]}");
+
+        String cached = tokens.get(userId);
+        CompletableFuture<String> token = cached != null
+                ? CompletableFuture.completedFuture(cached)
+                : login(userId, intendedStartNanos).thenApply(jwt -> {
+                    if (jwt != null) {
+                        tokens.put(userId, jwt);
+                    }
+                    return jwt;
+                });
+        long checkoutStart = cached != null ? intendedStartNanos : -1;
+
+        return token.thenCompose(jwt -> {
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/orders/checkout"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Cookie", "jwtToken=" + jwt)
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            // 409 — товар закончился: для нагрузки это нормальный ответ, а не ошибка
+            return send("POST /api/orders/checkout", request, checkoutStart >= 0 ? checkoutStart : System.nanoTime(), 409);
+        });
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(String endpoint, HttpRequest request, long startNanos,
+                                                         int... acceptedErrorStatuses) {
+        // Учитываются запросы, отправленные в окне замера, даже если ответ пришел после него
+        boolean measured = measuring;
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    if (!measured) {
+                        return;
+                    }
+                    EndpointStats endpointStats = stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+                    endpointStats.latency.recordMicros((System.nanoTime() - startNanos) / 1000);
+                    if (error != null || (response.statusCode() >= 400
+                            && !contains(acceptedErrorStatuses, response.statusCode()))) {
+                        endpointStats.errors.increment();
+                    }
+                });
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void printReport(double seconds) {
+        System.out.printf("%n%-28s %9s %8s %9s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            long count = latency.count();
+            System.out.printf("%-28s %9d %8d %9.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), count, entry.getValue().errors.sum(), count / seconds,
+                    latency.percentileMicros(50) / 1000.0, latency.percentileMicros(99) / 1000.0,
+                    latency.percentileMicros(99.9) / 1000.0, latency.maxMicros() / 1000.0);
+        }
+        System.out.printf("Scenarios aborted by transport errors: %d%n", droppedScenarios.sum());
+    }
+
+    private void writeReport(File file, double seconds) throws IOException {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey());
+            row.put("requests", latency.count());
+            row.put("errors", entry.getValue().errors.sum());
+            row.put("throughput", latency.count() / seconds);
+            row.put("p50Ms", latency.percentileMicros(50) / 1000.0);
+            row.put("p99Ms", latency.percentileMicros(99) / 1000.0);
+            row.put("p999Ms", latency.percentileMicros(99.9) / 1000.0);
+            row.put("maxMs", latency.maxMicros() / 1000.0);
+            endpoints.add(row);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", baseUri.toString());
+        report.put("durationSeconds", seconds);
+        report.put("endpoints", endpoints);
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+
+    private static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.academy.homework.motoshop.lowstock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.academy.homework.motoshop.importer.ImportFormat;
+import ru.academy.homework.motoshop.importer.ProductImportReport;
+import ru.academy.homework.motoshop.importer.ProductImportService;
+import ru.academy.homework.motoshop.model.Category;
+import ru.academy.homework.motoshop.repository.CategoryRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LowStockImportTests {
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private LowStockMonitor monitor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void insertOnlyImportReachesLowStockIndex() throws Exception {
+        monitor.refresh();
+        String csv = "sku;name;price;stock_quantity\n" +
+                "LOW-IMPORT-1;Тормозные колодки;2500;2\n" +
+                "LOW-IMPORT-2;Масляный фильтр;900;0\n";
+
+        ProductImportReport report = importService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, null);
+        assertEquals(2, report.getInserted());
+        assertEquals(0, report.getUpdated());
+
+        monitor.refresh();
+        Long low = productId("LOW-IMPORT-1");
+        Long out = productId("LOW-IMPORT-2");
+        assertTrue(monitor.findLowStock(monitor.getThreshold()).stream()
+                .anyMatch(item -> item.productId().equals(low) && item.level() == StockLevel.LOW));
+        // Закончившийся товар импортируется снятым с продажи и виден только в снимке для подписчиков
+        assertTrue(monitor.snapshot().stream()
+                .anyMatch(item -> item.productId().equals(out) && item.level() == StockLevel.OUT_OF_STOCK));
+    }
+
+    @Test
+    void lowStockEndpointReturnsIndexedProductsWithCategory() throws Exception {
+        Category category = categoryRepository.save(new Category("Расходники", null));
+        String csv = "sku;name;price;stock_quantity;categoryId\n" +
+                "LOW-REST-1;Свечи зажигания;1200;1;" + category.getId() + "\n";
+        importService.importProducts(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                ImportFormat.CSV, null);
+        monitor.refresh();
+
+        // Ответ сериализуется после транзакции: категория должна прийти загруженной
+        mockMvc.perform(get("/products/low-stock").param("threshold", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.sku == 'LOW-REST-1')].category.name").value("Расходники"));
+    }
+
+    private Long productId(String sku) {
+        return jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = ?", Long.class, sku);
+    }
+}
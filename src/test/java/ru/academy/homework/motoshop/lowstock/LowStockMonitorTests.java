@@ -0,0 +1,117 @@
+package ru.academy.homework.motoshop.lowstock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.academy.homework.motoshop.cache.CacheInvalidation;
+import ru.academy.homework.motoshop.cache.InJvmCacheInvalidationChannel;
+import ru.academy.homework.motoshop.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowStockMonitorTests {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private InJvmCacheInvalidationChannel channel;
+    private LowStockMonitor monitor;
+    private final List<LowStockAlert> published = new ArrayList<>();
+    private final List<LowStockAlert> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/products-schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        channel = new InJvmCacheInvalidationChannel();
+        monitor = new LowStockMonitor(new NamedParameterJdbcTemplate(database), channel,
+                event -> published.add((LowStockAlert) event), new SimpleMeterRegistry(), 10, 60_000);
+        monitor.subscribe(received::add);
+
+        jdbcTemplate.update("INSERT INTO products (id, name, price, stock_quantity, available) VALUES " +
+                "(1, 'Шлем', 100, 50, TRUE), (2, 'Куртка', 200, 4, TRUE), " +
+                "(3, 'Перчатки', 50, 8, TRUE), (4, 'Очки', 30, 3, FALSE)");
+        monitor.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+        database.shutdown();
+    }
+
+    @Test
+    void initialLoadBuildsOrderedIndexWithoutAlerts() {
+        assertTrue(monitor.isReady());
+        assertEquals(List.of(2L, 3L), ids(monitor.findLowStock(10)));
+        assertEquals(List.of(2L), ids(monitor.findLowStock(5)));
+        assertEquals(2, monitor.countLowStock(10));
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void alertsOnThresholdCrossingAfterInvalidation() {
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 7 WHERE id = 1");
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 0, available = FALSE WHERE id = 2");
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 6 WHERE id = 3");
+        channel.publish(new CacheInvalidation("node", Product.class.getName(), Set.of(1L, 2L, 3L)));
+        monitor.refresh();
+
+        assertEquals(List.of(3L, 1L), ids(monitor.findLowStock(10)));
+        assertEquals(2, received.size());
+        assertEquals(received, published);
+
+        LowStockAlert low = alertFor(1L);
+        assertEquals(StockLevel.OK, low.previousLevel());
+        assertEquals(StockLevel.LOW, low.level());
+        assertEquals(7, low.stock());
+
+        LowStockAlert out = alertFor(2L);
+        assertEquals(StockLevel.LOW, out.previousLevel());
+        assertEquals(StockLevel.OUT_OF_STOCK, out.level());
+
+        // Без сообщения об изменении индекс не перечитывается
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 100 WHERE id = 3");
+        monitor.refresh();
+        assertEquals(List.of(3L, 1L), ids(monitor.findLowStock(10)));
+    }
+
+    @Test
+    void wholeRegionInvalidationReloadsTableAndReportsRemovedProducts() {
+        jdbcTemplate.update("DELETE FROM products WHERE id = 2");
+        jdbcTemplate.update("INSERT INTO products (id, name, price, stock_quantity, available) VALUES " +
+                "(5, 'Цепь', 80, 1, TRUE)");
+        channel.publish(new CacheInvalidation("node", Product.class.getName(), null));
+        monitor.refresh();
+
+        assertEquals(List.of(5L, 3L), ids(monitor.findLowStock(10)));
+        assertEquals(StockLevel.LOW, alertFor(2L).previousLevel());
+        assertNull(alertFor(2L).level());
+        assertNull(alertFor(5L).previousLevel());
+        assertEquals(StockLevel.LOW, alertFor(5L).level());
+    }
+
+    private LowStockAlert alertFor(Long productId) {
+        return received.stream()
+                .filter(alert -> alert.productId().equals(productId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<Long> ids(List<LowStockItem> items) {
+        return items.stream().map(LowStockItem::productId).toList();
+    }
+}
@@ -0,0 +1,36 @@
+package ru.academy.homework.motoshop.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTests {
+
+    @Test
+    void keepsKopecksExactAndRejectsFractions() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(0.1));
+        }
+        assertEquals(Money.ofMinor(100), total);
+        assertEquals(Money.ofMinor(1_665), Money.valueOf("5,55").times(3));
+        assertNull(Money.valueOf(" "));
+
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.005")));
+        assertThrows(IllegalArgumentException.class, () -> Money.valueOf("abc"));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).times(2));
+    }
+
+    @Test
+    void serializesAsDecimalWithTwoDigits() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("45990.50", objectMapper.writeValueAsString(Money.ofMinor(4_599_050)));
+        assertEquals(Money.ofMinor(4_599_000), objectMapper.readValue("45990", Money.class));
+        assertEquals(new BigDecimal("0.00"), new MoneyConverter().convertToDatabaseColumn(Money.ZERO));
+        assertEquals(Money.ofMinor(13), new MoneyConverter().convertToEntityAttribute(new BigDecimal("0.125")));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.academy.homework.motoshop.orderhistory;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderHistoryServiceTests {
+
+    @Autowired
+    private OrderHistoryService orderHistoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void pagesByKeysetNewestFirstWithLinesInOneExtraQuery() {
+        User user = userRepository.save(new User("history-user", "history@example.com", "secret"));
+        Long productId = productRepository.findAll().get(0).getId();
+
+        // Пять заказов, у двух пар одинаковая дата: порядок внутри пары задает id
+        LocalDateTime base = LocalDateTime.of(2026, 1, 10, 12, 0);
+        LocalDateTime[] dates = {base, base.plusDays(1), base.plusDays(1), base.plusDays(2), base.plusDays(2)};
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < dates.length; i++) {
+            jdbcTemplate.update("INSERT INTO orders (user_id, total_amount, status, order_date) VALUES (?, ?, 'PENDING', ?)",
+                    user.getId(), 100.0 * (i + 1), Timestamp.valueOf(dates[i]));
+            Long orderId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+            for (int line = 0; line <= i % 2; line++) {
+                jdbcTemplate.update("INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (?, ?, ?, ?)",
+                        orderId, productId, line + 1, 100.0);
+            }
+            expected.add(0, orderId);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            long before = statistics.getPrepareStatementCount();
+            OrderHistoryPage page = orderHistoryService.getHistory(user.getId(), cursor, 2, true);
+            assertEquals(2, statistics.getPrepareStatementCount() - before, "Страница и строки — два запроса");
+
+            for (OrderSummaryView order : page.getOrders()) {
+                seen.add(order.getId());
+                assertEquals(order.getItemCount(), order.getItems().size());
+                assertTrue(order.getItemCount() >= 1);
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> orderHistoryService.getHistory(user.getId(), "not-a-cursor", 2, true));
+        assertTrue(orderHistoryService.getHistory(user.getId(), null, 5, false).getOrders().stream()
+                .allMatch(order -> order.getItems().isEmpty() && order.getItemCount() > 0));
+    }
+}
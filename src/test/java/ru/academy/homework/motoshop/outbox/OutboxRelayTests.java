@@ -0,0 +1,151 @@
+package ru.academy.homework.motoshop.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.academy.homework.motoshop.MotoShopApplication;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.services.ProductService;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Отдельный контекст со своей базой: аренду разбора outbox в нем гарантированно держит
+ * этот узел, а не закэшированный контекст другого теста.
+ */
+class OutboxRelayTests {
+
+    private static final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+    private static final List<OutboxEvent> sunk = new CopyOnWriteArrayList<>();
+    private static final AtomicBoolean sinkFailing = new AtomicBoolean();
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void startContext() throws InterruptedException {
+        ApplicationListener<PayloadApplicationEvent<?>> listener = event -> {
+            if (event.getPayload() instanceof OutboxEvent outboxEvent) {
+                received.add(outboxEvent);
+            }
+        };
+        OutboxSink sink = new OutboxSink() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public void deliver(List<OutboxEvent> events) {
+                if (sinkFailing.getAndSet(false)) {
+                    throw new IllegalStateException("Приемник недоступен");
+                }
+                sunk.addAll(events);
+            }
+        };
+
+        context = new SpringApplicationBuilder(MotoShopApplication.class)
+                .listeners(listener)
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("testOutboxSink", sink))
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:outbox;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+                        "--motoshop.outbox.relay.poll-interval-ms=20",
+                        "--motoshop.outbox.relay.max-backoff-ms=100");
+        awaitDrained();
+    }
+
+    @AfterAll
+    static void stopContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void clear() {
+        received.clear();
+        sunk.clear();
+    }
+
+    @Test
+    void deliversCommittedChangesOfOneProductInOrder() throws InterruptedException {
+        ProductService productService = context.getBean(ProductService.class);
+        Product product = context.getBean(ProductRepository.class).findAll().get(0);
+        int stock = product.getStockQuantity();
+
+        productService.decreaseStock(product.getId(), 1);
+        productService.increaseStock(product.getId(), 3);
+        assertThrows(RuntimeException.class, () -> productService.decreaseStock(product.getId(), stock + 1000));
+        Product details = new Product();
+        details.setPrice(Money.ofMinor(1_234_500));
+        productService.updateProduct(product.getId(), details);
+
+        List<OutboxEvent> events = awaitEvents(product.getId(), 3);
+        assertEquals(List.of(OutboxEventType.STOCK_CHANGED, OutboxEventType.STOCK_CHANGED,
+                OutboxEventType.PRODUCT_UPSERTED), events.stream().map(OutboxEvent::getType).toList());
+        assertTrue(events.get(0).getId() < events.get(1).getId() && events.get(1).getId() < events.get(2).getId());
+
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        assertEquals(stock - 1, events.get(0).payloadAs(OutboxPayloads.StockLevel.class, objectMapper).stock());
+        assertEquals(stock + 2, events.get(1).payloadAs(OutboxPayloads.StockLevel.class, objectMapper).stock());
+        assertEquals(Money.ofMinor(1_234_500), events.get(2).payloadAs(OutboxPayloads.ProductSnapshot.class, objectMapper).price());
+
+        // Откаченное списание события не оставило, доставленные строки удалены
+        awaitDrained();
+        assertEquals(3, received.stream().filter(event -> event.getAggregateId() == product.getId()).count());
+        assertTrue(context.getBean(MeterRegistry.class).get("motoshop.outbox.events")
+                .tag("stage", "RELAYED").counter().count() >= 3);
+    }
+
+    @Test
+    void failedSinkCausesRedeliveryOfWholeBatch() throws InterruptedException {
+        Product product = context.getBean(ProductRepository.class).findAll().get(1);
+        sinkFailing.set(true);
+
+        context.getBean(ProductService.class).increaseStock(product.getId(), 1);
+
+        awaitDrained();
+        assertEquals(1, sunk.stream().filter(event -> event.getAggregateId() == product.getId()).count());
+        // Подписчики внутри процесса получили событие и при первой, неудачной попытке
+        assertEquals(2, received.stream().filter(event -> event.getAggregateId() == product.getId()).count());
+    }
+
+    private static List<OutboxEvent> awaitEvents(long productId, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<OutboxEvent> events;
+        do {
+            events = received.stream()
+                    .filter(event -> event.getAggregateType() == OutboxAggregateType.PRODUCT
+                            && event.getAggregateId() == productId)
+                    .toList();
+            if (events.size() >= count) {
+                return events;
+            }
+            Thread.sleep(20);
+        } while (System.currentTimeMillis() < deadline);
+        fail("Доставлено событий: " + events.size() + " из " + count);
+        return events;
+    }
+
+    private static void awaitDrained() throws InterruptedException {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class) > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Outbox не разобран");
+            Thread.sleep(20);
+        }
+    }
+}
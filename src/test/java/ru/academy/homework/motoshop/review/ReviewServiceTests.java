@@ -0,0 +1,124 @@
+package ru.academy.homework.motoshop.review;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.academy.homework.motoshop.entity.User;
+import ru.academy.homework.motoshop.model.Product;
+import ru.academy.homework.motoshop.money.Money;
+import ru.academy.homework.motoshop.repository.ProductRepository;
+import ru.academy.homework.motoshop.repository.UserRepository;
+import ru.academy.homework.motoshop.view.CatalogViewService;
+import ru.academy.homework.motoshop.view.ProductCardView;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReviewServiceTests {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ProductRatingService ratingService;
+
+    @Autowired
+    private CatalogViewService catalogViewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void maintainsRatingAggregateOnAddAndDelete() {
+        User author = userRepository.save(new User("review-author", "review-author@example.com", "secret"));
+        User other = userRepository.save(new User("review-other", "review-other@example.com", "secret"));
+        Product product = productRepository.save(new Product("Товар с отзывами", "", Money.ofMinor(100_000), 5, null));
+
+        ReviewView first = reviewService.addReview(author.getId(), product.getId(), 5, "Отлично");
+        reviewService.addReview(other.getId(), product.getId(), 4, null);
+        ReviewView third = reviewService.addReview(other.getId(), product.getId(), 1, "  Сломался  ");
+        assertEquals("Сломался", third.comment());
+
+        ProductRatingView rating = ratingService.getRating(product.getId());
+        assertEquals(3, rating.count());
+        assertEquals(3.3, rating.average());
+        assertEquals(List.of(1L, 0L, 0L, 1L, 1L), rating.histogram());
+
+        assertThrows(AccessDeniedException.class, () -> reviewService.deleteReview(first.id(), other.getId(), false));
+        reviewService.deleteReview(third.id(), other.getId(), false);
+
+        rating = ratingService.getRating(product.getId());
+        assertEquals(2, rating.count());
+        assertEquals(4.5, rating.average());
+        assertEquals(List.of(0L, 0L, 0L, 1L, 1L), rating.histogram());
+
+        // Карточка каталога читает рейтинг тем же запросом
+        ProductCardView card = catalogViewService.getProduct(product.getId()).orElseThrow();
+        assertEquals(2, card.getRatingCount());
+        assertEquals(4.5, card.getAverageRating());
+
+        // Страница отзывов: новые первыми, всего — из рейтинга
+        ProductReviewsPage page = reviewService.getReviews(product.getId(), 0, 1);
+        assertEquals(2, page.totalItems());
+        assertEquals(2, page.totalPages());
+        assertEquals(1, page.reviews().size());
+        assertEquals("review-other", page.reviews().get(0).authorName());
+        assertEquals(first.id(), reviewService.getReviews(product.getId(), 1, 1).reviews().get(0).id());
+        assertTrue(reviewService.getReviews(product.getId(), 2, 1).reviews().isEmpty());
+
+        // Полный пересчет дает тот же результат, что и приращения
+        ratingService.rebuildAll();
+        assertEquals(rating, ratingService.getRating(product.getId()));
+    }
+
+    @Test
+    void rejectsInvalidReviews() {
+        User author = userRepository.save(new User("review-invalid", "review-invalid@example.com", "secret"));
+        Long productId = productRepository.findAll().get(0).getId();
+        long countBefore = ratingService.getRating(productId).count();
+
+        assertThrows(IllegalArgumentException.class, () -> reviewService.addReview(author.getId(), productId, 6, null));
+        assertThrows(IllegalArgumentException.class, () -> reviewService.addReview(author.getId(), -1L, 5, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.addReview(author.getId(), productId, 5, "x".repeat(300)));
+        assertEquals(countBefore, ratingService.getRating(productId).count());
+        assertThrows(IllegalArgumentException.class, () -> reviewService.getReviews(-1L, 0, 10));
+    }
+
+    @Test
+    void concurrentDeleteOfSameReviewReportsNotFound() throws Exception {
+        User author = userRepository.save(new User("review-race", "review-race@example.com", "secret"));
+        Product product = productRepository.save(new Product("Товар для гонки удаления", "", Money.ofMinor(100_000), 5, null));
+        ReviewView review = reviewService.addReview(author.getId(), product.getId(), 4, null);
+
+        // Второе удаление проходит проверку до фиксации первого и ждет блокировку строки
+        CompletableFuture<Void> second = transactionTemplate.execute(status -> {
+            reviewService.deleteReview(review.id(), author.getId(), false);
+            CompletableFuture<Void> concurrent = CompletableFuture.runAsync(
+                    () -> reviewService.deleteReview(review.id(), author.getId(), false));
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return concurrent;
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals(0, ratingService.getRating(product.getId()).count());
+    }
+}
@@ -0,0 +1,65 @@
+package ru.academy.homework.motoshop.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementRecorderTests {
+
+    private EmbeddedDatabase database;
+    private SqlStatementRecorder recorder;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/products-schema.sql")
+                .build();
+        recorder = new SqlStatementRecorder(new SimpleMeterRegistry());
+        jdbcTemplate = new JdbcTemplate(new SqlInspectingDataSource(database, () -> recorder));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void fingerprintIgnoresLiteralsAndInListLength() {
+        assertEquals("SELECT * FROM products WHERE id IN (?...) AND name = ?",
+                SqlFingerprint.normalize("SELECT *  FROM products\n WHERE id IN (1, 2, 3) AND name = 'it''s'"));
+        assertEquals(SqlFingerprint.normalize("select p1_0.id from products p1_0 where p1_0.id in (?,?)"),
+                SqlFingerprint.normalize("select p1_0.id from products p1_0 where p1_0.id in (?,?,?,?)"));
+    }
+
+    @Test
+    void groupsRepeatedStatementsByShape() {
+        recorder.beginRequest();
+        for (int i = 1; i <= 12; i++) {
+            jdbcTemplate.queryForList("SELECT id FROM products WHERE category_id = ?", Long.class, i);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name) VALUES (?, ?)",
+                List.of(new Object[]{1L, "Шлемы"}, new Object[]{2L, "Куртки"}));
+        recorder.endRequest("GET", "/catalog", 200, 1_000_000);
+
+        List<SqlShapeStats> top = recorder.topShapes(10, "count");
+        assertEquals(2, top.size());
+        assertEquals("SELECT id FROM products WHERE category_id = ?", top.get(0).getFingerprint());
+        assertEquals(12, top.get(0).getExecutions());
+        assertEquals(1, top.get(1).getExecutions());
+
+        recorder.reset();
+        assertEquals(0, recorder.getTrackedShapes());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.academy.homework.motoshop.stock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Сравнение пакетного обновления остатков с прежним путем «загрузить и сохранить»
+ * по одному товару на встроенной H2.
+ *
+ * <p>Запуск: {@code StockBatchBenchmark [products=20000] [batchSize=5000] [rounds=5]}.</p>
+ */
+public class StockBatchBenchmark {
+
+    public static void main(String[] args) {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/products-schema.sql")
+                .build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(new DataSourceTransactionManager(database));
+            StockBatchService service = new StockBatchService(jdbcTemplate,
+                    new NamedParameterJdbcTemplate(database), transactionTemplate);
+
+            List<Object[]> rows = new ArrayList<>(products);
+            for (int i = 1; i <= products; i++) {
+                rows.add(new Object[]{i, "Товар " + i, 1000.0, 100});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, stock_quantity, available) " +
+                    "VALUES (?, ?, ?, ?, TRUE)", rows);
+
+            Random random = new Random(42);
+            for (int round = 0; round < rounds; round++) {
+                StockBatchRequest request = new StockBatchRequest();
+                List<StockBatchRequest.Item> items = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    items.add(new StockBatchRequest.Item((long) random.nextInt(products) + 1,
+                            random.nextInt(21) - 10, null));
+                }
+                request.setUpdates(items);
+
+                long start = System.nanoTime();
+                service.applyBatch(request);
+                double batchMs = (System.nanoTime() - start) / 1e6;
+
+                start = System.nanoTime();
+                for (StockBatchRequest.Item item : items) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        Integer stock = jdbcTemplate.queryForObject(
+                                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, item.getProductId());
+                        int updated = Math.max(0, stock + item.getQuantity());
+                        jdbcTemplate.update("UPDATE products SET stock_quantity = ?, available = ? WHERE id = ?",
+                                updated, updated > 0, item.getProductId());
+                    });
+                }
+                double singleMs = (System.nanoTime() - start) / 1e6;
+
+                System.out.printf("round %d: batch %.1f ms (%.0f updates/s), one by one %.1f ms (%.0f updates/s)%n",
+                        round, batchMs, batchSize * 1000 / batchMs, singleMs, batchSize * 1000 / singleMs);
+            }
+        } finally {
+            database.shutdown();
+        }
+    }
+}
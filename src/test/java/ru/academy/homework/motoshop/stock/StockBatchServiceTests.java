@@ -0,0 +1,74 @@
+package ru.academy.homework.motoshop.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockBatchServiceTests {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StockBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/products-schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        service = new StockBatchService(jdbcTemplate, new NamedParameterJdbcTemplate(database),
+                new TransactionTemplate(new DataSourceTransactionManager(database)));
+
+        jdbcTemplate.update("INSERT INTO products (id, name, price, stock_quantity, available) VALUES " +
+                "(1, 'Шлем', 100, 5, TRUE), (2, 'Куртка', 200, 0, FALSE), (3, 'Перчатки', 50, 2, TRUE)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void appliesAbsoluteAndDeltaUpdatesAndRecomputesAvailability() {
+        StockBatchRequest request = new StockBatchRequest();
+        request.setUpdates(List.of(
+                new StockBatchRequest.Item(1L, -5, null),
+                new StockBatchRequest.Item(2L, 7, StockUpdateMode.ABSOLUTE),
+                new StockBatchRequest.Item(3L, -3, null),
+                new StockBatchRequest.Item(99L, 1, null),
+                new StockBatchRequest.Item(2L, 3, null)));
+
+        StockBatchReport report = service.applyBatch(request);
+
+        List<StockUpdateResult> results = report.getResults();
+        assertEquals(StockUpdateResult.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(0, results.get(0).getStockQuantity());
+        assertFalse(results.get(0).getAvailable());
+
+        assertEquals(StockUpdateResult.Status.UPDATED, results.get(1).getStatus());
+        assertEquals(StockUpdateResult.Status.REJECTED, results.get(2).getStatus());
+        assertEquals(2, results.get(2).getStockQuantity());
+        assertEquals(StockUpdateResult.Status.NOT_FOUND, results.get(3).getStatus());
+
+        // Абсолютное значение применено раньше дельты того же товара, как в запросе
+        assertEquals(10, results.get(4).getStockQuantity());
+        assertTrue(results.get(4).getAvailable());
+
+        assertEquals(3, report.getUpdated());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, report.getNotFound());
+    }
+}
@@ -0,0 +1,144 @@
+package ru.academy.homework.motoshop.view;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Страницы каталога отрисовываются без сессии Hibernate: после выхода из контроллера
+ * не выполняется ни одного SQL-выражения и в модели нет сущностей.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogViewRenderingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogViewService catalogViewService;
+
+    @Autowired
+    private RenderProbe probe;
+
+    @BeforeEach
+    void setUp() {
+        probe.reset();
+    }
+
+    @Test
+    void pagesRenderWithoutSessionOrQueries() throws Exception {
+        Long categoryId = catalogViewService.getCategories().get(0).getId();
+        Long productId = catalogViewService.getCatalog(null).getProducts().get(0).getId();
+
+        for (String uri : List.of("/", "/catalog", "/catalog?categoryId=" + categoryId, "/product?id=" + productId)) {
+            probe.reset();
+            mockMvc.perform(get(uri)).andExpect(status().isOk());
+
+            assertTrue(probe.handled, uri);
+            assertFalse(probe.sessionBound, "Open-session-in-view для " + uri);
+            assertEquals(0, probe.statementsDuringRendering, "SQL во время отрисовки " + uri);
+            assertTrue(probe.entityModelAttributes.isEmpty(), "Сущности в модели " + uri + ": " + probe.entityModelAttributes);
+        }
+    }
+
+    @TestConfiguration
+    static class ProbeConfig implements WebMvcConfigurer {
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(renderProbe());
+        }
+
+        @Bean
+        RenderProbe renderProbe() {
+            return new RenderProbe(entityManagerFactory);
+        }
+    }
+
+    static class RenderProbe implements HandlerInterceptor {
+
+        private final EntityManagerFactory entityManagerFactory;
+        private final Statistics statistics;
+
+        volatile boolean handled;
+        volatile boolean sessionBound;
+        volatile long statementsAfterHandler;
+        volatile long statementsDuringRendering;
+        volatile List<String> entityModelAttributes = List.of();
+
+        RenderProbe(EntityManagerFactory entityManagerFactory) {
+            this.entityManagerFactory = entityManagerFactory;
+            this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        }
+
+        void reset() {
+            handled = false;
+            sessionBound = false;
+            statementsDuringRendering = -1;
+            entityModelAttributes = List.of();
+        }
+
+        @Override
+        public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                               ModelAndView modelAndView) {
+            handled = true;
+            sessionBound = TransactionSynchronizationManager.hasResource(entityManagerFactory);
+            statementsAfterHandler = statistics.getPrepareStatementCount();
+            if (modelAndView != null) {
+                entityModelAttributes = modelAndView.getModel().entrySet().stream()
+                        .filter(entry -> isEntity(entry.getValue()))
+                        .map(Map.Entry::getKey)
+                        .toList();
+            }
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception ex) {
+            if (handled) {
+                statementsDuringRendering = statistics.getPrepareStatementCount() - statementsAfterHandler;
+            }
+        }
+
+        private boolean isEntity(Object value) {
+            if (value instanceof Iterable<?> values) {
+                for (Object element : values) {
+                    if (isEntity(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return value != null && value.getClass().isAnnotationPresent(Entity.class)
+                    || value instanceof HibernateProxy;
+        }
+    }
+}
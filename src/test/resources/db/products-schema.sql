@@ -0,0 +1,23 @@
+CREATE TABLE categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255)
+);
+
+CREATE TABLE products (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    sku VARCHAR(64),
+    description VARCHAR(MAX),
+    price DECIMAL(19, 2) NOT NULL,
+    stock_quantity INT,
+    category_id BIGINT REFERENCES categories (id),
+    brand VARCHAR(255),
+    model VARCHAR(255),
+    image_url VARCHAR(255),
+    available BIT,
+    created_at DATETIME2,
+    updated_at DATETIME2
+);
+
+CREATE UNIQUE NULLS DISTINCT INDEX ux_products_sku ON products (sku);